@@ -20,16 +20,25 @@ import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
 /**
  *
  * @author Q42 - Initial contribution
@@ -37,33 +46,41 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class HttpClient {
+    /** The bridge handles roughly 10 light commands per second */
+    static final long MIN_COMMAND_DELAY = 100;
+
     private int timeout = 1000;
     private final Logger logger = LoggerFactory.getLogger(HttpClient.class);
+    private final JsonParser parser = new JsonParser();
     private final LinkedList<AsyncPutParameters> commandsQueue = new LinkedList<>();
+    /** The last queued command per address, guarded by the commandsQueue */
+    private final Map<String, AsyncPutParameters> pendingCommands = new HashMap<>();
+    private final AtomicLong mergedCommands = new AtomicLong();
     private @Nullable Future<?> job;
 
-    @SuppressWarnings({ "null", "unused" })
     private void executeCommands() {
         while (true) {
             try {
-                long delayTime = 0;
+                AsyncPutParameters payloadCallbackPair;
+                int queueDepth;
                 synchronized (commandsQueue) {
-                    AsyncPutParameters payloadCallbackPair = commandsQueue.poll();
-                    if (payloadCallbackPair != null) {
-                        logger.debug("Async sending put to address: {} delay: {} body: {}", payloadCallbackPair.address,
-                                payloadCallbackPair.delay, payloadCallbackPair.body);
-                        try {
-                            Result result = put(payloadCallbackPair.address, payloadCallbackPair.body);
-                            payloadCallbackPair.future.complete(result);
-                        } catch (IOException e) {
-                            payloadCallbackPair.future.completeExceptionally(e);
-                        }
-                        delayTime = payloadCallbackPair.delay;
-                    } else {
+                    payloadCallbackPair = commandsQueue.poll();
+                    if (payloadCallbackPair == null) {
                         return;
                     }
+                    pendingCommands.remove(payloadCallbackPair.address, payloadCallbackPair);
+                    queueDepth = commandsQueue.size();
                 }
-                Thread.sleep(delayTime);
+                logger.debug("Async sending put to address: {} delay: {} body: {} queue depth: {} merged: {}",
+                        payloadCallbackPair.address, payloadCallbackPair.delay, payloadCallbackPair.body, queueDepth,
+                        mergedCommands.get());
+                try {
+                    Result result = put(payloadCallbackPair.address, payloadCallbackPair.body);
+                    payloadCallbackPair.future.complete(result);
+                } catch (IOException e) {
+                    payloadCallbackPair.future.completeExceptionally(e);
+                }
+                Thread.sleep(Math.max(payloadCallbackPair.delay, MIN_COMMAND_DELAY));
             } catch (InterruptedException e) {
                 logger.debug("commandExecutorThread was interrupted", e);
             }
@@ -86,22 +103,54 @@ public class HttpClient {
         return doNetwork(address, "PUT", body);
     }
 
+    /**
+     * Queues a PUT request. The requests are sent one after the other, waiting the given delay after each request.
+     * <p>
+     * If a request for the same address is still queued, the fields of the given body are merged into the queued
+     * body instead, newer values overwriting older ones. The returned future then completes with the result of the
+     * merged request. Relative updates, like "bri_inc", are never merged.
+     *
+     * @param address The address
+     * @param body A JSON object
+     * @param delay The time in milliseconds to wait after the request, at least {@link #MIN_COMMAND_DELAY}
+     * @param scheduler The scheduler to send the requests on
+     * @return A future completing with the result of the request
+     */
     public CompletableFuture<Result> putAsync(String address, String body, long delay,
             ScheduledExecutorService scheduler) {
-        AsyncPutParameters asyncPutParameters = new AsyncPutParameters(address, body, delay);
-
         synchronized (commandsQueue) {
-            if (commandsQueue.isEmpty()) {
-                commandsQueue.offer(asyncPutParameters);
-                if (job == null || job.isDone()) {
-                    job = scheduler.submit(this::executeCommands);
-                }
-            } else {
-                commandsQueue.offer(asyncPutParameters);
+            AsyncPutParameters pending = pendingCommands.get(address);
+            if (pending != null && pending.merge(body, delay)) {
+                mergedCommands.incrementAndGet();
+                logger.trace("Merged put to address: {} into queued body: {}", address, pending.body);
+                return pending.future;
+            }
+
+            AsyncPutParameters asyncPutParameters = new AsyncPutParameters(address, body, delay);
+            commandsQueue.offer(asyncPutParameters);
+            pendingCommands.put(address, asyncPutParameters);
+            Future<?> job = this.job;
+            if (job == null || job.isDone()) {
+                this.job = scheduler.submit(this::executeCommands);
             }
+            return asyncPutParameters.future;
         }
+    }
 
-        return asyncPutParameters.future;
+    /**
+     * Returns the number of queued PUT requests.
+     */
+    public int getQueueDepth() {
+        synchronized (commandsQueue) {
+            return commandsQueue.size();
+        }
+    }
+
+    /**
+     * Returns the number of PUT requests that have been merged into queued requests.
+     */
+    public long getMergedCommands() {
+        return mergedCommands.get();
     }
 
     public Result delete(String address) throws IOException {
@@ -160,9 +209,10 @@ public class HttpClient {
 
     public final class AsyncPutParameters {
         public final String address;
-        public final String body;
         public final CompletableFuture<Result> future;
-        public final long delay;
+        // Guarded by the commandsQueue
+        private String body;
+        private long delay;
 
         public AsyncPutParameters(String address, String body, long delay) {
             this.address = address;
@@ -170,5 +220,54 @@ public class HttpClient {
             this.future = new CompletableFuture<>();
             this.delay = delay;
         }
+
+        public String getBody() {
+            return body;
+        }
+
+        public long getDelay() {
+            return delay;
+        }
+
+        /**
+         * Merges the fields of the given body into this body.
+         *
+         * @return Returns false if the bodies cannot be merged.
+         */
+        boolean merge(String newBody, long newDelay) {
+            final JsonObject queued;
+            final JsonObject update;
+            try {
+                JsonElement queuedElement = parser.parse(body);
+                JsonElement updateElement = parser.parse(newBody);
+                if (!queuedElement.isJsonObject() || !updateElement.isJsonObject()) {
+                    return false;
+                }
+                queued = queuedElement.getAsJsonObject();
+                update = updateElement.getAsJsonObject();
+            } catch (JsonParseException e) {
+                return false;
+            }
+            if (isRelative(queued) || isRelative(update)) {
+                return false;
+            }
+            JsonElement on = update.get("on");
+            if (on != null && on.isJsonPrimitive() && !on.getAsBoolean()) {
+                // Turning off supersedes all queued changes
+                body = newBody;
+                delay = newDelay;
+                return true;
+            }
+            for (Entry<String, JsonElement> entry : update.entrySet()) {
+                queued.add(entry.getKey(), entry.getValue());
+            }
+            body = queued.toString();
+            delay = Math.max(delay, newDelay);
+            return true;
+        }
+
+        private boolean isRelative(JsonObject object) {
+            return object.entrySet().stream().anyMatch(entry -> entry.getKey().endsWith("_inc"));
+        }
     }
 }
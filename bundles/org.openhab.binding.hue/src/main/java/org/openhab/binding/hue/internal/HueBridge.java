@@ -23,8 +23,10 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
@@ -185,6 +187,59 @@ public class HueBridge {
         }
     }
 
+    /**
+     * Returns the lights known to the bridge as raw JSON by their id, without deserializing them.
+     * Requires a bridge that supports the full lights API.
+     *
+     * @return the JSON of the known lights by their id
+     * @throws UnauthorizedException thrown if the user no longer exists
+     * @see #toFullLight(String, JsonElement)
+     */
+    public Map<String, JsonElement> getFullLightsJson() throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("lights"));
+
+        handleErrors(result);
+
+        JsonElement lights;
+        try {
+            lights = new JsonParser().parse(result.getBody());
+        } catch (JsonParseException e) {
+            throw new ApiException("API returned unexpected result: " + e.getMessage());
+        }
+        if (!lights.isJsonObject()) {
+            throw new ApiException("API returned unexpected result: " + result.getBody());
+        }
+
+        Map<String, JsonElement> lightMap = new LinkedHashMap<>();
+        for (Entry<String, JsonElement> entry : lights.getAsJsonObject().entrySet()) {
+            lightMap.put(entry.getKey(), entry.getValue());
+        }
+        return lightMap;
+    }
+
+    /**
+     * Deserializes a light returned by {@link #getFullLightsJson()}.
+     *
+     * @param id id of the light
+     * @param json JSON of the light
+     * @return the light
+     */
+    public FullLight toFullLight(String id, JsonElement json) throws ApiException {
+        FullLight light;
+        try {
+            light = gson.fromJson(json, FullLight.class);
+        } catch (JsonParseException e) {
+            throw new ApiException("API returned unexpected result: " + e.getMessage());
+        }
+        if (light == null) {
+            throw new ApiException("API returned unexpected result for light " + id);
+        }
+        light.setId(id);
+        return light;
+    }
+
     /**
      * Returns a list of lights known to the bridge.
      *
@@ -27,6 +27,7 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
@@ -62,6 +63,8 @@ import org.openhab.binding.hue.internal.exceptions.UnauthorizedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+
 /**
  * {@link HueBridgeHandler} is the handler for a hue bridge and connects it to
  * the framework. All {@link HueLightHandler}s use the {@link HueBridgeHandler} to execute the actual commands.
@@ -149,6 +152,9 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         }
     }
 
+    /** Delay of the first poll after a command, in milliseconds */
+    private static final long FAST_LIGHT_POLLING_DELAY = 1000;
+
     private static final String STATE_ADDED = "added";
     private static final String STATE_GONE = "gone";
     private static final String STATE_CHANGED = "changed";
@@ -160,6 +166,8 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private final Logger logger = LoggerFactory.getLogger(HueBridgeHandler.class);
 
     private final Map<String, FullLight> lastLightStates = new ConcurrentHashMap<>();
+    /** The JSON of the lights at the last poll, only accessed while holding the pollingLock */
+    private final Map<String, JsonElement> lastLightsJson = new HashMap<>();
     private final Map<String, FullSensor> lastSensorStates = new ConcurrentHashMap<>();
 
     private boolean lastBridgeConnectionState = false;
@@ -170,6 +178,8 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private final List<SensorStatusListener> sensorStatusListeners = new CopyOnWriteArrayList<>();
 
     private @Nullable ScheduledFuture<?> lightPollingJob;
+    private @Nullable ScheduledFuture<?> fastLightPollingJob;
+    private int fastLightPollingRun;
     private @Nullable ScheduledFuture<?> sensorPollingJob;
 
     private @NonNullByDefault({}) HueBridge hueBridge = null;
@@ -218,27 +228,23 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         protected void doConnectedRun() throws IOException, ApiException {
             Map<String, FullLight> lastLightStateCopy = new HashMap<>(lastLightStates);
 
-            List<FullLight> lights;
             if (ApiVersionUtils.supportsFullLights(hueBridge.getVersion())) {
-                lights = hueBridge.getFullLights();
-            } else {
-                lights = hueBridge.getFullConfig().getLights();
-            }
-
-            for (final FullLight fullLight : lights) {
-                final String lightId = fullLight.getId();
-                if (lastLightStateCopy.containsKey(lightId)) {
-                    final FullLight lastFullLight = lastLightStateCopy.remove(lightId);
-                    final State lastFullLightState = lastFullLight.getState();
-                    lastLightStates.put(lightId, fullLight);
-                    if (!isEqual(lastFullLightState, fullLight.getState())) {
-                        logger.debug("Status update for Hue light '{}' detected.", lightId);
-                        notifyLightStatusListeners(fullLight, STATE_CHANGED);
+                Map<String, JsonElement> lightsJson = hueBridge.getFullLightsJson();
+                for (Entry<String, JsonElement> entry : lightsJson.entrySet()) {
+                    final String lightId = entry.getKey();
+                    if (lastLightStateCopy.containsKey(lightId)
+                            && entry.getValue().equals(lastLightsJson.get(lightId))) {
+                        // Unchanged since the last poll, no need to deserialize it
+                        lastLightStateCopy.remove(lightId);
+                        continue;
                     }
-                } else {
-                    lastLightStates.put(lightId, fullLight);
-                    logger.debug("Hue light '{}' added.", lightId);
-                    notifyLightStatusListeners(fullLight, STATE_ADDED);
+                    onLightPolled(lastLightStateCopy, hueBridge.toFullLight(lightId, entry.getValue()));
+                    lastLightsJson.put(lightId, entry.getValue());
+                }
+                lastLightsJson.keySet().retainAll(lightsJson.keySet());
+            } else {
+                for (final FullLight fullLight : hueBridge.getFullConfig().getLights()) {
+                    onLightPolled(lastLightStateCopy, fullLight);
                 }
             }
 
@@ -255,6 +261,23 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
                 }
             }
         }
+
+        private void onLightPolled(Map<String, FullLight> lastLightStateCopy, FullLight fullLight) {
+            final String lightId = fullLight.getId();
+            if (lastLightStateCopy.containsKey(lightId)) {
+                final FullLight lastFullLight = lastLightStateCopy.remove(lightId);
+                final State lastFullLightState = lastFullLight.getState();
+                lastLightStates.put(lightId, fullLight);
+                if (!isEqual(lastFullLightState, fullLight.getState())) {
+                    logger.debug("Status update for Hue light '{}' detected.", lightId);
+                    notifyLightStatusListeners(fullLight, STATE_CHANGED);
+                }
+            } else {
+                lastLightStates.put(lightId, fullLight);
+                logger.debug("Hue light '{}' added.", lightId);
+                notifyLightStatusListeners(fullLight, STATE_ADDED);
+            }
+        }
     };
 
     public HueBridgeHandler(Bridge bridge) {
@@ -270,6 +293,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     public void updateLightState(FullLight light, StateUpdate stateUpdate) {
         if (hueBridge != null) {
             hueBridge.setLightState(light, stateUpdate).thenAccept(result -> {
+                startFastLightPolling();
                 try {
                     hueBridge.handleErrors(result);
                 } catch (Exception e) {
@@ -347,16 +371,58 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             } else {
                 lightPollingInterval = hueBridgeConfig.getPollingInterval();
             }
-            lightPollingJob = scheduler.scheduleWithFixedDelay(lightPollingRunnable, 1, lightPollingInterval,
-                    TimeUnit.SECONDS);
+            lightPollingJob = getLightPollingScheduler().scheduleWithFixedDelay(lightPollingRunnable, 1,
+                    lightPollingInterval, TimeUnit.SECONDS);
         }
     }
 
-    private void stopLightPolling() {
+    private synchronized void stopLightPolling() {
         if (lightPollingJob != null && !lightPollingJob.isCancelled()) {
             lightPollingJob.cancel(true);
             lightPollingJob = null;
         }
+        stopFastLightPolling();
+    }
+
+    /**
+     * Polls the lights shortly after a command, to pick up the resulting state and the state of lights that
+     * were changed together, like by a scene. The delay between the polls doubles until the polling interval is
+     * reached, from then on only the regular polling is left.
+     */
+    private synchronized void startFastLightPolling() {
+        if (lightPollingJob != null) {
+            stopFastLightPolling();
+            scheduleFastLightPolling(FAST_LIGHT_POLLING_DELAY, fastLightPollingRun);
+        }
+    }
+
+    private synchronized void scheduleFastLightPolling(long delay, int run) {
+        if (run != fastLightPollingRun) {
+            return; // Stopped or restarted meanwhile
+        }
+        if (lightPollingJob == null || delay >= TimeUnit.SECONDS.toMillis(lightPollingInterval)) {
+            fastLightPollingJob = null;
+            return;
+        }
+        fastLightPollingJob = getLightPollingScheduler().schedule(() -> {
+            lightPollingRunnable.run();
+            scheduleFastLightPolling(delay * 2, run);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopFastLightPolling() {
+        fastLightPollingRun++;
+        if (fastLightPollingJob != null) {
+            fastLightPollingJob.cancel(false);
+            fastLightPollingJob = null;
+        }
+    }
+
+    /**
+     * Returns the scheduler of the regular and the fast light polling. Tests replace it to run the polls themselves.
+     */
+    ScheduledExecutorService getLightPollingScheduler() {
+        return scheduler;
     }
 
     private void startSensorPolling() {
@@ -400,13 +466,20 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
                     "@text/offline.conf-error-no-ip-address");
         } else {
             if (hueBridge == null) {
-                hueBridge = new HueBridge(ip, hueBridgeConfig.getPort(), hueBridgeConfig.getProtocol(), scheduler);
+                hueBridge = createHueBridge(ip, hueBridgeConfig.getPort(), hueBridgeConfig.getProtocol());
                 hueBridge.setTimeout(5000);
             }
             onUpdate();
         }
     }
 
+    /**
+     * Creates the connection to the bridge. Tests replace it by a bridge with a stubbed API.
+     */
+    HueBridge createHueBridge(String ip, int port, String protocol) {
+        return new HueBridge(ip, port, protocol, scheduler);
+    }
+
     private synchronized void onUpdate() {
         if (hueBridge != null) {
             // start light polling only if a light handler has been registered, otherwise stop polling
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+
+/**
+ * Tests the merging of queued commands of the {@link HttpClient}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HttpClientTest {
+    private static final String LIGHT = "http://bridge/api/user/lights/1/state";
+    private static final String OTHER_LIGHT = "http://bridge/api/user/lights/2/state";
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstRequest = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstRequest = new CountDownLatch(1);
+    private ScheduledExecutorService scheduler;
+
+    private final HttpClient subject = new HttpClient() {
+        @Override
+        protected Result doNetwork(String address, String requestMethod, @Nullable String body) throws IOException {
+            requests.add(address + " " + body);
+            if (requests.size() == 1) {
+                // Keep the worker busy, so that the following commands are queued
+                firstRequest.countDown();
+                try {
+                    releaseFirstRequest.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            return new Result("[]", 200);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void mergesQueuedCommands() throws Exception {
+        subject.putAsync(LIGHT, "{\"on\":true}", 40, scheduler);
+        assertTrue(firstRequest.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Result> first = subject.putAsync(LIGHT, "{\"bri\":10,\"transitiontime\":4}", 80, scheduler);
+        subject.putAsync(OTHER_LIGHT, "{\"bri\":50}", 40, scheduler);
+        subject.putAsync(LIGHT, "{\"bri\":20}", 40, scheduler);
+        CompletableFuture<Result> last = subject.putAsync(LIGHT, "{\"bri\":30,\"sat\":5}", 80, scheduler);
+
+        assertThat(subject.getQueueDepth(), is(2));
+        assertThat(subject.getMergedCommands(), is(2L));
+        assertSame(first, last);
+
+        releaseFirstRequest.countDown();
+        last.get(10, TimeUnit.SECONDS);
+        subject.putAsync(OTHER_LIGHT, "{\"on\":false}", 40, scheduler).get(10, TimeUnit.SECONDS);
+
+        assertThat(requests, is(Arrays.asList(LIGHT + " {\"on\":true}",
+                LIGHT + " {\"bri\":30,\"transitiontime\":4,\"sat\":5}", OTHER_LIGHT + " {\"bri\":50}",
+                OTHER_LIGHT + " {\"on\":false}")));
+    }
+
+    @Test
+    public void doesNotMergeRelativeCommands() throws Exception {
+        subject.putAsync(LIGHT, "{\"on\":true}", 40, scheduler);
+        assertTrue(firstRequest.await(10, TimeUnit.SECONDS));
+
+        subject.putAsync(LIGHT, "{\"bri_inc\":10}", 40, scheduler);
+        subject.putAsync(LIGHT, "{\"bri_inc\":10}", 40, scheduler);
+        CompletableFuture<Result> last = subject.putAsync(LIGHT, "{\"bri\":20}", 40, scheduler);
+        subject.putAsync(LIGHT, "{\"on\":false}", 40, scheduler);
+
+        assertThat(subject.getQueueDepth(), is(3));
+        assertThat(subject.getMergedCommands(), is(1L));
+
+        releaseFirstRequest.countDown();
+        last.get(10, TimeUnit.SECONDS);
+
+        assertThat(requests, is(Arrays.asList(LIGHT + " {\"on\":true}", LIGHT + " {\"bri_inc\":10}",
+                LIGHT + " {\"bri_inc\":10}", LIGHT + " {\"on\":false}")));
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.hue.internal.HueBindingConstants.THING_TYPE_BRIDGE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.hue.internal.ApiVersion;
+import org.openhab.binding.hue.internal.FullConfig;
+import org.openhab.binding.hue.internal.FullLight;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+import org.openhab.binding.hue.internal.HueBridge;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests the light polling of the {@link HueBridgeHandler}. The bridge API is stubbed and the polls are run by the
+ * test instead of a scheduler.
+ *
+ * @author agent - Initial contribution
+ */
+public class HueBridgeHandlerTest {
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final LightStatusListener listener = mock(LightStatusListener.class);
+
+    private final HueBridge hueBridge = spy(new HueBridge("localhost", 80, "http", scheduler));
+    private final Map<String, JsonElement> lights = new HashMap<>();
+
+    private Runnable poll;
+    private final List<Runnable> fastPolls = new ArrayList<>();
+    private final List<Long> fastPollDelays = new ArrayList<>();
+    private final List<ScheduledFuture<?>> fastPollJobs = new ArrayList<>();
+
+    private HueBridgeHandler subject;
+
+    @Before
+    public void setUp() throws Exception {
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put("ipAddress", "localhost");
+        configuration.put("userName", "testUser");
+        Bridge bridge = mock(Bridge.class);
+        when(bridge.getUID()).thenReturn(new ThingUID(THING_TYPE_BRIDGE, "testBridge"));
+        when(bridge.getConfiguration()).thenReturn(new Configuration(configuration));
+
+        doReturn(mock(FullConfig.class)).when(hueBridge).getFullConfig();
+        doReturn(new ApiVersion(1, 30, 0)).when(hueBridge).getVersion();
+        doAnswer(invocation -> new HashMap<>(lights)).when(hueBridge).getFullLightsJson();
+        doReturn(CompletableFuture.completedFuture(new Result("[]", 200))).when(hueBridge).setLightState(any(),
+                any());
+
+        doAnswer(invocation -> {
+            poll = invocation.getArgument(0);
+            return mock(ScheduledFuture.class);
+        }).when(scheduler).scheduleWithFixedDelay(any(Runnable.class), eq(1L), eq(10L), eq(TimeUnit.SECONDS));
+        doAnswer(invocation -> {
+            fastPolls.add(invocation.getArgument(0));
+            fastPollDelays.add(invocation.getArgument(1));
+            ScheduledFuture<?> job = mock(ScheduledFuture.class);
+            fastPollJobs.add(job);
+            return job;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        subject = new HueBridgeHandler(bridge) {
+            @Override
+            ScheduledExecutorService getLightPollingScheduler() {
+                return scheduler;
+            }
+
+            @Override
+            HueBridge createHueBridge(String ip, int port, String protocol) {
+                return hueBridge;
+            }
+        };
+        subject.setCallback(mock(ThingHandlerCallback.class));
+        subject.initialize();
+        subject.registerLightStatusListener(listener);
+        assertNotNull(poll);
+    }
+
+    @After
+    public void tearDown() {
+        subject.dispose();
+    }
+
+    @Test
+    public void unchangedLightsAreNeitherDeserializedNorDispatched() throws Exception {
+        lights.put("1", light(true, 100));
+        lights.put("2", light(false, 0));
+        poll.run();
+        verify(listener).onLightAdded(same(hueBridge), withId("1"));
+        verify(listener).onLightAdded(same(hueBridge), withId("2"));
+
+        // Equal JSON, but not the same instances as in the last poll
+        lights.put("1", light(true, 100));
+        lights.put("2", light(false, 0));
+        poll.run();
+        verify(hueBridge, times(1)).toFullLight(eq("1"), any());
+        verify(hueBridge, times(1)).toFullLight(eq("2"), any());
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void changedAddedAndRemovedLightsAreDispatched() throws Exception {
+        lights.put("1", light(true, 100));
+        lights.put("2", light(false, 0));
+        poll.run();
+
+        lights.put("1", light(true, 200));
+        lights.remove("2");
+        lights.put("3", light(true, 50));
+        poll.run();
+        verify(listener).onLightStateChanged(same(hueBridge), withId("1"));
+        verify(listener).onLightRemoved(same(hueBridge), withId("2"));
+        verify(listener).onLightAdded(same(hueBridge), withId("3"));
+        verify(hueBridge, times(2)).toFullLight(eq("1"), any());
+        verify(hueBridge, times(1)).toFullLight(eq("2"), any());
+
+        // A light that comes back is added again
+        lights.put("2", light(false, 0));
+        poll.run();
+        verify(listener, times(2)).onLightAdded(same(hueBridge), withId("2"));
+        verify(hueBridge, times(2)).toFullLight(eq("2"), any());
+    }
+
+    @Test
+    public void fastPollingDelayDoublesUpToThePollingInterval() throws Exception {
+        lights.put("1", light(true, 100));
+        poll.run();
+        sendCommand();
+
+        for (int i = 0; i < fastPolls.size(); i++) {
+            fastPolls.get(i).run();
+        }
+        assertThat(fastPollDelays, is(Arrays.asList(1000L, 2000L, 4000L, 8000L)));
+        verify(hueBridge, times(5)).getFullLightsJson();
+    }
+
+    @Test
+    public void newCommandRestartsFastPolling() throws Exception {
+        lights.put("1", light(true, 100));
+        poll.run();
+        sendCommand();
+        fastPolls.get(0).run();
+        assertThat(fastPollDelays, is(Arrays.asList(1000L, 2000L)));
+
+        sendCommand();
+        verify(fastPollJobs.get(1)).cancel(false);
+        assertThat(fastPollDelays, is(Arrays.asList(1000L, 2000L, 1000L)));
+
+        // The cancelled poll does not continue if it is already running
+        fastPolls.get(1).run();
+        assertThat(fastPollDelays, is(Arrays.asList(1000L, 2000L, 1000L)));
+        fastPolls.get(2).run();
+        assertThat(fastPollDelays, is(Arrays.asList(1000L, 2000L, 1000L, 2000L)));
+    }
+
+    private void sendCommand() throws Exception {
+        FullLight light = hueBridge.toFullLight("1", light(true, 100));
+        subject.updateLightState(light, LightStateConverter.toOnOffLightState(OnOffType.ON));
+    }
+
+    private static JsonElement light(boolean on, int brightness) {
+        return new JsonParser().parse("{\"type\":\"Extended color light\",\"name\":\"Light\",\"state\":{\"on\":" + on
+                + ",\"bri\":" + brightness + ",\"alert\":\"none\",\"reachable\":true}}");
+    }
+
+    private static FullLight withId(String id) {
+        return argThat(light -> id.equals(light.getId()));
+    }
+}
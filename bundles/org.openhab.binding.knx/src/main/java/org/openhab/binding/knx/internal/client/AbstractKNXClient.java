@@ -12,12 +12,19 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -85,7 +92,10 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
+    /** The registered listeners with the group addresses they are indexed by */
+    private final Map<GroupAddressListener, Set<GroupAddress>> groupAddressListeners = new HashMap<>();
+    private final Map<GroupAddress, Set<GroupAddressListener>> listenersByGroupAddress = new ConcurrentHashMap<>();
+    private final Map<GroupAddressListener, ListenerNotifications> pendingNotifications = new ConcurrentHashMap<>();
     private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
 
     @FunctionalInterface
@@ -93,8 +103,40 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         void apply(BusMessageListener listener, IndividualAddress source, GroupAddress destination, byte[] asdu);
     }
 
+    /**
+     * The notifications of a listener that are waiting to be processed. They are processed in order by one task,
+     * so a burst of telegrams for the same thing does not create a task for each telegram.
+     */
+    private class ListenerNotifications implements Runnable {
+        private final Queue<Runnable> notifications = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void add(Runnable notification) {
+            notifications.add(notification);
+            if (scheduled.compareAndSet(false, true)) {
+                knxScheduler.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                Runnable notification;
+                while ((notification = notifications.poll()) != null) {
+                    try {
+                        notification.run();
+                    } catch (RuntimeException e) {
+                        logger.warn("An error occurred while notifying a KNX listener: {}", e.getMessage(), e);
+                    }
+                }
+                scheduled.set(false);
+                // A notification may have been added after the queue was drained, but before the flag was reset
+            } while (!notifications.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+    }
+
     @NonNullByDefault({})
-    private final ProcessListener processListener = new ProcessListener() {
+    final ProcessListener processListener = new ProcessListener() {
 
         @Override
         public void detached(DetachEvent e) {
@@ -251,10 +293,14 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
+        Set<GroupAddressListener> listeners = listenersByGroupAddress.get(destination);
+        if (listeners == null) {
+            return;
+        }
+        for (GroupAddressListener listener : listeners) {
+            ListenerNotifications notifications = pendingNotifications.computeIfAbsent(listener,
+                    l -> new ListenerNotifications());
+            notifications.add(() -> action.apply(listener, source, destination, asdu));
         }
     }
 
@@ -377,12 +423,49 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> groupAddresses = new HashSet<>(listener.getGroupAddresses());
+            Set<GroupAddress> previousGroupAddresses = groupAddressListeners.put(listener, groupAddresses);
+            if (previousGroupAddresses != null) {
+                removeFromIndex(listener, previousGroupAddresses);
+            }
+            for (GroupAddress groupAddress : groupAddresses) {
+                listenersByGroupAddress.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>()).add(listener);
+            }
+            return previousGroupAddresses == null;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> groupAddresses = groupAddressListeners.remove(listener);
+            if (groupAddresses == null) {
+                return false;
+            }
+            removeFromIndex(listener, groupAddresses);
+            pendingNotifications.remove(listener);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the group addresses that registered listeners are indexed by.
+     */
+    Set<GroupAddress> getIndexedGroupAddresses() {
+        return new HashSet<>(listenersByGroupAddress.keySet());
+    }
+
+    private void removeFromIndex(GroupAddressListener listener, Set<GroupAddress> groupAddresses) {
+        for (GroupAddress groupAddress : groupAddresses) {
+            Set<GroupAddressListener> listeners = listenersByGroupAddress.get(groupAddress);
+            if (listeners != null) {
+                listeners.remove(listener);
+                if (listeners.isEmpty()) {
+                    listenersByGroupAddress.remove(groupAddress);
+                }
+            }
+        }
     }
 
     @Override
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -107,6 +108,28 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /** stores the decoders of the datapoint types received so far, by datapoint type id */
+    private final Map<String, Decoder> decoders = new ConcurrentHashMap<>();
+
+    /**
+     * A translator for a datapoint type, created once and reused for every telegram, together with the mapping
+     * that only depends on the datapoint type id. Translators are not thread-safe, so a decoder must be locked while
+     * in use.
+     */
+    private static class Decoder {
+        private final DPTXlator translator;
+        private final int mainNumber;
+        private final int subNumber;
+        private final Class<? extends Type> typeClass;
+
+        Decoder(DPTXlator translator, int mainNumber, int subNumber, Class<? extends Type> typeClass) {
+            this.translator = translator;
+            this.mainNumber = mainNumber;
+            this.subNumber = subNumber;
+            this.typeClass = typeClass;
+        }
+    }
+
     public KNXCoreTypeMapper() {
 
         @SuppressWarnings("unused")
@@ -675,192 +698,235 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
-            translator.setData(data);
-            String value = translator.getValue();
-
-            String id = translator.getType().getID();
-            logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
-
-            int mainNumber = getMainNumber(id);
-            if (mainNumber == -1) {
-                logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+            Decoder decoder = getDecoder(datapoint);
+            if (decoder == null) {
                 return null;
             }
-            int subNumber = getSubNumber(id);
-            if (subNumber == -1) {
-                logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
-                return null;
+            logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
+            synchronized (decoder) {
+                decoder.translator.setData(data);
+                return toType(decoder, datapoint);
             }
-            /*
-             * Following code section deals with specific mapping of values from KNX to openHAB types were the String
-             * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
-             */
-            switch (mainNumber) {
-                case 1:
-                    DPTXlatorBoolean translatorBoolean = (DPTXlatorBoolean) translator;
-                    switch (subNumber) {
-                        case 8:
-                            return translatorBoolean.getValueBoolean() ? UpDownType.DOWN : UpDownType.UP;
-                        case 9:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 10:
-                            return translatorBoolean.getValueBoolean() ? StopMoveType.MOVE : StopMoveType.STOP;
-                        case 19:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 22:
-                            return DecimalType.valueOf(translatorBoolean.getValueBoolean() ? "1" : "0");
-                        default:
-                            return translatorBoolean.getValueBoolean() ? OnOffType.ON : OnOffType.OFF;
-                    }
-                case 2:
-                    DPTXlator1BitControlled translator1BitControlled = (DPTXlator1BitControlled) translator;
-                    int decValue = (translator1BitControlled.getControlBit() ? 2 : 0)
-                            + (translator1BitControlled.getValueBit() ? 1 : 0);
-                    return new DecimalType(decValue);
-                case 3:
-                    DPTXlator3BitControlled translator3BitControlled = (DPTXlator3BitControlled) translator;
-                    if (translator3BitControlled.getStepCode() == 0) {
-                        logger.debug("toType: KNX DPT_Control_Dimming: break received.");
-                        return UnDefType.UNDEF;
-                    }
-                    switch (subNumber) {
-                        case 7:
-                            return translator3BitControlled.getControlBit() ? IncreaseDecreaseType.INCREASE
-                                    : IncreaseDecreaseType.DECREASE;
-                        case 8:
-                            return translator3BitControlled.getControlBit() ? UpDownType.DOWN : UpDownType.UP;
-                    }
-                case 14:
-                    /*
-                     * FIXME: Workaround for a bug in Calimero / Openhab DPTXlator4ByteFloat.makeString(): is using a
-                     * locale when
-                     * translating a Float to String. It could happen the a ',' is used as separator, such as
-                     * 3,14159E20.
-                     * Openhab's DecimalType expects this to be in US format and expects '.': 3.14159E20.
-                     * There is no issue with DPTXlator2ByteFloat since calimero is using a non-localized translation
-                     * there.
-                     */
-                    DPTXlator4ByteFloat translator4ByteFloat = (DPTXlator4ByteFloat) translator;
-                    Float f = translator4ByteFloat.getValueFloat();
-                    if (Math.abs(f) < 100000) {
-                        value = String.valueOf(f);
-                    } else {
-                        NumberFormat dcf = NumberFormat.getInstance(Locale.US);
-                        if (dcf instanceof DecimalFormat) {
-                            ((DecimalFormat) dcf).applyPattern("0.#####E0");
-                        }
-                        value = dcf.format(f);
-                    }
-                    break;
-                case 18:
-                    DPTXlatorSceneControl translatorSceneControl = (DPTXlatorSceneControl) translator;
-                    int decimalValue = translatorSceneControl.getSceneNumber();
-                    if (value.startsWith("learn")) {
-                        decimalValue += 0x80;
-                    }
-                    value = String.valueOf(decimalValue);
-
-                    break;
-                case 19:
-                    DPTXlatorDateTime translatorDateTime = (DPTXlatorDateTime) translator;
-                    if (translatorDateTime.isFaultyClock()) {
-                        // Not supported: faulty clock
-                        logger.debug("toType: KNX clock msg ignored: clock faulty bit set, which is not supported");
-                        return null;
-                    } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && translatorDateTime.isValidField(DPTXlatorDateTime.DATE)) {
-                        // Not supported: "/1/1" (month and day without year)
-                        logger.debug(
-                                "toType: KNX clock msg ignored: no year, but day and month, which is not supported");
-                        return null;
-                    } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && !translatorDateTime.isValidField(DPTXlatorDateTime.DATE)) {
-                        // Not supported: "1900" (year without month and day)
-                        logger.debug(
-                                "toType: KNX clock msg ignored: no day and month, but year, which is not supported");
-                        return null;
-                    } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && !translatorDateTime.isValidField(DPTXlatorDateTime.DATE)
-                            && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
-                        // Not supported: No year, no date and no time
-                        logger.debug("toType: KNX clock msg ignored: no day and month or year, which is not supported");
-                        return null;
-                    }
+        } catch (KNXFormatException kfe) {
+            logger.info("Translator couldn't parse data for datapoint type '{}' (KNXFormatException).",
+                    datapoint.getDPT());
+        } catch (KNXIllegalArgumentException kiae) {
+            logger.info("Translator couldn't parse data for datapoint type '{}' (KNXIllegalArgumentException).",
+                    datapoint.getDPT());
+        } catch (KNXException e) {
+            logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
+        }
 
-                    Calendar cal = Calendar.getInstance();
-                    if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
-                        // Pure date format, no time information
-                        cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
-                        return DateTimeType.valueOf(value);
-                    } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
-                        // Pure time format, no date information
-                        cal.clear();
-                        cal.set(Calendar.HOUR_OF_DAY, translatorDateTime.getHour());
-                        cal.set(Calendar.MINUTE, translatorDateTime.getMinute());
-                        cal.set(Calendar.SECOND, translatorDateTime.getSecond());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
-                        return DateTimeType.valueOf(value);
-                    } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
-                            && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
-                        // Date format and time information
-                        cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
-                        return DateTimeType.valueOf(value);
-                    }
-                    break;
-            }
+        return null;
+    }
 
-            Class<? extends Type> typeClass = toTypeClass(id);
-            if (typeClass == null) {
-                return null;
-            }
+    /**
+     * Returns the decoder for the datapoint type of the given datapoint, creating it on first use.
+     *
+     * @return the decoder or {@code null} if the datapoint type id cannot be mapped
+     * @throws KNXException if no translator is available for the datapoint type
+     */
+    private Decoder getDecoder(Datapoint datapoint) throws KNXException {
+        Decoder decoder = decoders.get(datapoint.getDPT());
+        if (decoder != null) {
+            return decoder;
+        }
+        DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+        String id = translator.getType().getID();
 
-            if (typeClass.equals(PercentType.class)) {
-                return new PercentType(BigDecimal.valueOf(Math.round(translator.getNumericValue())));
-            }
-            if (typeClass.equals(DecimalType.class)) {
-                return new DecimalType(translator.getNumericValue());
-            }
-            if (typeClass.equals(StringType.class)) {
-                return StringType.valueOf(value);
-            }
+        int mainNumber = getMainNumber(id);
+        if (mainNumber == -1) {
+            logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+            return null;
+        }
+        int subNumber = getSubNumber(id);
+        if (subNumber == -1) {
+            logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
+            return null;
+        }
+        decoder = new Decoder(translator, mainNumber, subNumber, toTypeClass(id));
+        decoders.put(datapoint.getDPT(), decoder);
+        return decoder;
+    }
+
+    /**
+     * Returns the number of datapoint types a decoder was created for, only meant for tests.
+     */
+    int getDecoderCount() {
+        return decoders.size();
+    }
 
-            if (typeClass.equals(DateTimeType.class)) {
-                String date = formatDateTime(value, datapoint.getDPT());
-                if ((date == null) || (date.isEmpty())) {
-                    logger.debug("toType: KNX clock msg ignored: date object null or empty {}.", date);
+    private Type toType(Decoder decoder, Datapoint datapoint) throws KNXFormatException {
+        DPTXlator translator = decoder.translator;
+        int subNumber = decoder.subNumber;
+        /*
+         * Following code section deals with specific mapping of values from KNX to openHAB types were the String
+         * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
+         */
+        switch (decoder.mainNumber) {
+            case 1:
+                DPTXlatorBoolean translatorBoolean = (DPTXlatorBoolean) translator;
+                switch (subNumber) {
+                    case 8:
+                        return translatorBoolean.getValueBoolean() ? UpDownType.DOWN : UpDownType.UP;
+                    case 9:
+                        return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                    case 10:
+                        return translatorBoolean.getValueBoolean() ? StopMoveType.MOVE : StopMoveType.STOP;
+                    case 19:
+                        return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                    case 22:
+                        return DecimalType.valueOf(translatorBoolean.getValueBoolean() ? "1" : "0");
+                    default:
+                        return translatorBoolean.getValueBoolean() ? OnOffType.ON : OnOffType.OFF;
+                }
+            case 2:
+                DPTXlator1BitControlled translator1BitControlled = (DPTXlator1BitControlled) translator;
+                int decValue = (translator1BitControlled.getControlBit() ? 2 : 0)
+                        + (translator1BitControlled.getValueBit() ? 1 : 0);
+                return new DecimalType(decValue);
+            case 3:
+                DPTXlator3BitControlled translator3BitControlled = (DPTXlator3BitControlled) translator;
+                if (translator3BitControlled.getStepCode() == 0) {
+                    logger.debug("toType: KNX DPT_Control_Dimming: break received.");
+                    return UnDefType.UNDEF;
+                }
+                switch (subNumber) {
+                    case 7:
+                        return translator3BitControlled.getControlBit() ? IncreaseDecreaseType.INCREASE
+                                : IncreaseDecreaseType.DECREASE;
+                    case 8:
+                        return translator3BitControlled.getControlBit() ? UpDownType.DOWN : UpDownType.UP;
+                }
+                break;
+            case 19:
+                DPTXlatorDateTime translatorDateTime = (DPTXlatorDateTime) translator;
+                if (translatorDateTime.isFaultyClock()) {
+                    // Not supported: faulty clock
+                    logger.debug("toType: KNX clock msg ignored: clock faulty bit set, which is not supported");
+                    return null;
+                } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                        && translatorDateTime.isValidField(DPTXlatorDateTime.DATE)) {
+                    // Not supported: "/1/1" (month and day without year)
+                    logger.debug("toType: KNX clock msg ignored: no year, but day and month, which is not supported");
+                    return null;
+                } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                        && !translatorDateTime.isValidField(DPTXlatorDateTime.DATE)) {
+                    // Not supported: "1900" (year without month and day)
+                    logger.debug("toType: KNX clock msg ignored: no day and month, but year, which is not supported");
+                    return null;
+                } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                        && !translatorDateTime.isValidField(DPTXlatorDateTime.DATE)
+                        && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
+                    // Not supported: No year, no date and no time
+                    logger.debug("toType: KNX clock msg ignored: no day and month or year, which is not supported");
                     return null;
-                } else {
-                    return DateTimeType.valueOf(date);
                 }
-            }
 
-            if (typeClass.equals(HSBType.class)) {
-                // value has format of "r:<red value> g:<green value> b:<blue value>"
-                int r = Integer.parseInt(value.split(" ")[0].split(":")[1]);
-                int g = Integer.parseInt(value.split(" ")[1].split(":")[1]);
-                int b = Integer.parseInt(value.split(" ")[2].split(":")[1]);
+                Calendar cal = Calendar.getInstance();
+                if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                        && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
+                    // Pure date format, no time information
+                    cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
+                    String value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
+                    return DateTimeType.valueOf(value);
+                } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                        && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
+                    // Pure time format, no date information
+                    cal.clear();
+                    cal.set(Calendar.HOUR_OF_DAY, translatorDateTime.getHour());
+                    cal.set(Calendar.MINUTE, translatorDateTime.getMinute());
+                    cal.set(Calendar.SECOND, translatorDateTime.getSecond());
+                    String value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
+                    return DateTimeType.valueOf(value);
+                } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
+                        && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
+                    // Date format and time information
+                    cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
+                    String value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
+                    return DateTimeType.valueOf(value);
+                }
+                break;
+        }
+
+        Class<? extends Type> typeClass = decoder.typeClass;
+        if (typeClass == null) {
+            return null;
+        }
+
+        // Numeric types are read from the translator directly, without rendering the value as a string
+        if (typeClass.equals(PercentType.class)) {
+            return new PercentType(BigDecimal.valueOf(Math.round(translator.getNumericValue())));
+        }
+        if (typeClass.equals(DecimalType.class)) {
+            return new DecimalType(translator.getNumericValue());
+        }
+        if (typeClass.equals(StringType.class)) {
+            return StringType.valueOf(getValue(decoder));
+        }
 
-                return HSBType.fromRGB(r, g, b);
+        if (typeClass.equals(DateTimeType.class)) {
+            String date = formatDateTime(getValue(decoder), datapoint.getDPT());
+            if ((date == null) || (date.isEmpty())) {
+                logger.debug("toType: KNX clock msg ignored: date object null or empty {}.", date);
+                return null;
+            } else {
+                return DateTimeType.valueOf(date);
             }
+        }
 
-        } catch (KNXFormatException kfe) {
-            logger.info("Translator couldn't parse data for datapoint type '{}' (KNXFormatException).",
-                    datapoint.getDPT());
-        } catch (KNXIllegalArgumentException kiae) {
-            logger.info("Translator couldn't parse data for datapoint type '{}' (KNXIllegalArgumentException).",
-                    datapoint.getDPT());
-        } catch (KNXException e) {
-            logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
+        if (typeClass.equals(HSBType.class)) {
+            String value = getValue(decoder);
+            // value has format of "r:<red value> g:<green value> b:<blue value>"
+            int r = Integer.parseInt(value.split(" ")[0].split(":")[1]);
+            int g = Integer.parseInt(value.split(" ")[1].split(":")[1]);
+            int b = Integer.parseInt(value.split(" ")[2].split(":")[1]);
+
+            return HSBType.fromRGB(r, g, b);
         }
 
         return null;
     }
 
+    /**
+     * Returns the value of the translator as a string, with the corrections needed for openHAB types.
+     */
+    private String getValue(Decoder decoder) {
+        DPTXlator translator = decoder.translator;
+        switch (decoder.mainNumber) {
+            case 14:
+                /*
+                 * FIXME: Workaround for a bug in Calimero / Openhab DPTXlator4ByteFloat.makeString(): is using a
+                 * locale when
+                 * translating a Float to String. It could happen the a ',' is used as separator, such as
+                 * 3,14159E20.
+                 * Openhab's DecimalType expects this to be in US format and expects '.': 3.14159E20.
+                 * There is no issue with DPTXlator2ByteFloat since calimero is using a non-localized translation
+                 * there.
+                 */
+                DPTXlator4ByteFloat translator4ByteFloat = (DPTXlator4ByteFloat) translator;
+                Float f = translator4ByteFloat.getValueFloat();
+                if (Math.abs(f) < 100000) {
+                    return String.valueOf(f);
+                } else {
+                    NumberFormat dcf = NumberFormat.getInstance(Locale.US);
+                    if (dcf instanceof DecimalFormat) {
+                        ((DecimalFormat) dcf).applyPattern("0.#####E0");
+                    }
+                    return dcf.format(f);
+                }
+            case 18:
+                DPTXlatorSceneControl translatorSceneControl = (DPTXlatorSceneControl) translator;
+                int decimalValue = translatorSceneControl.getSceneNumber();
+                if (translator.getValue().startsWith("learn")) {
+                    decimalValue += 0x80;
+                }
+                return String.valueOf(decimalValue);
+            default:
+                return translator.getValue();
+        }
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
@@ -15,6 +15,7 @@ package org.openhab.binding.knx.internal.handler;
 import static org.openhab.binding.knx.internal.KNXBindingConstants.*;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -83,13 +84,15 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
 
     @Override
     public void initialize() {
+        // The group addresses are indexed by the client when attaching to it
+        initializeGroupAddresses();
         super.initialize();
         DeviceConfig config = getConfigAs(DeviceConfig.class);
         readInterval = config.getReadInterval().intValue();
-        initializeGroupAddresses();
     }
 
     private void initializeGroupAddresses() {
+        groupAddresses.clear();
         forAllChannels((selector, channelConfiguration) -> {
             groupAddresses.addAll(selector.getReadAddresses(channelConfiguration));
             groupAddresses.addAll(selector.getWriteAddresses(channelConfiguration));
@@ -191,8 +194,8 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
     }
 
     @Override
-    public boolean listensTo(GroupAddress destination) {
-        return groupAddresses.contains(destination);
+    public Set<GroupAddress> getGroupAddresses() {
+        return Collections.unmodifiableSet(groupAddresses);
     }
 
     /** KNXIO remember controls, removeIf may be null */
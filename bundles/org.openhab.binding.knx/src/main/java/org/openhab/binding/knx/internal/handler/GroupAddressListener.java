@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
@@ -28,10 +30,11 @@ import tuwien.auto.calimero.GroupAddress;
 public interface GroupAddressListener extends BusMessageListener {
 
     /**
-     * Called to verify if the GroupAddressListener has an interest in the given GroupAddress
+     * Returns the Group Addresses the GroupAddressListener has an interest in. The client indexes them when the
+     * listener is registered, so the listener needs to be registered again when they change.
      *
-     * @param destination
+     * @return the group addresses
      */
-    public boolean listensTo(GroupAddress destination);
+    public Set<GroupAddress> getGroupAddresses();
 
 }
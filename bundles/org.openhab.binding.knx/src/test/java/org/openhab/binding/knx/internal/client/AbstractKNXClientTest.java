@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.IndividualAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.link.KNXNetworkLink;
+import tuwien.auto.calimero.process.ProcessCommunicator;
+import tuwien.auto.calimero.process.ProcessEvent;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class AbstractKNXClientTest {
+
+    private static final GroupAddress GA_1 = new GroupAddress(1, 0, 1);
+    private static final GroupAddress GA_2 = new GroupAddress(1, 0, 2);
+    private static final GroupAddress GA_3 = new GroupAddress(1, 0, 3);
+    private static final IndividualAddress SOURCE = new IndividualAddress(1, 1, 1);
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final ProcessCommunicator communicator = mock(ProcessCommunicator.class);
+    private AbstractKNXClient client;
+
+    @Before
+    public void setUp() {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> tasks.add(invocation.getArgument(0))).when(scheduler).execute(any(Runnable.class));
+        client = new AbstractKNXClient(0, new ThingUID("knx", "ip", "bridge"), 5, 50, 3, scheduler,
+                mock(StatusUpdateCallback.class)) {
+            @Override
+            protected KNXNetworkLink establishConnection() throws KNXException {
+                throw new KNXException("not connected in tests");
+            }
+        };
+    }
+
+    private static GroupAddressListener listener(GroupAddress... groupAddresses) {
+        GroupAddressListener listener = mock(GroupAddressListener.class);
+        setGroupAddresses(listener, groupAddresses);
+        return listener;
+    }
+
+    private static void setGroupAddresses(GroupAddressListener listener, GroupAddress... groupAddresses) {
+        when(listener.getGroupAddresses()).thenReturn(new HashSet<>(Arrays.asList(groupAddresses)));
+    }
+
+    private static Set<GroupAddress> set(GroupAddress... groupAddresses) {
+        return new HashSet<>(Arrays.asList(groupAddresses));
+    }
+
+    private void groupWrite(GroupAddress destination, byte... asdu) {
+        client.processListener.groupWrite(new ProcessEvent(communicator, SOURCE, destination, asdu));
+    }
+
+    private void runTasks() {
+        List<Runnable> scheduled = new ArrayList<>(tasks);
+        tasks.clear();
+        scheduled.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testRegisterAgainReplacesTheIndexedAddresses() {
+        GroupAddressListener listener = listener(GA_1, GA_2);
+        assertTrue(client.registerGroupAddressListener(listener));
+        assertEquals(set(GA_1, GA_2), client.getIndexedGroupAddresses());
+
+        setGroupAddresses(listener, GA_2, GA_3);
+        assertFalse(client.registerGroupAddressListener(listener));
+        assertEquals(set(GA_2, GA_3), client.getIndexedGroupAddresses());
+
+        groupWrite(GA_1, (byte) 1);
+        assertTrue(tasks.isEmpty());
+        groupWrite(GA_3, (byte) 3);
+        runTasks();
+        verify(listener).onGroupWrite(client, SOURCE, GA_3, new byte[] { 3 });
+        verify(listener, never()).onGroupWrite(any(), any(), eq(GA_1), any());
+    }
+
+    @Test
+    public void testUnregisterPrunesEmptyAddresses() {
+        GroupAddressListener first = listener(GA_1, GA_2);
+        GroupAddressListener second = listener(GA_2);
+        client.registerGroupAddressListener(first);
+        client.registerGroupAddressListener(second);
+
+        assertTrue(client.unregisterGroupAddressListener(first));
+        assertEquals(set(GA_2), client.getIndexedGroupAddresses());
+
+        assertTrue(client.unregisterGroupAddressListener(second));
+        assertEquals(Collections.emptySet(), client.getIndexedGroupAddresses());
+
+        assertFalse(client.unregisterGroupAddressListener(second));
+        groupWrite(GA_2, (byte) 1);
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testTelegramOnlyReachesTheListenersOfItsDestination() {
+        GroupAddressListener first = listener(GA_1);
+        GroupAddressListener second = listener(GA_2);
+        GroupAddressListener third = listener(GA_1, GA_3);
+        client.registerGroupAddressListener(first);
+        client.registerGroupAddressListener(second);
+        client.registerGroupAddressListener(third);
+
+        groupWrite(GA_1, (byte) 1);
+        assertEquals(2, tasks.size());
+        runTasks();
+
+        verify(first).onGroupWrite(client, SOURCE, GA_1, new byte[] { 1 });
+        verify(third).onGroupWrite(client, SOURCE, GA_1, new byte[] { 1 });
+        verify(second, never()).onGroupWrite(any(), any(), any(), any());
+
+        // no listener has an interest in this address
+        groupWrite(new GroupAddress(2, 0, 0), (byte) 1);
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testNotificationsOfOneListenerRunInOrderOnOneTask() {
+        GroupAddressListener listener = listener(GA_1, GA_2);
+        client.registerGroupAddressListener(listener);
+
+        groupWrite(GA_1, (byte) 1);
+        client.processListener.groupReadRequest(new ProcessEvent(communicator, SOURCE, GA_2, new byte[0]));
+        client.processListener.groupReadResponse(new ProcessEvent(communicator, SOURCE, GA_1, new byte[] { 3 }));
+        groupWrite(GA_2, (byte) 4);
+        assertEquals(1, tasks.size());
+        runTasks();
+
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).onGroupWrite(client, SOURCE, GA_1, new byte[] { 1 });
+        inOrder.verify(listener).onGroupRead(client, SOURCE, GA_2, new byte[0]);
+        inOrder.verify(listener).onGroupReadResponse(client, SOURCE, GA_1, new byte[] { 3 });
+        inOrder.verify(listener).onGroupWrite(client, SOURCE, GA_2, new byte[] { 4 });
+
+        // a drained queue schedules a new task for the next telegram
+        groupWrite(GA_1, (byte) 5);
+        assertEquals(1, tasks.size());
+        runTasks();
+        verify(listener).onGroupWrite(client, SOURCE, GA_1, new byte[] { 5 });
+    }
+}
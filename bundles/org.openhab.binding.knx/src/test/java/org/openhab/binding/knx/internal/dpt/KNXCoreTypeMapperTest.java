@@ -12,11 +12,21 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.Type;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -30,4 +40,64 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    @Test
+    public void testToType_reusedTranslators() throws Exception {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(OnOffType.ON, mapper.toType(datapoint("1.001"), new byte[] { 1 }));
+            assertEquals(OnOffType.OFF, mapper.toType(datapoint("1.001"), new byte[] { 0 }));
+            assertEquals(UpDownType.DOWN, mapper.toType(datapoint("1.008"), new byte[] { 1 }));
+            assertEquals(new PercentType(100), mapper.toType(datapoint("5.001"), new byte[] { (byte) 0xFF }));
+            assertEquals(new PercentType(0), mapper.toType(datapoint("5.001"), new byte[] { 0 }));
+            // 21.0 as 2-byte float: exponent 1, mantissa 1050
+            assertEquals(21.0, decimal(mapper.toType(datapoint("9.001"), new byte[] { 0x0C, 0x1A })), 0.001);
+            assertEquals(0.0, decimal(mapper.toType(datapoint("9.001"), new byte[] { 0, 0 })), 0.001);
+            assertEquals(1234.5, decimal(mapper.toType(datapoint("14.056"), float4(1234.5f))), 0.001);
+        }
+    }
+
+    @Test
+    public void testToType_invalidData() throws Exception {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertNull(mapper.toType(datapoint("9.001"), new byte[] { 0x0C }));
+        assertEquals(21.0, decimal(mapper.toType(datapoint("9.001"), new byte[] { 0x0C, 0x1A })), 0.001);
+    }
+
+    /**
+     * Decodes telegrams of the common datapoint types, as received on a busy bus. Only one decoder is created per
+     * datapoint type, no matter how many datapoints of that type there are.
+     */
+    @Test
+    public void testToType_manyTelegrams() throws Exception {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        String[] dpts = { "1.001", "5.001", "9.001", "14.056" };
+        byte[][] data = { { 1 }, { (byte) 0xFF }, { 0x0C, 0x1A }, float4(1234.5f) };
+        Type[] expected = { OnOffType.ON, new PercentType(100), new DecimalType(21), new DecimalType(1234.5) };
+
+        for (int i = 0; i < 1000; i++) {
+            int dpt = i % dpts.length;
+            Datapoint datapoint = new CommandDP(new GroupAddress(i + 1), "test" + i, 0, dpts[dpt]);
+            Type type = mapper.toType(datapoint, data[dpt]);
+            if (type instanceof DecimalType) {
+                assertEquals(((DecimalType) expected[dpt]).doubleValue(), decimal(type), 0.001);
+            } else {
+                assertEquals(expected[dpt], type);
+            }
+        }
+        assertEquals(dpts.length, mapper.getDecoderCount());
+    }
+
+    private static Datapoint datapoint(String dpt) throws Exception {
+        return new CommandDP(new GroupAddress("1/2/3"), "test", 0, dpt);
+    }
+
+    private static double decimal(Type type) {
+        assertTrue(type instanceof DecimalType);
+        return ((DecimalType) type).doubleValue();
+    }
+
+    private static byte[] float4(float value) {
+        return ByteBuffer.allocate(4).putFloat(value).array();
+    }
+
 }
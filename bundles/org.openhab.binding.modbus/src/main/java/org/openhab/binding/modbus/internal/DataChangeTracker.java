@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.BitSet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Keeps the previous response of a poller, for finding out which data has changed since.
+ *
+ * Changes are reported as bit indices relative to the start of the polled data. With registers, bit
+ * <code>16 * i + j</code> stands for the j'th least significant bit of the i'th register. With coils and discrete
+ * inputs, bit <code>i</code> stands for the i'th coil or discrete input.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class DataChangeTracker {
+
+    private int @Nullable [] previousRegisters;
+    private @Nullable BitSet previousBits;
+    private int previousBitCount = -1;
+
+    /**
+     * Store registers and compare them with the previously stored registers
+     *
+     * @param registers registers received
+     * @return bits changed since the previous registers, or null if the previous data is not comparable (no previous
+     *         registers, or different number of registers)
+     */
+    public synchronized @Nullable BitSet updateRegisters(ModbusRegisterArray registers) {
+        int size = registers.size();
+        int[] previous = previousRegisters;
+        previousBits = null;
+        if (previous == null || previous.length != size) {
+            int[] snapshot = new int[size];
+            for (int i = 0; i < size; i++) {
+                snapshot[i] = registers.toUnsignedShort(i);
+            }
+            previousRegisters = snapshot;
+            return null;
+        }
+        BitSet changed = new BitSet(size * 16);
+        for (int i = 0; i < size; i++) {
+            int value = registers.toUnsignedShort(i);
+            int diff = value ^ previous[i];
+            while (diff != 0) {
+                int bit = Integer.numberOfTrailingZeros(diff);
+                changed.set(i * 16 + bit);
+                diff &= diff - 1;
+            }
+            previous[i] = value;
+        }
+        return changed;
+    }
+
+    /**
+     * Store bits and compare them with the previously stored bits
+     *
+     * @param bits coils or discrete inputs received
+     * @return bits changed since the previous bits, or null if the previous data is not comparable (no previous bits,
+     *         or different number of bits)
+     */
+    public synchronized @Nullable BitSet updateBits(BitArray bits) {
+        int size = bits.size();
+        BitSet snapshot = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            snapshot.set(i, bits.getBit(i));
+        }
+        BitSet previous = previousBits;
+        boolean comparable = previous != null && previousBitCount == size;
+        previousBits = snapshot;
+        previousBitCount = size;
+        previousRegisters = null;
+        if (!comparable || previous == null) {
+            return null;
+        }
+        previous.xor(snapshot);
+        return previous;
+    }
+
+    /**
+     * Forget the previous data, so that all data is considered changed with the next update
+     */
+    public synchronized void reset() {
+        previousRegisters = null;
+        previousBits = null;
+        previousBitCount = -1;
+    }
+
+    /**
+     * Tell whether any of the given bits has changed
+     *
+     * @param changedBits changed bits as returned by {@link #updateRegisters(ModbusRegisterArray)} or
+     *            {@link #updateBits(BitArray)}
+     * @param fromBit first bit to check
+     * @param bitCount number of bits to check
+     * @return whether any bit in the range has changed
+     */
+    public static boolean isChanged(BitSet changedBits, int fromBit, int bitCount) {
+        if (fromBit < 0) {
+            return true;
+        }
+        int firstChanged = changedBits.nextSetBit(fromBit);
+        return firstChanged >= 0 && firstChanged < fromBit + bitCount;
+    }
+}
@@ -17,6 +17,7 @@ import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -57,6 +58,7 @@ import org.eclipse.smarthome.core.types.UnDefType;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
+import org.openhab.binding.modbus.internal.DataChangeTracker;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
 import org.openhab.binding.modbus.internal.Transformation;
 import org.openhab.binding.modbus.internal.config.ModbusDataConfiguration;
@@ -700,6 +702,81 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
                 thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
     }
 
+    /**
+     * Tell whether polled data needs to be processed by this thing.
+     *
+     * Processing is needed when the data read by this thing has changed, or when unchanged values should be updated
+     * again (see <code>updateUnchangedValuesEveryMillis</code>).
+     *
+     * @param changedBits bits of the polled data changed since the previous poll, see {@link DataChangeTracker}
+     * @param registers whether the polled data is registers, or coils/discrete inputs
+     * @param now current time in milliseconds
+     * @return whether {@link #onRegisters} or {@link #onBits} should be called with the data
+     */
+    synchronized boolean isUpdateNeeded(BitSet changedBits, boolean registers, long now) {
+        ValueType readValueType = this.readValueType;
+        if (hasConfigurationError() || !isReadEnabled || !readIndex.isPresent() || readValueType == null) {
+            // let the regular callbacks deal with it
+            return true;
+        }
+        return isReadDataChanged(changedBits, registers, readIndex.get() - pollStart, readSubIndex.orElse(0),
+                readValueType)
+                || isUnchangedUpdateDue(channelLastUpdated.values(), updateUnchangedValuesEveryMillis, now);
+    }
+
+    /**
+     * Tell whether the data read by a thing has changed
+     *
+     * @param changedBits bits of the polled data changed since the previous poll, see {@link DataChangeTracker}
+     * @param registers whether the polled data is registers, or coils/discrete inputs
+     * @param offset index of the register, coil or discrete input read by the thing, relative to the start of the poll
+     * @param subIndex index of the value within the register (the part after the dot in <code>readStart</code>)
+     * @param valueType value type read from registers
+     * @return whether any of the bits read by the thing has changed
+     */
+    static boolean isReadDataChanged(BitSet changedBits, boolean registers, int offset, int subIndex,
+            ValueType valueType) {
+        if (registers) {
+            return DataChangeTracker.isChanged(changedBits, offset * 16 + subIndex * valueType.getBits(),
+                    valueType.getBits());
+        } else {
+            return DataChangeTracker.isChanged(changedBits, offset, 1);
+        }
+    }
+
+    /**
+     * Tell whether unchanged values should be updated again
+     *
+     * @param channelLastUpdated times the channels were last updated, in milliseconds
+     * @param updateUnchangedValuesEveryMillis interval for updating unchanged values, non-positive to update them with
+     *            every poll
+     * @param now current time in milliseconds
+     * @return whether the values should be updated. Values are always updated when no channel has been updated yet
+     */
+    static boolean isUnchangedUpdateDue(Collection<Long> channelLastUpdated, long updateUnchangedValuesEveryMillis,
+            long now) {
+        if (updateUnchangedValuesEveryMillis <= 0L || channelLastUpdated.isEmpty()) {
+            return true;
+        }
+        long oldestUpdate = channelLastUpdated.stream().mapToLong(Long::longValue).min().orElse(0L);
+        return now - oldestUpdate > updateUnchangedValuesEveryMillis;
+    }
+
+    /**
+     * Called instead of {@link #onRegisters} or {@link #onBits} when the polled data read by this thing has not
+     * changed, and the values do not need to be updated yet.
+     */
+    synchronized void onDataUnchanged() {
+        if (hasConfigurationError() || !isReadEnabled) {
+            return;
+        }
+        updateStatusIfChanged(ThingStatus.ONLINE);
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            tryUpdateState(lastReadSuccessUID, new DateTimeType());
+        }
+    }
+
     @Override
     public synchronized void onError(ModbusReadRequestBlueprint request, Exception error) {
         if (hasConfigurationError()) {
@@ -13,6 +13,7 @@
 package org.openhab.binding.modbus.internal.handler;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -36,6 +37,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.AtomicStampedKeyValue;
+import org.openhab.binding.modbus.internal.DataChangeTracker;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
 import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
@@ -55,6 +57,9 @@ import org.slf4j.LoggerFactory;
  * The {@link ModbusPollerThingHandlerImpl} is responsible for polling Modbus slaves. Errors and data is delegated to
  * child thing handlers inheriting from {@link ModbusReadCallback} -- in practice: {@link ModbusDataThingHandler}.
  *
+ * The previous response is kept to find out which data has changed. Data things reading only unchanged data are not
+ * passed the data, unless they need to update unchanged values (see {@link DataChangeTracker}).
+ *
  * @author Sami Salonen - Initial contribution
  */
 @NonNullByDefault
@@ -75,6 +80,7 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
         private volatile @Nullable AtomicStampedKeyValue<ModbusReadRequestBlueprint, ModbusRegisterArray> lastRegisters;
         private volatile @Nullable AtomicStampedKeyValue<ModbusReadRequestBlueprint, BitArray> lastCoils;
         private volatile @Nullable AtomicStampedKeyValue<ModbusReadRequestBlueprint, Exception> lastError;
+        private final DataChangeTracker changeTracker = new DataChangeTracker();
 
         @Override
         public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
@@ -92,7 +98,15 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             }
             logger.debug("Thing {} received registers {} for request {}", thing.getUID(), registers, request);
             resetCommunicationError();
-            childCallbacks.forEach(handler -> handler.onRegisters(request, registers));
+            @Nullable
+            BitSet changedBits = registers.size() == config.getLength() ? changeTracker.updateRegisters(registers)
+                    : null;
+            long now = System.currentTimeMillis();
+            childCallbacks.forEach(handler -> {
+                if (isUpdateNeeded(handler, changedBits, true, now)) {
+                    handler.onRegisters(request, registers);
+                }
+            });
         }
 
         @Override
@@ -111,7 +125,14 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             }
             logger.debug("Thing {} received coils {} for request {}", thing.getUID(), coils, request);
             resetCommunicationError();
-            childCallbacks.forEach(handler -> handler.onBits(request, coils));
+            @Nullable
+            BitSet changedBits = coils.size() == config.getLength() ? changeTracker.updateBits(coils) : null;
+            long now = System.currentTimeMillis();
+            childCallbacks.forEach(handler -> {
+                if (isUpdateNeeded(handler, changedBits, false, now)) {
+                    handler.onBits(request, coils);
+                }
+            });
         }
 
         @Override
@@ -129,6 +150,8 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
                 }
             }
             logger.debug("Thing {} received error {} for request {}", thing.getUID(), error, request);
+            // children need all data after recovering from the error
+            changeTracker.reset();
             childCallbacks.forEach(handler -> handler.onError(request, error));
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                     String.format("Error with read: %s: %s", error.getClass().getName(), error.getMessage()));
@@ -216,7 +239,31 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             lastRegisters = null;
             lastCoils = null;
             lastError = null;
+            changeTracker.reset();
+        }
+    }
+
+    /**
+     * Tell whether the child needs the polled data. Data things are skipped when the data they read has not changed,
+     * and they do not need to update unchanged values yet. Skipped data things are told that the data is unchanged.
+     *
+     * @param child child callback
+     * @param changedBits changed bits, or null when all data should be considered changed
+     * @param registers whether the polled data is registers, or coils/discrete inputs
+     * @param now current time in milliseconds
+     * @return whether the child should be passed the data
+     */
+    static boolean isUpdateNeeded(ModbusReadCallback child, @Nullable BitSet changedBits, boolean registers,
+            long now) {
+        if (changedBits == null || !(child instanceof ModbusDataThingHandler)) {
+            return true;
+        }
+        ModbusDataThingHandler dataHandler = (ModbusDataThingHandler) child;
+        if (dataHandler.isUpdateNeeded(changedBits, registers, now)) {
+            return true;
         }
+        dataHandler.onDataUnchanged();
+        return false;
     }
 
     /**
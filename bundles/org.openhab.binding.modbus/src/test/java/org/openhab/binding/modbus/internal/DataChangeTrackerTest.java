@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+
+public class DataChangeTrackerTest {
+
+    @Test
+    public void testFirstRegistersNotComparable() {
+        DataChangeTracker tracker = new DataChangeTracker();
+        assertNull(tracker.updateRegisters(new BasicModbusRegisterArray(1, 2, 3)));
+    }
+
+    @Test
+    public void testRegisterChanges() {
+        DataChangeTracker tracker = new DataChangeTracker();
+        tracker.updateRegisters(new BasicModbusRegisterArray(1, 2, 3));
+
+        BitSet changed = tracker.updateRegisters(new BasicModbusRegisterArray(1, 2, 3));
+        assertNotNull(changed);
+        assertTrue(changed.isEmpty());
+
+        // bit 4 of second register, and high byte of third register
+        changed = tracker.updateRegisters(new BasicModbusRegisterArray(1, 2 | 1 << 4, 3 | 0x0100));
+        assertNotNull(changed);
+        assertThat(changed.cardinality(), is(equalTo(2)));
+        assertTrue(changed.get(16 + 4));
+        assertTrue(changed.get(32 + 8));
+
+        assertFalse(DataChangeTracker.isChanged(changed, 0, 16));
+        assertTrue(DataChangeTracker.isChanged(changed, 16, 16));
+        assertFalse(DataChangeTracker.isChanged(changed, 16 + 5, 1));
+        assertFalse(DataChangeTracker.isChanged(changed, 32, 8));
+        assertTrue(DataChangeTracker.isChanged(changed, 32 + 8, 8));
+        assertTrue(DataChangeTracker.isChanged(changed, 0, 48));
+    }
+
+    @Test
+    public void testDifferentSizeNotComparable() {
+        DataChangeTracker tracker = new DataChangeTracker();
+        tracker.updateRegisters(new BasicModbusRegisterArray(1, 2, 3));
+        assertNull(tracker.updateRegisters(new BasicModbusRegisterArray(1, 2)));
+        assertNotNull(tracker.updateRegisters(new BasicModbusRegisterArray(1, 2)));
+    }
+
+    @Test
+    public void testBitChanges() {
+        DataChangeTracker tracker = new DataChangeTracker();
+        assertNull(tracker.updateBits(new BasicBitArray(true, false, true)));
+
+        BitSet changed = tracker.updateBits(new BasicBitArray(true, true, true));
+        assertNotNull(changed);
+        assertThat(changed.cardinality(), is(equalTo(1)));
+        assertTrue(changed.get(1));
+    }
+
+    @Test
+    public void testReset() {
+        DataChangeTracker tracker = new DataChangeTracker();
+        tracker.updateRegisters(new BasicModbusRegisterArray(1));
+        tracker.reset();
+        assertNull(tracker.updateRegisters(new BasicModbusRegisterArray(1)));
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal.handler;
+
+import static org.junit.Assert.*;
+import static org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.openhab.binding.modbus.internal.DataChangeTracker;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+
+public class ModbusDataThingHandlerUpdateTest {
+
+    private static BitSet changedRegisters(int[] previous, int[] current) {
+        DataChangeTracker tracker = new DataChangeTracker();
+        tracker.updateRegisters(new BasicModbusRegisterArray(previous));
+        BitSet changed = tracker.updateRegisters(new BasicModbusRegisterArray(current));
+        assertNotNull(changed);
+        return changed;
+    }
+
+    private static BitSet changedBits(boolean[] previous, boolean[] current) {
+        DataChangeTracker tracker = new DataChangeTracker();
+        tracker.updateBits(new BasicBitArray(previous));
+        BitSet changed = tracker.updateBits(new BasicBitArray(current));
+        assertNotNull(changed);
+        return changed;
+    }
+
+    @Test
+    public void testBitWindow() {
+        // bit 3 of the second register
+        assertTrue(isReadDataChanged(changedRegisters(new int[] { 0, 0, 0 }, new int[] { 0, 1 << 3, 0 }), true, 1, 3,
+                ValueType.BIT));
+        assertFalse(isReadDataChanged(changedRegisters(new int[] { 0, 0, 0 }, new int[] { 0, 1 << 4, 0 }), true, 1, 3,
+                ValueType.BIT));
+        assertFalse(isReadDataChanged(changedRegisters(new int[] { 0, 0, 0 }, new int[] { 1 << 3, 0, 1 << 3 }), true,
+                1, 3, ValueType.BIT));
+    }
+
+    @Test
+    public void testInt8Window() {
+        // high byte of the second register
+        BitSet highByteChanged = changedRegisters(new int[] { 0, 0x1234 }, new int[] { 0, 0x1334 });
+        assertTrue(isReadDataChanged(highByteChanged, true, 1, 1, ValueType.INT8));
+        assertFalse(isReadDataChanged(highByteChanged, true, 1, 0, ValueType.UINT8));
+
+        // low byte of the second register
+        BitSet lowByteChanged = changedRegisters(new int[] { 0, 0x1234 }, new int[] { 0, 0x12b4 });
+        assertTrue(isReadDataChanged(lowByteChanged, true, 1, 0, ValueType.INT8));
+        assertFalse(isReadDataChanged(lowByteChanged, true, 1, 1, ValueType.UINT8));
+        assertFalse(isReadDataChanged(lowByteChanged, true, 0, 1, ValueType.INT8));
+    }
+
+    @Test
+    public void testInt16Window() {
+        BitSet changed = changedRegisters(new int[] { 0, 0, 0 }, new int[] { 0, 0x8000, 0 });
+        assertTrue(isReadDataChanged(changed, true, 1, 0, ValueType.INT16));
+        assertFalse(isReadDataChanged(changed, true, 0, 0, ValueType.INT16));
+        assertFalse(isReadDataChanged(changed, true, 2, 0, ValueType.UINT16));
+    }
+
+    @Test
+    public void test32BitWindow() {
+        // registers 2 and 3
+        int[] previous = new int[] { 0, 0, 0, 0, 0, 0 };
+        assertTrue(isReadDataChanged(changedRegisters(previous, new int[] { 0, 0, 1, 0, 0, 0 }), true, 2, 0,
+                ValueType.INT32));
+        assertTrue(isReadDataChanged(changedRegisters(previous, new int[] { 0, 0, 0, 0x8000, 0, 0 }), true, 2, 0,
+                ValueType.FLOAT32));
+        assertFalse(isReadDataChanged(changedRegisters(previous, new int[] { 0, 1, 0, 0, 1, 0 }), true, 2, 0,
+                ValueType.UINT32_SWAP));
+    }
+
+    @Test
+    public void test64BitWindow() {
+        // registers 1 to 4
+        int[] previous = new int[] { 0, 0, 0, 0, 0, 0 };
+        assertTrue(isReadDataChanged(changedRegisters(previous, new int[] { 0, 1, 0, 0, 0, 0 }), true, 1, 0,
+                ValueType.INT64));
+        assertTrue(isReadDataChanged(changedRegisters(previous, new int[] { 0, 0, 0, 0, 0x8000, 0 }), true, 1, 0,
+                ValueType.UINT64));
+        assertFalse(isReadDataChanged(changedRegisters(previous, new int[] { 1, 0, 0, 0, 0, 1 }), true, 1, 0,
+                ValueType.INT64_SWAP));
+    }
+
+    @Test
+    public void testCoilWindow() {
+        BitSet changed = changedBits(new boolean[] { false, true, false, false },
+                new boolean[] { false, true, true, false });
+        // sub index and value type do not matter with coils
+        assertTrue(isReadDataChanged(changed, false, 2, 0, ValueType.BIT));
+        assertFalse(isReadDataChanged(changed, false, 1, 0, ValueType.BIT));
+        assertFalse(isReadDataChanged(changed, false, 3, 0, ValueType.BIT));
+    }
+
+    @Test
+    public void testUnchangedValuesUpdatedEveryPollByDefault() {
+        assertTrue(isUnchangedUpdateDue(Arrays.asList(1000L), 0L, 1000L));
+        assertTrue(isUnchangedUpdateDue(Arrays.asList(1000L), -1L, 1000L));
+    }
+
+    @Test
+    public void testUnchangedValuesUpdatedWhenNotUpdatedYet() {
+        assertTrue(isUnchangedUpdateDue(Collections.emptyList(), 60000L, 1000L));
+    }
+
+    @Test
+    public void testUnchangedValuesUpdatedAfterInterval() {
+        assertFalse(isUnchangedUpdateDue(Arrays.asList(1000L), 5000L, 1000L));
+        assertFalse(isUnchangedUpdateDue(Arrays.asList(1000L), 5000L, 6000L));
+        assertTrue(isUnchangedUpdateDue(Arrays.asList(1000L), 5000L, 6001L));
+
+        // the channel updated longest ago decides
+        assertTrue(isUnchangedUpdateDue(Arrays.asList(4000L, 1000L, 6000L), 5000L, 6001L));
+        assertFalse(isUnchangedUpdateDue(Arrays.asList(4000L, 2000L, 6000L), 5000L, 6001L));
+    }
+}
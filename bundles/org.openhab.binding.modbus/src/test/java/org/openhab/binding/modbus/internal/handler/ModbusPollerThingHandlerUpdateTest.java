@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal.handler;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.modbus.internal.handler.ModbusPollerThingHandlerImpl.isUpdateNeeded;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+
+public class ModbusPollerThingHandlerUpdateTest {
+
+    private final ModbusDataThingHandler dataHandler = mock(ModbusDataThingHandler.class);
+
+    @Test
+    public void testAllDataPassedWithoutComparableData() {
+        assertTrue(isUpdateNeeded(dataHandler, null, true, 1000L));
+        verifyZeroInteractions(dataHandler);
+    }
+
+    @Test
+    public void testDataPassedToOtherCallbacks() {
+        ModbusReadCallback callback = mock(ModbusReadCallback.class);
+        assertTrue(isUpdateNeeded(callback, new BitSet(), true, 1000L));
+        verifyZeroInteractions(callback);
+    }
+
+    @Test
+    public void testDataPassedWhenNeeded() {
+        BitSet changedBits = new BitSet();
+        changedBits.set(3);
+        when(dataHandler.isUpdateNeeded(changedBits, false, 1000L)).thenReturn(true);
+
+        assertTrue(isUpdateNeeded(dataHandler, changedBits, false, 1000L));
+        verify(dataHandler).isUpdateNeeded(changedBits, false, 1000L);
+        verify(dataHandler, never()).onDataUnchanged();
+    }
+
+    @Test
+    public void testUnchangedDataNotPassed() {
+        BitSet changedBits = new BitSet();
+        when(dataHandler.isUpdateNeeded(any(), anyBoolean(), anyLong())).thenReturn(false);
+
+        assertFalse(isUpdateNeeded(dataHandler, changedBits, true, 1000L));
+        verify(dataHandler).isUpdateNeeded(changedBits, true, 1000L);
+        verify(dataHandler).onDataUnchanged();
+    }
+}
@@ -41,6 +41,11 @@ public class ChannelConfig {
     public boolean retained = false;
     /** If true, the state topic will not update a state, but trigger a channel instead. */
     public boolean trigger = false;
+    /**
+     * Minimum interval in milliseconds between processing received values. Values received within the interval are
+     * not processed, only the latest one is. 0 processes every received value.
+     */
+    public int minUpdateInterval = 0;
     public String unit = "";
 
     public String transformationPattern = "";
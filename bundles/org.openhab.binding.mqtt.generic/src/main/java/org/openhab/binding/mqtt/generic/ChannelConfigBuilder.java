@@ -64,6 +64,11 @@ public class ChannelConfigBuilder {
         return this;
     }
 
+    public ChannelConfigBuilder withMinUpdateInterval(int minUpdateInterval) {
+        config.minUpdateInterval = minUpdateInterval;
+        return this;
+    }
+
     public ChannelConfigBuilder makeTrigger(boolean trigger) {
         config.trigger = trigger;
         return this;
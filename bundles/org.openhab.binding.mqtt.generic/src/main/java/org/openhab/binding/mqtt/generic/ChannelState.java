@@ -21,6 +21,9 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -37,6 +40,10 @@ import org.slf4j.LoggerFactory;
 /**
  * This object consists of an {@link Value}, which is updated on the respective MQTT topic change.
  * Updates to the value are propagated via the {@link ChannelStateUpdateListener}.
+ * <p>
+ * If {@link ChannelConfig#minUpdateInterval} is set, received values are not processed on the MQTT client thread.
+ * The latest received value is kept instead and processed on the scheduler at most once per interval, intermediate
+ * values are dropped and counted, see {@link #getDroppedUpdates()}.
  *
  * @author David Graeff - Initial contribution
  */
@@ -61,6 +68,23 @@ public class ChannelState implements MqttMessageSubscriber {
     protected boolean hasSubscribed = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
+    private @Nullable ScheduledExecutorService scheduler;
+
+    // Rate limited processing of received values, see ChannelConfig.minUpdateInterval
+    private final AtomicReference<@Nullable ReceivedMessage> latestMessage = new AtomicReference<>();
+    private final AtomicBoolean processingScheduled = new AtomicBoolean();
+    private final AtomicLong droppedUpdates = new AtomicLong();
+    private volatile long nextProcessingNanos = System.nanoTime();
+
+    private static class ReceivedMessage {
+        final String topic;
+        final byte[] payload;
+
+        ReceivedMessage(String topic, byte[] payload) {
+            this.topic = topic;
+            this.payload = payload;
+        }
+    }
 
     /**
      * Creates a new channel state.
@@ -145,6 +169,49 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        final ScheduledExecutorService scheduler = this.scheduler;
+        if (config.minUpdateInterval > 0 && !config.trigger && scheduler != null) {
+            // Latest value wins: replace the value waiting for processing, if any
+            if (latestMessage.getAndSet(new ReceivedMessage(topic, payload)) != null) {
+                droppedUpdates.incrementAndGet();
+            }
+            scheduleProcessing(scheduler);
+            return;
+        }
+
+        processMessage(channelStateUpdateListener, topic, payload);
+    }
+
+    private void scheduleProcessing(ScheduledExecutorService scheduler) {
+        if (processingScheduled.compareAndSet(false, true)) {
+            long delay = Math.max(0, nextProcessingNanos - System.nanoTime());
+            scheduler.schedule(this::processLatestMessage, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Processes the latest received value. Only one invocation is scheduled at a time, so values are processed in
+     * order.
+     */
+    private void processLatestMessage() {
+        final ReceivedMessage message = latestMessage.getAndSet(null);
+        final ChannelStateUpdateListener channelStateUpdateListener = this.channelStateUpdateListener;
+        try {
+            if (message != null && channelStateUpdateListener != null) {
+                nextProcessingNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.minUpdateInterval);
+                processMessage(channelStateUpdateListener, message.topic, message.payload);
+            }
+        } finally {
+            processingScheduled.set(false);
+        }
+        // A value might have been received while processing
+        final ScheduledExecutorService scheduler = this.scheduler;
+        if (latestMessage.get() != null && scheduler != null) {
+            scheduleProcessing(scheduler);
+        }
+    }
+
+    private void processMessage(ChannelStateUpdateListener channelStateUpdateListener, String topic, byte[] payload) {
         if (cachedValue.isBinary()) {
             cachedValue.update(payload);
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
@@ -198,6 +265,14 @@ public class ChannelState implements MqttMessageSubscriber {
         receivedOrTimeout();
     }
 
+    /**
+     * Returns the number of received values that were dropped without processing, because a newer value was received
+     * within the {@link ChannelConfig#minUpdateInterval}.
+     */
+    public long getDroppedUpdates() {
+        return droppedUpdates.get();
+    }
+
     /**
      * Returns the state topic. Might be an empty string if this is a stateless channel (TRIGGER kind channel).
      */
@@ -246,7 +321,12 @@ public class ChannelState implements MqttMessageSubscriber {
         this.connection = null;
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
+        latestMessage.set(null);
         cachedValue.resetState();
+        if (droppedUpdates.get() > 0) {
+            logger.debug("Channel {} dropped {} intermediate values due to the minimum update interval", channelUID,
+                    droppedUpdates.get());
+        }
     }
 
     private void receivedOrTimeout() {
@@ -272,7 +352,7 @@ public class ChannelState implements MqttMessageSubscriber {
      * Subscribes to the state topic on the given connection and informs about updates on the given listener.
      *
      * @param connection A broker connection
-     * @param scheduler A scheduler to realize the timeout
+     * @param scheduler A scheduler to realize the timeout and the processing of rate limited values
      * @param timeout A timeout in milliseconds. Can be 0 to disable the timeout and let the future return earlier.
      * @param channelStateUpdateListener An update listener
      * @return A future that completes with true if the subscribing worked, with false if the stateTopic is not set
@@ -285,6 +365,7 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         this.connection = connection;
+        this.scheduler = scheduler;
 
         if (StringUtils.isBlank(config.stateTopic)) {
             return CompletableFuture.completedFuture(null);
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Collects objects until a specified delay passed by or, optionally, until a specified number of objects
+ * has been collected. Then call the user back with a list of accumulated objects and start over again.
+ * <p>
+ * Objects can be added concurrently from any thread without locking. The first object added to an empty batch arms
+ * the delay timer, an atomic flag makes sure that only one timer is armed at a time. Batches are delivered to the
+ * consumer one at a time, in the order the objects were added.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> Any object
+ */
+@NonNullByDefault
+public class BatchProcessing<T> implements Consumer<T> {
+    /** Batch size limit for unlimited batches */
+    public static final int UNLIMITED = 0;
+
+    private final int delay;
+    private final int maxBatchSize;
+    private final Consumer<List<T>> consumer;
+    private final ScheduledExecutorService executor;
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() is not a constant-time operation
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicBoolean armed = new AtomicBoolean();
+    private final AtomicBoolean batchFull = new AtomicBoolean();
+    private final AtomicReference<@Nullable ScheduledFuture<?>> future = new AtomicReference<>();
+
+    /**
+     * Creates a {@link BatchProcessing} delivering the objects after the delay.
+     *
+     * @param delay A delay in milliseconds
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public BatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
+        this(delay, UNLIMITED, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link BatchProcessing} delivering the objects after the delay, or as soon as the given number of
+     * objects has been collected.
+     *
+     * @param delay A delay in milliseconds
+     * @param maxBatchSize The maximum number of objects delivered at once, or {@link #UNLIMITED}
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public BatchProcessing(int delay, int maxBatchSize, Consumer<List<T>> consumer,
+            ScheduledExecutorService executor) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay need to be greater than 0!");
+        }
+        if (maxBatchSize < 0) {
+            throw new IllegalArgumentException("Maximum batch size must not be negative!");
+        }
+        this.delay = delay;
+        this.maxBatchSize = maxBatchSize;
+        this.consumer = consumer;
+        this.executor = executor;
+    }
+
+    /**
+     * Add new object to the batch process list. If the list was empty, the delay timer
+     * is armed and all successive objects are accumulated from here on. If the maximum batch
+     * size is reached, the objects are delivered right away on the executor.
+     *
+     * @param t An object
+     */
+    @Override
+    public void accept(T t) {
+        queue.add(t);
+        int size = queueSize.incrementAndGet();
+        if (maxBatchSize != UNLIMITED && size >= maxBatchSize && batchFull.compareAndSet(false, true)) {
+            executor.execute(this::run);
+        } else if (armed.compareAndSet(false, true)) {
+            future.set(executor.schedule(this::run, delay, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Return the so far accumulated objects, but do not deliver them to the target consumer anymore.
+     *
+     * @return A list of accumulated objects
+     */
+    public List<T> join() {
+        cancel();
+        List<T> lqueue = new ArrayList<>();
+        drain(lqueue, Integer.MAX_VALUE);
+        return lqueue;
+    }
+
+    /**
+     * Return true if there is a delayed processing going on.
+     */
+    public boolean isArmed() {
+        return armed.get();
+    }
+
+    /**
+     * Deliver queued items now to the target consumer.
+     */
+    public void forceProcessNow() {
+        cancel();
+        run();
+    }
+
+    private void cancel() {
+        ScheduledFuture<?> scheduledFuture = future.get();
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+        }
+        // If accept() armed a new timer in the meantime, the new future has been installed and the flag must stay set
+        if (future.compareAndSet(scheduledFuture, null)) {
+            armed.set(false);
+        }
+    }
+
+    private synchronized void run() {
+        // Reset the flags first: objects added from now on arm a new timer, even if they are delivered right now
+        armed.set(false);
+        batchFull.set(false);
+
+        int limit = maxBatchSize == UNLIMITED ? Integer.MAX_VALUE : maxBatchSize;
+        List<T> lqueue = new ArrayList<>();
+        while (drain(lqueue, limit)) {
+            consumer.accept(lqueue);
+            lqueue = new ArrayList<>();
+        }
+    }
+
+    private boolean drain(List<T> target, int limit) {
+        T t;
+        while (target.size() < limit && (t = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            target.add(t);
+        }
+        return !target.isEmpty();
+    }
+}
@@ -40,6 +40,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.openhab.binding.mqtt.generic.values.ColorValue;
@@ -156,6 +157,32 @@ public class ChannelStateTests {
         verify(channelStateUpdateListener).updateChannelState(eq(channelUID), any());
     }
 
+    @Test
+    public void receiveLatestValueWithMinUpdateIntervalTest() {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        ChannelState c = spy(new ChannelState(
+                ChannelConfigBuilder.create("state", "command").withMinUpdateInterval(1000).build(), channelUID,
+                textValue, channelStateUpdateListener));
+        c.start(connection, scheduler, 0);
+
+        c.processMessage("state", "A".getBytes());
+        c.processMessage("state", "B".getBytes());
+        c.processMessage("state", "C".getBytes());
+        verifyNoMoreInteractions(channelStateUpdateListener);
+
+        // Processing is scheduled once, only the latest value is processed
+        ArgumentCaptor<Runnable> processing = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(processing.capture(), eq(0L), eq(TimeUnit.NANOSECONDS));
+        processing.getValue().run();
+        assertThat(textValue.getChannelState().toString(), is("C"));
+        verify(channelStateUpdateListener).updateChannelState(eq(channelUID), any());
+        assertThat(c.getDroppedUpdates(), is(2L));
+
+        // The next value waits for the interval to pass
+        c.processMessage("state", "D".getBytes());
+        verify(scheduler).schedule(any(Runnable.class), longThat(delay -> delay > 0), eq(TimeUnit.NANOSECONDS));
+    }
+
     @Test
     public void receiveDecimalTest() {
         NumberValue value = new NumberValue(null, null, new BigDecimal(10));
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests the {@link BatchProcessing} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class BatchProcessingTests {
+    private ScheduledExecutorService scheduler;
+    private final List<List<Integer>> batches = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void timerArmedOnce() {
+        BatchProcessing<Integer> processing = new BatchProcessing<>(100, batches::add, scheduler);
+
+        processing.accept(1);
+        processing.accept(2);
+        processing.accept(3);
+        assertTrue(processing.isArmed());
+
+        ArgumentCaptor<Runnable> run = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(run.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        run.getValue().run();
+
+        assertFalse(processing.isArmed());
+        assertThat(batches, is(Arrays.asList(Arrays.asList(1, 2, 3))));
+
+        // The next object arms the timer again
+        processing.accept(4);
+        verify(scheduler, times(2)).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void maxBatchSizeDeliversImmediately() {
+        BatchProcessing<Integer> processing = new BatchProcessing<>(100, 2, batches::add, scheduler);
+
+        processing.accept(1);
+        processing.accept(2);
+        processing.accept(3);
+
+        ArgumentCaptor<Runnable> run = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).execute(run.capture());
+        run.getValue().run();
+
+        assertThat(batches, is(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3))));
+    }
+
+    @Test
+    public void joinReturnsWithoutDelivering() {
+        BatchProcessing<Integer> processing = new BatchProcessing<>(100, batches::add, scheduler);
+
+        processing.accept(1);
+        processing.accept(2);
+
+        assertThat(processing.join(), is(Arrays.asList(1, 2)));
+        assertFalse(processing.isArmed());
+        processing.forceProcessNow();
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    public void timerArmedWhileCancellingIsKept() {
+        BatchProcessing<Integer> processing = new BatchProcessing<>(100, batches::add, scheduler);
+        ScheduledFuture<?> first = mock(ScheduledFuture.class);
+        ScheduledFuture<?> second = mock(ScheduledFuture.class);
+        doReturn(first).doReturn(second).when(scheduler).schedule(any(Runnable.class), eq(100L),
+                eq(TimeUnit.MILLISECONDS));
+
+        processing.accept(1);
+        ArgumentCaptor<Runnable> run = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(run.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        run.getValue().run();
+
+        // An object arriving while join() cancels the finished timer arms a new one
+        doAnswer(invocation -> {
+            processing.accept(2);
+            return false;
+        }).when(first).cancel(false);
+        assertThat(processing.join(), is(Arrays.asList(2)));
+        verify(second, never()).cancel(anyBoolean());
+        assertTrue(processing.isArmed());
+
+        // The new timer delivers the objects added later on
+        processing.accept(3);
+        verify(scheduler, times(2)).schedule(run.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        run.getValue().run();
+        assertThat(batches, is(Arrays.asList(Arrays.asList(1), Arrays.asList(3))));
+    }
+
+    @Test
+    public void concurrentProducers() throws InterruptedException {
+        scheduler = new ScheduledThreadPoolExecutor(2);
+        List<Integer> received = new ArrayList<>();
+        BatchProcessing<Integer> processing = new BatchProcessing<>(10, 50, received::addAll, scheduler);
+
+        final int threads = 4;
+        final int perThread = 1000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            final int offset = i * perThread;
+            new Thread(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    processing.accept(offset + j);
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        processing.forceProcessNow();
+
+        // Batches are delivered one at a time, so the list is not modified concurrently
+        assertThat(received.size(), is(threads * perThread));
+        assertThat(received.stream().distinct().count(), is((long) threads * perThread));
+    }
+}
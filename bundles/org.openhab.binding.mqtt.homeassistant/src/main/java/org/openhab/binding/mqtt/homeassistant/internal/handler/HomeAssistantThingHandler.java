@@ -42,7 +42,7 @@ import org.openhab.binding.mqtt.generic.AbstractMQTTThingHandler;
 import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
-import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
+import org.openhab.binding.mqtt.generic.tools.BatchProcessing;
 import org.openhab.binding.mqtt.homeassistant.generic.internal.MqttBindingConstants;
 import org.openhab.binding.mqtt.homeassistant.internal.AbstractComponent;
 import org.openhab.binding.mqtt.homeassistant.internal.CChannel;
@@ -83,7 +83,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
 
     protected final MqttChannelTypeProvider channelTypeProvider;
     public final int attributeReceiveTimeout;
-    protected final DelayedBatchProcessing<AbstractComponent<?>> delayedProcessing;
+    protected final BatchProcessing<AbstractComponent<?>> delayedProcessing;
     protected final DiscoverComponents discoverComponents;
 
     private final Gson gson;
@@ -111,7 +111,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         this.channelTypeProvider = channelTypeProvider;
         this.transformationServiceProvider = transformationServiceProvider;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout, this, scheduler);
+        this.delayedProcessing = new BatchProcessing<>(attributeReceiveTimeout, this, scheduler);
         this.discoverComponents = new DiscoverComponents(thing.getUID(), scheduler, this, gson,
                 this.transformationServiceProvider);
     }
@@ -239,7 +239,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
     }
 
     /**
-     * Callback of {@link DelayedBatchProcessing}.
+     * Callback of {@link BatchProcessing}.
      * Add all newly discovered components to the Thing and start the components.
      */
     @SuppressWarnings("null")
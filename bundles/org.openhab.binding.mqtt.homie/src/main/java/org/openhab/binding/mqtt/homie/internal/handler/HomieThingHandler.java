@@ -29,7 +29,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.generic.AbstractMQTTThingHandler;
 import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
-import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
+import org.openhab.binding.mqtt.generic.tools.BatchProcessing;
 import org.openhab.binding.mqtt.homie.generic.internal.MqttBindingConstants;
 import org.openhab.binding.mqtt.homie.internal.homie300.Device;
 import org.openhab.binding.mqtt.homie.internal.homie300.DeviceAttributes;
@@ -56,7 +56,7 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
     protected final int attributeReceiveTimeout;
     protected final int subscribeTimeout;
     protected HandlerConfiguration config = new HandlerConfiguration();
-    protected DelayedBatchProcessing<Object> delayedProcessing;
+    protected BatchProcessing<Object> delayedProcessing;
     private @Nullable ScheduledFuture<?> heartBeatTimer;
 
     /**
@@ -76,18 +76,18 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
         this.channelTypeProvider = channelTypeProvider;
         this.subscribeTimeout = subscribeTimeout;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, this, scheduler);
+        this.delayedProcessing = new BatchProcessing<>(subscribeTimeout, this, scheduler);
         this.device = new Device(this.thing.getUID(), this, new DeviceAttributes());
     }
 
     /**
-     * Overwrite the {@link Device} and {@link DelayedBatchProcessing} object.
+     * Overwrite the {@link Device} and {@link BatchProcessing} object.
      * Those are set in the constructor already, but require to be replaced for tests.
      *
      * @param device The device object
      * @param delayedProcessing The delayed processing object
      */
-    protected void setInternalObjects(Device device, DelayedBatchProcessing<Object> delayedProcessing) {
+    protected void setInternalObjects(Device device, BatchProcessing<Object> delayedProcessing) {
         this.device = device;
         this.delayedProcessing = delayedProcessing;
     }
@@ -204,7 +204,7 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
     }
 
     /**
-     * Callback of {@link DelayedBatchProcessing}.
+     * Callback of {@link BatchProcessing}.
      * Add all newly discovered nodes and properties to the Thing and start subscribe to each channel state topic.
      */
     @Override
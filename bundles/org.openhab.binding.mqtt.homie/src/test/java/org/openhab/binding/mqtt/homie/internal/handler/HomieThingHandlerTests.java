@@ -54,8 +54,8 @@ import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
 import org.openhab.binding.mqtt.generic.mapping.SubscribeFieldToMQTTtopic;
+import org.openhab.binding.mqtt.generic.tools.BatchProcessing;
 import org.openhab.binding.mqtt.generic.tools.ChildMap;
-import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
 import org.openhab.binding.mqtt.homie.ChannelStateHelper;
@@ -138,7 +138,7 @@ public class HomieThingHandlerTests {
         final Device device = new Device(thing.getUID(), thingHandler, spy(new DeviceAttributes()),
                 spy(new ChildMap<>()));
         thingHandler.setInternalObjects(spy(device),
-                spy(new DelayedBatchProcessing<Object>(500, thingHandler, scheduler)));
+                spy(new BatchProcessing<Object>(500, thingHandler, scheduler)));
 
         // Return the bridge handler if the thing handler asks for it
         doReturn(bridgeHandler).when(thingHandler).getBridgeHandler();
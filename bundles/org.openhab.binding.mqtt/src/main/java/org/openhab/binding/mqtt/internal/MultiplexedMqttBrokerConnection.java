@@ -0,0 +1,339 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link MqttBrokerConnection} that multiplexes the subscriptions of all things and discovery services
+ * onto a minimal set of broker subscriptions.
+ * <p>
+ * Subscribers are kept in a {@link TopicTrie}. Only topic filters that are not covered by another subscribed filter,
+ * like "house/kitchen/temperature" by "house/#", are subscribed on the broker. A received message is dispatched
+ * to all matching subscribers with one lookup in the trie.
+ * <p>
+ * MQTT brokers send retained messages on subscribe. A covered filter is therefore still subscribed on the broker
+ * when it is added, and unsubscribed after a grace period. Messages delivered for both the covering and the covered
+ * filter meanwhile are dispatched only once. For the same reason an already subscribed filter is subscribed again
+ * for each new subscriber, but the dispatcher stays registered only once per filter on the base connection.
+ * <p>
+ * The retained messages sent again are meant for the new subscriber only. Until the grace period after a subscription
+ * is over, a message repeating the last payload of its topic is therefore dispatched only to the new subscribers of
+ * matching filters that did not receive the topic yet. The other subscribers have received it already.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MultiplexedMqttBrokerConnection extends MqttBrokerConnection {
+    /** Time to wait for retained messages of a covered filter, before unsubscribing it on the broker */
+    static final int RETAINED_MESSAGES_GRACE_PERIOD_MILLIS = 2000;
+
+    private final Logger logger = LoggerFactory.getLogger(MultiplexedMqttBrokerConnection.class);
+    private final ScheduledExecutorService scheduler;
+    private final MqttMessageSubscriber dispatcher = this::dispatch;
+    private final Object lock = new Object();
+
+    // All fields below are guarded by the lock
+    private final TopicTrie<MqttMessageSubscriber> subscribers = new TopicTrie<>();
+    /** Filters subscribed on the broker for as long as they have subscribers */
+    private final Set<String> brokerFilters = new HashSet<>();
+    /** Covered filters subscribed on the broker until their grace period is over, with the number of periods */
+    private final Map<String, Integer> retainedGracePeriods = new HashMap<>();
+    /** Registrations of the dispatcher on the base connection, per filter */
+    private final Map<String, Integer> registrations = new HashMap<>();
+
+    /** Last payload dispatched per topic */
+    private final Map<String, byte[]> lastPayloads = new HashMap<>();
+    /** Recent subscriptions, which get the retained messages sent again */
+    private final List<Replay> replays = new ArrayList<>();
+
+    // The payload of the message dispatched last, messages are dispatched from a single thread
+    private volatile byte @Nullable [] lastPayload;
+
+    /**
+     * A recent subscription. Until the end of the grace period, a message repeating the last payload of a topic is
+     * passed only to the subscribers of recent subscriptions that did not receive the topic yet.
+     */
+    private static class Replay {
+        final String filter;
+        final MqttMessageSubscriber subscriber;
+        // Guarded by the lock
+        /** Open-ended until the subscription on the broker is done */
+        long endMillis = Long.MAX_VALUE;
+        /** Topics passed to the subscriber since the subscription */
+        final Set<String> received = new HashSet<>();
+
+        Replay(String filter, MqttMessageSubscriber subscriber) {
+            this.filter = filter;
+            this.subscriber = subscriber;
+        }
+    }
+
+    /**
+     * Create a new connection with the given protocol, host, port, clientID and a scheduler for unsubscribing covered
+     * filters.
+     *
+     * @param host A host name or address
+     * @param port A port or null to select the default port for a secure or insecure connection
+     * @param secure A secure connection
+     * @param clientId Client id. Each client on a MQTT server has a unique client id. Sometimes client ids are
+     *            used for access restriction implementations. If none is specified, a default is generated.
+     * @param scheduler A scheduler
+     */
+    public MultiplexedMqttBrokerConnection(String host, @Nullable Integer port, boolean secure,
+            @Nullable String clientId, ScheduledExecutorService scheduler) {
+        super(host, port, secure, clientId);
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
+        if (subscriber == dispatcher) {
+            return super.subscribe(topic, subscriber);
+        }
+        final List<String> coveredFilters = new ArrayList<>();
+        final boolean covered;
+        final Replay replay = new Replay(topic, subscriber);
+        synchronized (lock) {
+            subscribers.add(topic, subscriber);
+            long now = currentTimeMillis();
+            replays.removeIf(r -> r.endMillis < now);
+            replays.add(replay);
+            covered = !brokerFilters.contains(topic)
+                    && brokerFilters.stream().anyMatch(filter -> TopicTrie.covers(filter, topic));
+            if (covered) {
+                retainedGracePeriods.merge(topic, 1, Integer::sum);
+            } else if (brokerFilters.add(topic)) {
+                brokerFilters.stream().filter(filter -> !filter.equals(topic) && TopicTrie.covers(topic, filter))
+                        .forEach(coveredFilters::add);
+                brokerFilters.removeAll(coveredFilters);
+            }
+        }
+
+        // Subscribe even if the filter is subscribed already or covered, the broker sends the retained messages
+        CompletableFuture<Boolean> future = subscribeOnBroker(topic);
+        future.whenComplete((result, e) -> {
+            synchronized (lock) {
+                replay.endMillis = currentTimeMillis() + RETAINED_MESSAGES_GRACE_PERIOD_MILLIS;
+            }
+        });
+        if (covered) {
+            future.whenComplete((result, e) -> scheduler.schedule(() -> endRetainedGracePeriod(topic),
+                    RETAINED_MESSAGES_GRACE_PERIOD_MILLIS, TimeUnit.MILLISECONDS));
+        } else if (!coveredFilters.isEmpty()) {
+            logger.trace("Topic filter {} covers {}, unsubscribing them on the broker", topic, coveredFilters);
+            future.whenComplete((result, e) -> coveredFilters.forEach(this::unsubscribeIfNotNeeded));
+        }
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+        if (subscriber == dispatcher) {
+            return super.unsubscribe(topic, subscriber);
+        }
+        final List<String> uncoveredFilters = new ArrayList<>();
+        synchronized (lock) {
+            replays.removeIf(replay -> replay.subscriber == subscriber && replay.filter.equals(topic));
+            if (!subscribers.remove(topic, subscriber)) {
+                // Other subscribers are left
+                return CompletableFuture.completedFuture(true);
+            }
+            lastPayloads.keySet().removeIf(t -> TopicTrie.covers(topic, t) && match(t).isEmpty());
+            if (!brokerFilters.remove(topic)) {
+                // The filter is covered by another filter
+                return CompletableFuture.completedFuture(true);
+            }
+            // Filters that were covered by the removed filter need their own broker subscription now
+            final List<String> candidates = new ArrayList<>();
+            for (String filter : subscribers.getFilters()) {
+                if (brokerFilters.stream().noneMatch(f -> TopicTrie.covers(f, filter))) {
+                    candidates.add(filter);
+                }
+            }
+            for (String filter : candidates) {
+                if (candidates.stream().noneMatch(other -> !other.equals(filter) && TopicTrie.covers(other, filter))) {
+                    uncoveredFilters.add(filter);
+                }
+            }
+            brokerFilters.addAll(uncoveredFilters);
+        }
+
+        if (uncoveredFilters.isEmpty()) {
+            return unsubscribeIfNotNeeded(topic);
+        }
+        // Subscribe the uncovered filters first to not miss messages in between
+        return CompletableFuture
+                .allOf(uncoveredFilters.stream().map(this::subscribeOnBroker)
+                        .toArray(CompletableFuture[]::new))
+                .handle((result, e) -> null).thenCompose(v -> unsubscribeIfNotNeeded(topic));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> unsubscribeAll() {
+        synchronized (lock) {
+            subscribers.clear();
+            brokerFilters.clear();
+            retainedGracePeriods.clear();
+            registrations.clear();
+            lastPayloads.clear();
+            replays.clear();
+        }
+        return super.unsubscribeAll();
+    }
+
+    private void endRetainedGracePeriod(String topic) {
+        synchronized (lock) {
+            Integer periods = retainedGracePeriods.get(topic);
+            if (periods == null) {
+                return; // unsubscribeAll() was called meanwhile
+            }
+            if (periods > 1) {
+                retainedGracePeriods.put(topic, periods - 1);
+                return;
+            }
+            retainedGracePeriods.remove(topic);
+        }
+        unsubscribeIfNotNeeded(topic);
+    }
+
+    /**
+     * Unsubscribes the filter on the broker, unless it is still required.
+     */
+    private CompletableFuture<Boolean> unsubscribeIfNotNeeded(String topic) {
+        synchronized (lock) {
+            if (brokerFilters.contains(topic) || retainedGracePeriods.containsKey(topic)) {
+                return CompletableFuture.completedFuture(true);
+            }
+        }
+        return unsubscribeOnBroker(topic);
+    }
+
+    /**
+     * Subscribes the filter on the broker. If the dispatcher is registered for the filter already, the additional
+     * registration is removed again once the subscription is done. The broker has sent the retained messages then,
+     * and the base connection keeps the broker subscription for the remaining registration.
+     */
+    private CompletableFuture<Boolean> subscribeOnBroker(String topic) {
+        final boolean registered;
+        synchronized (lock) {
+            registered = registrations.merge(topic, 1, Integer::sum) > 1;
+        }
+        CompletableFuture<Boolean> future = subscribeDispatcher(topic);
+        if (registered) {
+            future.whenComplete((result, e) -> unsubscribeOnBroker(topic));
+        }
+        return future;
+    }
+
+    /**
+     * Removes one registration of the dispatcher for the filter. The base connection unsubscribes the filter on the
+     * broker with the last one.
+     */
+    private CompletableFuture<Boolean> unsubscribeOnBroker(String topic) {
+        synchronized (lock) {
+            Integer count = registrations.get(topic);
+            if (count == null) {
+                return CompletableFuture.completedFuture(true);
+            }
+            if (count > 1) {
+                registrations.put(topic, count - 1);
+            } else {
+                registrations.remove(topic);
+            }
+        }
+        return unsubscribeDispatcher(topic);
+    }
+
+    /**
+     * Registers the dispatcher for the filter on the base connection, which subscribes the filter on the broker.
+     */
+    CompletableFuture<Boolean> subscribeDispatcher(String topic) {
+        return super.subscribe(topic, dispatcher);
+    }
+
+    /**
+     * Removes a registration of the dispatcher for the filter from the base connection.
+     */
+    CompletableFuture<Boolean> unsubscribeDispatcher(String topic) {
+        return super.unsubscribe(topic, dispatcher);
+    }
+
+    /**
+     * Returns the current time in milliseconds.
+     */
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Passes a message received from the broker to the matching subscribers.
+     */
+    void dispatch(String topic, byte[] payload) {
+        // A message matching several broker subscriptions is passed to us once for each of them
+        if (payload == lastPayload) {
+            return;
+        }
+        lastPayload = payload;
+
+        final List<MqttMessageSubscriber> matching;
+        synchronized (lock) {
+            matching = match(topic);
+            if (matching.isEmpty()) {
+                return;
+            }
+            byte[] previous = lastPayloads.put(topic, payload);
+            long now = currentTimeMillis();
+            replays.removeIf(replay -> replay.endMillis < now);
+            List<Replay> recent = replays.stream().filter(replay -> TopicTrie.covers(replay.filter, topic))
+                    .collect(Collectors.toList());
+            if (previous != null && Arrays.equals(previous, payload) && !recent.isEmpty()) {
+                // Most likely a retained message sent again for a recent subscription
+                matching.retainAll(recent.stream().filter(replay -> !replay.received.contains(topic))
+                        .map(replay -> replay.subscriber).collect(Collectors.toList()));
+            }
+            recent.stream().filter(replay -> matching.contains(replay.subscriber))
+                    .forEach(replay -> replay.received.add(topic));
+        }
+        // Call the subscribers without holding the lock, they may subscribe or unsubscribe
+        for (MqttMessageSubscriber subscriber : matching) {
+            subscriber.processMessage(topic, payload);
+        }
+    }
+
+    /**
+     * Returns the subscribers of the filters matching the topic. Must be called with the lock held.
+     */
+    private List<MqttMessageSubscriber> match(String topic) {
+        final List<MqttMessageSubscriber> matching = new ArrayList<>();
+        subscribers.match(topic, matching::add);
+        return matching;
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Maps MQTT topic filters, which may contain the wildcards "+" and "#", to values.
+ * <p>
+ * The filters are stored level by level in a tree, so finding all values whose filter matches a topic
+ * takes time proportional to the number of topic levels, not to the number of filters.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> Type of the values
+ */
+@NonNullByDefault
+public class TopicTrie<T> {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private static class Node<T> {
+        final Map<String, Node<T>> children = new HashMap<>();
+        final Set<T> values = new HashSet<>();
+
+        boolean isEmpty() {
+            return children.isEmpty() && values.isEmpty();
+        }
+    }
+
+    private final Node<T> root = new Node<>();
+    private final Set<String> filters = new HashSet<>();
+
+    /**
+     * Adds a value for the given topic filter.
+     *
+     * @param filter A topic filter, like "house/+/temperature"
+     * @param value A value
+     * @return Returns true if the filter had no values so far.
+     */
+    public boolean add(String filter, T value) {
+        Node<T> node = root;
+        for (String level : filter.split("/", -1)) {
+            node = node.children.computeIfAbsent(level, l -> new Node<>());
+        }
+        boolean first = node.values.isEmpty();
+        if (node.values.add(value) && first) {
+            filters.add(filter);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a value of the given topic filter.
+     *
+     * @param filter A topic filter
+     * @param value A value
+     * @return Returns true if the value was removed and the filter has no values anymore.
+     */
+    public boolean remove(String filter, T value) {
+        Deque<Node<T>> path = new ArrayDeque<>();
+        String[] levels = filter.split("/", -1);
+        Node<T> node = root;
+        for (String level : levels) {
+            path.push(node);
+            node = node.children.get(level);
+            if (node == null) {
+                return false;
+            }
+        }
+        if (!node.values.remove(value) || !node.values.isEmpty()) {
+            return false;
+        }
+        filters.remove(filter);
+        // Prune nodes without values and children
+        for (int i = levels.length - 1; i >= 0 && node.isEmpty(); i--) {
+            Node<T> parent = path.pop();
+            parent.children.remove(levels[i]);
+            node = parent;
+        }
+        return true;
+    }
+
+    /**
+     * Calls the action for each value whose filter matches the topic. A value added for several matching filters
+     * is passed once for each filter.
+     *
+     * @param topic A topic without wildcards, like "house/kitchen/temperature"
+     * @param action An action
+     */
+    public void match(String topic, Consumer<T> action) {
+        String[] levels = topic.split("/", -1);
+        match(root, levels, 0, action);
+    }
+
+    private void match(Node<T> node, String[] levels, int level, Consumer<T> action) {
+        // Wildcards in the first level do not match topics starting with "$"
+        final boolean wildcards = level > 0 || !levels[0].startsWith("$");
+        if (wildcards) {
+            // "#" also matches the parent level, so "house/#" matches "house"
+            Node<T> multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+            if (multiLevel != null) {
+                multiLevel.values.forEach(action);
+            }
+        }
+        if (level == levels.length) {
+            node.values.forEach(action);
+            return;
+        }
+        Node<T> child = node.children.get(levels[level]);
+        if (child != null) {
+            match(child, levels, level + 1, action);
+        }
+        if (wildcards) {
+            Node<T> singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+            if (singleLevel != null) {
+                match(singleLevel, levels, level + 1, action);
+            }
+        }
+    }
+
+    /**
+     * Returns the filters with values.
+     */
+    public Set<String> getFilters() {
+        return Collections.unmodifiableSet(filters);
+    }
+
+    public boolean isEmpty() {
+        return filters.isEmpty();
+    }
+
+    public void clear() {
+        root.children.clear();
+        root.values.clear();
+        filters.clear();
+    }
+
+    /**
+     * Returns true if every topic matched by the second filter is also matched by the first filter.
+     * Equal filters cover each other.
+     *
+     * @param filter A topic filter, like "house/#"
+     * @param other Another topic filter, like "house/+/temperature"
+     */
+    public static boolean covers(String filter, String other) {
+        String[] levels = filter.split("/", -1);
+        String[] otherLevels = other.split("/", -1);
+        if (otherLevels[0].startsWith("$") && isWildcard(levels[0])) {
+            return false;
+        }
+        for (int i = 0; i < levels.length; i++) {
+            if (MULTI_LEVEL_WILDCARD.equals(levels[i])) {
+                return true;
+            }
+            if (i == otherLevels.length) {
+                return false;
+            }
+            if (SINGLE_LEVEL_WILDCARD.equals(levels[i])) {
+                if (MULTI_LEVEL_WILDCARD.equals(otherLevels[i])) {
+                    return false;
+                }
+            } else if (!levels[i].equals(otherLevels[i])) {
+                return false;
+            }
+        }
+        return levels.length == otherLevels.length;
+    }
+
+    private static boolean isWildcard(String level) {
+        return SINGLE_LEVEL_WILDCARD.equals(level) || MULTI_LEVEL_WILDCARD.equals(level);
+    }
+}
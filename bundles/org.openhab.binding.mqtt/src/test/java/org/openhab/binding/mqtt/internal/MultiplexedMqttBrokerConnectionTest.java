@@ -0,0 +1,257 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Test cases for the {@link MultiplexedMqttBrokerConnection} class. The registrations of the dispatcher on the base
+ * connection are recorded instead of subscribing on a broker.
+ *
+ * @author agent - Initial contribution
+ */
+public class MultiplexedMqttBrokerConnectionTest {
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+
+    /** Registrations of the dispatcher on the base connection per filter */
+    private final Map<String, Integer> registrations = new HashMap<>();
+    /** Filters subscribed on the broker, in order */
+    private final List<String> subscribed = new ArrayList<>();
+    private long now = 1000;
+
+    private final MultiplexedMqttBrokerConnection subject = new MultiplexedMqttBrokerConnection("localhost", null,
+            false, "test", scheduler) {
+        @Override
+        CompletableFuture<Boolean> subscribeDispatcher(String topic) {
+            subscribed.add(topic);
+            registrations.merge(topic, 1, Integer::sum);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        CompletableFuture<Boolean> unsubscribeDispatcher(String topic) {
+            assertTrue("Dispatcher is not registered for " + topic, registrations.containsKey(topic));
+            registrations.computeIfPresent(topic, (filter, count) -> count > 1 ? count - 1 : null);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        long currentTimeMillis() {
+            return now;
+        }
+    };
+
+    private final MqttMessageSubscriber kitchen = mock(MqttMessageSubscriber.class);
+    private final MqttMessageSubscriber house = mock(MqttMessageSubscriber.class);
+
+    private Map<String, Integer> registrations(Object... filtersAndCounts) {
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < filtersAndCounts.length; i += 2) {
+            expected.put((String) filtersAndCounts[i], (Integer) filtersAndCounts[i + 1]);
+        }
+        return expected;
+    }
+
+    private Runnable gracePeriod(int count) {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(count)).schedule(captor.capture(),
+                eq((long) MultiplexedMqttBrokerConnection.RETAINED_MESSAGES_GRACE_PERIOD_MILLIS),
+                eq(TimeUnit.MILLISECONDS));
+        return captor.getValue();
+    }
+
+    @Test
+    public void sameFilterIsRegisteredOnce() {
+        MqttMessageSubscriber other = mock(MqttMessageSubscriber.class);
+        subject.subscribe("house/kitchen/temperature", kitchen);
+        subject.subscribe("house/kitchen/temperature", other);
+
+        // Subscribed twice for the retained messages, but registered once
+        assertThat(subscribed, is(Arrays.asList("house/kitchen/temperature", "house/kitchen/temperature")));
+        assertThat(registrations, is(registrations("house/kitchen/temperature", 1)));
+
+        subject.unsubscribe("house/kitchen/temperature", kitchen);
+        assertThat(registrations, is(registrations("house/kitchen/temperature", 1)));
+        subject.unsubscribe("house/kitchen/temperature", other);
+        assertThat(registrations, is(Collections.emptyMap()));
+    }
+
+    @Test
+    public void coveringFilterReplacesCoveredFilters() {
+        subject.subscribe("house/kitchen/temperature", kitchen);
+        subject.subscribe("house/#", house);
+        assertThat(registrations, is(registrations("house/#", 1)));
+
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        verify(kitchen).processMessage(eq("house/kitchen/temperature"), any());
+        verify(house).processMessage(eq("house/kitchen/temperature"), any());
+    }
+
+    @Test
+    public void removingCoveringFilterSubscribesCoveredFilters() {
+        subject.subscribe("house/kitchen/temperature", kitchen);
+        subject.subscribe("house/#", house);
+        subject.unsubscribe("house/#", house);
+
+        assertThat(registrations, is(registrations("house/kitchen/temperature", 1)));
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        verify(kitchen).processMessage(eq("house/kitchen/temperature"), any());
+        verifyZeroInteractions(house);
+    }
+
+    @Test
+    public void coveredFilterIsUnsubscribedAfterGracePeriod() {
+        subject.subscribe("house/#", house);
+        subject.subscribe("house/kitchen/temperature", kitchen);
+
+        // Subscribed for the retained messages until the grace period is over
+        assertThat(registrations, is(registrations("house/#", 1, "house/kitchen/temperature", 1)));
+        gracePeriod(1).run();
+        assertThat(registrations, is(registrations("house/#", 1)));
+
+        // Still dispatched through the covering filter
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        verify(kitchen).processMessage(eq("house/kitchen/temperature"), any());
+    }
+
+    @Test
+    public void overlappingGracePeriods() {
+        MqttMessageSubscriber other = mock(MqttMessageSubscriber.class);
+        subject.subscribe("house/#", house);
+        subject.subscribe("house/kitchen/temperature", kitchen);
+        subject.subscribe("house/kitchen/temperature", other);
+        assertThat(registrations, is(registrations("house/#", 1, "house/kitchen/temperature", 1)));
+
+        Runnable endGracePeriod = gracePeriod(2);
+        endGracePeriod.run();
+        assertThat(registrations, is(registrations("house/#", 1, "house/kitchen/temperature", 1)));
+        endGracePeriod.run();
+        assertThat(registrations, is(registrations("house/#", 1)));
+    }
+
+    @Test
+    public void messageOfSeveralBrokerFiltersIsDispatchedOnce() {
+        subject.subscribe("house/#", house);
+        subject.subscribe("house/kitchen/temperature", kitchen);
+
+        // The broker delivers the message for both subscriptions during the grace period
+        byte[] payload = new byte[] { 1 };
+        subject.dispatch("house/kitchen/temperature", payload);
+        subject.dispatch("house/kitchen/temperature", payload);
+        verify(kitchen, times(1)).processMessage(eq("house/kitchen/temperature"), any());
+        verify(house, times(1)).processMessage(eq("house/kitchen/temperature"), any());
+    }
+
+    @Test
+    public void unsubscribeAllForgetsSubscriptions() {
+        subject.subscribe("house/#", house);
+        subject.subscribe("house/kitchen/temperature", kitchen);
+        subject.unsubscribeAll();
+
+        // The grace period ending afterwards does not touch the base connection anymore
+        Map<String, Integer> before = new HashMap<>(registrations);
+        gracePeriod(1).run();
+        assertThat(registrations, is(before));
+
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        verifyZeroInteractions(house, kitchen);
+
+        // A new subscription starts from scratch
+        registrations.clear();
+        subject.subscribe("house/kitchen/temperature", kitchen);
+        assertThat(registrations, is(registrations("house/kitchen/temperature", 1)));
+    }
+
+    @Test
+    public void retainedMessageSentAgainIsDispatchedToTheNewSubscriberOnly() {
+        subject.subscribe("house/kitchen/temperature", kitchen);
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+
+        // The broker sends the retained message again for the new subscription
+        subject.subscribe("house/#", house);
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        verify(kitchen, times(1)).processMessage(eq("house/kitchen/temperature"), any());
+        verify(house, times(1)).processMessage(eq("house/kitchen/temperature"), any());
+
+        // New values are dispatched to all subscribers
+        subject.dispatch("house/kitchen/temperature", new byte[] { 2 });
+        verify(kitchen, times(2)).processMessage(eq("house/kitchen/temperature"), any());
+        verify(house, times(2)).processMessage(eq("house/kitchen/temperature"), any());
+    }
+
+    @Test
+    public void repeatedMessageIsDispatchedToAllSubscribersAfterTheGracePeriod() {
+        MqttMessageSubscriber other = mock(MqttMessageSubscriber.class);
+        subject.subscribe("house/kitchen/temperature", kitchen);
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        subject.subscribe("house/kitchen/temperature", other);
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        verify(kitchen, times(1)).processMessage(eq("house/kitchen/temperature"), any());
+        verify(other, times(1)).processMessage(eq("house/kitchen/temperature"), any());
+
+        // Both subscribers have the message already
+        now += MultiplexedMqttBrokerConnection.RETAINED_MESSAGES_GRACE_PERIOD_MILLIS;
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        verify(kitchen, times(1)).processMessage(eq("house/kitchen/temperature"), any());
+        verify(other, times(1)).processMessage(eq("house/kitchen/temperature"), any());
+
+        now += 1;
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        verify(kitchen, times(2)).processMessage(eq("house/kitchen/temperature"), any());
+        verify(other, times(2)).processMessage(eq("house/kitchen/temperature"), any());
+    }
+
+    @Test
+    public void repeatedMessageOfOtherTopicsIsDispatchedToAllSubscribers() {
+        subject.subscribe("house/#", house);
+        subject.dispatch("house/hall/temperature", new byte[] { 1 });
+        now += MultiplexedMqttBrokerConnection.RETAINED_MESSAGES_GRACE_PERIOD_MILLIS + 1;
+        subject.subscribe("house/kitchen/temperature", kitchen);
+
+        // Not matched by the new subscription, so not a retained message sent again
+        subject.dispatch("house/hall/temperature", new byte[] { 1 });
+        verify(house, times(2)).processMessage(eq("house/hall/temperature"), any());
+        verifyZeroInteractions(kitchen);
+    }
+
+    @Test
+    public void unsubscribedSubscriberGetsNoRetainedMessages() {
+        MqttMessageSubscriber other = mock(MqttMessageSubscriber.class);
+        subject.subscribe("house/#", house);
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        now += MultiplexedMqttBrokerConnection.RETAINED_MESSAGES_GRACE_PERIOD_MILLIS + 1;
+        subject.subscribe("house/kitchen/temperature", other);
+        subject.unsubscribe("house/kitchen/temperature", other);
+
+        subject.dispatch("house/kitchen/temperature", new byte[] { 1 });
+        verify(house, times(2)).processMessage(eq("house/kitchen/temperature"), any());
+        verifyZeroInteractions(other);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test cases for the {@link TopicTrie} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class TopicTrieTest {
+    private final TopicTrie<String> subject = new TopicTrie<>();
+
+    private List<String> match(String topic) {
+        List<String> result = new ArrayList<>();
+        subject.match(topic, result::add);
+        Collections.sort(result);
+        return result;
+    }
+
+    @Test
+    public void matchesWildcards() {
+        subject.add("house/kitchen/temperature", "exact");
+        subject.add("house/+/temperature", "single");
+        subject.add("house/#", "multi");
+        subject.add("#", "all");
+        subject.add("garden/+", "garden");
+
+        assertThat(match("house/kitchen/temperature"), is(Arrays.asList("all", "exact", "multi", "single")));
+        assertThat(match("house/bath/temperature"), is(Arrays.asList("all", "multi", "single")));
+        assertThat(match("house"), is(Arrays.asList("all", "multi")));
+        assertThat(match("garden/light"), is(Arrays.asList("all", "garden")));
+        assertThat(match("garden/light/state"), is(Arrays.asList("all")));
+        assertThat(match("$SYS/broker/uptime"), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void addAndRemove() {
+        assertTrue(subject.add("house/+/temperature", "a"));
+        assertFalse(subject.add("house/+/temperature", "b"));
+        assertFalse(subject.add("house/+/temperature", "b"));
+        assertThat(subject.getFilters().size(), is(1));
+
+        assertFalse(subject.remove("house/+/temperature", "a"));
+        assertFalse(subject.remove("house/+/temperature", "a"));
+        assertFalse(subject.remove("house/+", "b"));
+        assertThat(match("house/kitchen/temperature"), is(Arrays.asList("b")));
+
+        assertTrue(subject.remove("house/+/temperature", "b"));
+        assertTrue(subject.isEmpty());
+        assertThat(match("house/kitchen/temperature"), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void covers() {
+        assertTrue(TopicTrie.covers("house/kitchen", "house/kitchen"));
+        assertTrue(TopicTrie.covers("house/#", "house"));
+        assertTrue(TopicTrie.covers("house/#", "house/+/temperature"));
+        assertTrue(TopicTrie.covers("house/+/temperature", "house/kitchen/temperature"));
+        assertTrue(TopicTrie.covers("house/+/#", "house/kitchen/#"));
+        assertTrue(TopicTrie.covers("#", "house/#"));
+
+        assertFalse(TopicTrie.covers("house/kitchen/temperature", "house/+/temperature"));
+        assertFalse(TopicTrie.covers("house/+", "house/#"));
+        assertFalse(TopicTrie.covers("house/+", "house/kitchen/temperature"));
+        assertFalse(TopicTrie.covers("house/kitchen", "house"));
+        assertFalse(TopicTrie.covers("#", "$SYS/broker/uptime"));
+    }
+
+    /**
+     * Matching with 10k subscriptions, as for a broker with many things. Only the filters of the device in the topic
+     * match.
+     */
+    @Test
+    public void manySubscriptions() {
+        final int devices = 2500;
+        for (int i = 0; i < devices; i++) {
+            subject.add("home/device" + i + "/power", "power" + i);
+            subject.add("home/device" + i + "/energy", "energy" + i);
+            subject.add("home/device" + i + "/+", "any" + i);
+            subject.add("homie/device" + i + "/#", "homie" + i);
+        }
+        assertThat(subject.getFilters().size(), is(4 * devices));
+
+        assertThat(match("home/device0/power"), is(Arrays.asList("any0", "power0")));
+        assertThat(match("home/device1234/energy"), is(Arrays.asList("any1234", "energy1234")));
+        assertThat(match("home/device2499/voltage"), is(Arrays.asList("any2499")));
+        assertThat(match("homie/device42/node/property"), is(Arrays.asList("homie42")));
+        assertThat(match("home/device2500/power"), is(Collections.emptyList()));
+        assertThat(match("home/device12/power/set"), is(Collections.emptyList()));
+    }
+}
@@ -17,8 +17,8 @@ import java.io.StringReader;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,6 +45,9 @@ public class SonosXMLParser {
 
     static final Logger LOGGER = LoggerFactory.getLogger(SonosXMLParser.class);
 
+    private static final ThreadLocal<XMLReader> READERS = new ThreadLocal<>();
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
     private static final MessageFormat METADATA_FORMAT = new MessageFormat(
             "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
                     + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" "
@@ -80,6 +83,27 @@ public class SonosXMLParser {
         desc
     }
 
+    /**
+     * Parses the source with a reader of the current thread. Creating a reader is expensive, as the parser
+     * implementation is looked up each time, so every thread keeps one for reuse.
+     */
+    private static void parse(DefaultHandler handler, InputSource source) throws IOException, SAXException {
+        // Take the reader, so that a nested parse from within a handler gets a new one
+        XMLReader reader = READERS.get();
+        READERS.remove();
+        if (reader == null) {
+            reader = XMLReaderFactory.createXMLReader();
+        }
+        try {
+            reader.setContentHandler(handler);
+            reader.parse(source);
+        } finally {
+            // Do not keep the handler and its results
+            reader.setContentHandler(NO_HANDLER);
+            READERS.set(reader);
+        }
+    }
+
     /**
      * @param xml
      * @return a list of alarms from the given xml string.
@@ -89,9 +113,7 @@ public class SonosXMLParser {
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) {
         AlarmHandler handler = new AlarmHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             LOGGER.error("Could not parse Alarms from string '{}'", xml);
         } catch (SAXException s) {
@@ -109,9 +131,7 @@ public class SonosXMLParser {
     public static List<SonosEntry> getEntriesFromString(String xml) {
         EntryHandler handler = new EntryHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             LOGGER.error("Could not parse Entries from string '{}'", xml);
         } catch (SAXException s) {
@@ -130,11 +150,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static SonosResourceMetaData getResourceMetaData(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         ResourceMetaDataHandler handler = new ResourceMetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             LOGGER.error("Could not parse Resource MetaData from String '{}'", xml);
         } catch (SAXException s) {
@@ -153,9 +171,7 @@ public class SonosXMLParser {
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) {
         ZoneGroupHandler handler = new ZoneGroupHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse ZoneGroup from string '{}'", xml);
@@ -169,9 +185,7 @@ public class SonosXMLParser {
     public static List<String> getRadioTimeFromXML(String xml) {
         OpmlHandler handler = new OpmlHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse RadioTime from string '{}'", xml);
@@ -185,9 +199,7 @@ public class SonosXMLParser {
     public static Map<String, String> getRenderingControlFromXML(String xml) {
         RenderingControlEventHandler handler = new RenderingControlEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse Rendering Control from string '{}'", xml);
@@ -200,9 +212,7 @@ public class SonosXMLParser {
     public static Map<String, String> getAVTransportFromXML(String xml) {
         AVTransportEventHandler handler = new AVTransportEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse AV Transport from string '{}'", xml);
@@ -215,9 +225,7 @@ public class SonosXMLParser {
     public static SonosMetaData getMetaDataFromXML(String xml) {
         MetaDataHandler handler = new MetaDataHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
@@ -231,9 +239,7 @@ public class SonosXMLParser {
     public static List<SonosMusicService> getMusicServicesFromXML(String xml) {
         MusicServiceHandler handler = new MusicServiceHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(handler, new InputSource(new StringReader(xml)));
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse music services from string '{}'", xml);
@@ -678,7 +684,7 @@ public class SonosXMLParser {
          * </Event>
          */
 
-        private final Map<String, String> changes = new HashMap<String, String>();
+        private final Map<String, String> changes = new LinkedHashMap<String, String>();
 
         @Override
         public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
@@ -790,7 +796,7 @@ public class SonosXMLParser {
 
     private static class RenderingControlEventHandler extends DefaultHandler {
 
-        private final Map<String, String> changes = new HashMap<String, String>();
+        private final Map<String, String> changes = new LinkedHashMap<String, String>();
 
         private boolean getPresetName = false;
         private String presetName;
@@ -856,10 +862,8 @@ public class SonosXMLParser {
     public static String getRoomName(String descriptorXML) {
         RoomNameHandler roomNameHandler = new RoomNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(roomNameHandler);
             URL url = new URL(descriptorXML);
-            reader.parse(new InputSource(url.openStream()));
+            parse(roomNameHandler, new InputSource(url.openStream()));
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos room name from string '{}'", descriptorXML);
         }
@@ -894,10 +898,8 @@ public class SonosXMLParser {
     public static String parseModelDescription(URL descriptorURL) {
         ModelNameHandler modelNameHandler = new ModelNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(modelNameHandler);
             URL url = new URL(descriptorURL.toString());
-            reader.parse(new InputSource(url.openStream()));
+            parse(modelNameHandler, new InputSource(url.openStream()));
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos model name from string '{}'", descriptorURL.toString());
         }
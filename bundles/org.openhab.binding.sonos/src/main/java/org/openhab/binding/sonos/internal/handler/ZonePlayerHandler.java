@@ -23,13 +23,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -136,7 +137,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
      */
     private static final int DEFAULT_REFRESH_INTERVAL = 60;
 
-    private final Map<String, String> stateMap = Collections.synchronizedMap(new HashMap<String, String>());
+    private final Map<String, String> stateMap = new ConcurrentHashMap<>();
 
     private List<SonosMusicService> musicServices;
 
@@ -383,25 +384,38 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                 return;
             }
 
-            this.stateMap.put(variable, value);
+            if (value != null) {
+                this.stateMap.put(variable, value);
+            } else {
+                this.stateMap.remove(variable);
+            }
 
             // pre-process some variables, eg XML processing
             if (service.equals("AVTransport") && variable.equals("LastChange")) {
-                Map<String, String> parsedValues = SonosXMLParser.getAVTransportFromXML(value);
-                for (String parsedValue : parsedValues.keySet()) {
+                Map<String, String> allValues = SonosXMLParser.getAVTransportFromXML(value);
+                Map<String, String> parsedValues = getChangedValues(allValues);
+                boolean currentURIChanged = false;
+                for (String parsedValue : allValues.keySet()) {
                     // Update the transport state after the update of the media information
                     // to not break the notification mechanism
-                    if (!parsedValue.equals("TransportState")) {
+                    if (parsedValues.containsKey(parsedValue) && !parsedValue.equals("TransportState")) {
                         onValueReceived(parsedValue, parsedValues.get(parsedValue), "AVTransport");
                     }
                     // Translate AVTransportURI/AVTransportURIMetaData to CurrentURI/CurrentURIMetaData
-                    // for a compatibility with the result of the action GetMediaInfo
+                    // for a compatibility with the result of the action GetMediaInfo. The action can change
+                    // CurrentURI as well, so the translation is done even if AVTransportURI has not changed.
                     if (parsedValue.equals("AVTransportURI")) {
-                        onValueReceived("CurrentURI", parsedValues.get(parsedValue), service);
+                        currentURIChanged |= hasValueChanged(allValues.get(parsedValue), stateMap.get("CurrentURI"));
+                        onValueReceived("CurrentURI", allValues.get(parsedValue), service);
                     } else if (parsedValue.equals("AVTransportURIMetaData")) {
-                        onValueReceived("CurrentURIMetaData", parsedValues.get(parsedValue), service);
+                        currentURIChanged |= hasValueChanged(allValues.get(parsedValue),
+                                stateMap.get("CurrentURIMetaData"));
+                        onValueReceived("CurrentURIMetaData", allValues.get(parsedValue), service);
                     }
                 }
+                if (parsedValues.isEmpty() && !currentURIChanged) {
+                    return;
+                }
                 updateMediaInformation();
                 if (parsedValues.get("TransportState") != null) {
                     onValueReceived("TransportState", parsedValues.get("TransportState"), "AVTransport");
@@ -409,7 +423,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             }
 
             if (service.equals("RenderingControl") && variable.equals("LastChange")) {
-                Map<String, String> parsedValues = SonosXMLParser.getRenderingControlFromXML(value);
+                Map<String, String> parsedValues = getChangedValues(SonosXMLParser.getRenderingControlFromXML(value));
                 for (String parsedValue : parsedValues.keySet()) {
                     onValueReceived(parsedValue, parsedValues.get(parsedValue), "RenderingControl");
                 }
@@ -783,6 +797,21 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
         }
     }
 
+    /**
+     * A LastChange event contains all variables of the service, but mostly only a few of them have changed.
+     *
+     * @return the variables whose value differs from the known value, in the order of the event
+     */
+    private Map<String, String> getChangedValues(Map<String, String> values) {
+        Map<String, String> changedValues = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (hasValueChanged(entry.getValue(), stateMap.get(entry.getKey()))) {
+                changedValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changedValues;
+    }
+
     /**
      * CurrentURI will not change, but will trigger change of CurrentURIFormated
      * CurrentTrackMetaData will not change, but will trigger change of Title, Artist, Album
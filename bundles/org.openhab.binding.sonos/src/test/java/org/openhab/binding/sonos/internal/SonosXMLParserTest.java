@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class SonosXMLParserTest {
+
+    private static final String AV_TRANSPORT = "<Event xmlns=\"urn:schemas-upnp-org:metadata-1-0/AVT/\" "
+            + "xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\"><InstanceID val=\"0\">"
+            + "<TransportState val=\"PLAYING\"/><AVTransportURI val=\"x-rincon-queue:RINCON_1#0\"/>"
+            + "<r:SleepTimerGeneration val=\"0\"/></InstanceID></Event>";
+
+    private static final String RENDERING_CONTROL = "<Event xmlns=\"urn:schemas-upnp-org:metadata-1-0/RCS/\">"
+            + "<InstanceID val=\"0\"><Volume channel=\"Master\" val=\"25\"/><Mute channel=\"Master\" val=\"0\"/>"
+            + "<Bass val=\"2\"/></InstanceID></Event>";
+
+    private static final String DIDL_START = "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+            + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" "
+            + "xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\" "
+            + "xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\">";
+
+    private static String item(String id, String title, String resourceMetaData) {
+        return "<item id=\"" + id + "\" parentID=\"FV:2\"><dc:title>" + title + "</dc:title>"
+                + "<upnp:class>object.itemobject.item.sonos-favorite</upnp:class>" + "<r:resMD>" + resourceMetaData
+                + "</r:resMD></item>";
+    }
+
+    private static String escapedResourceMetaData(String id, String title, String desc) {
+        return "&lt;DIDL-Lite xmlns:dc=&quot;http://purl.org/dc/elements/1.1/&quot; "
+                + "xmlns:upnp=&quot;urn:schemas-upnp-org:metadata-1-0/upnp/&quot; "
+                + "xmlns:r=&quot;urn:schemas-rinconnetworks-com:metadata-1-0/&quot; "
+                + "xmlns=&quot;urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/&quot;&gt;" + "&lt;item id=&quot;" + id
+                + "&quot; parentID=&quot;-1&quot; restricted=&quot;true&quot;&gt;&lt;dc:title&gt;" + title
+                + "&lt;/dc:title&gt;&lt;upnp:class&gt;object.item.audioItem.audioBroadcast&lt;/upnp:class&gt;"
+                + "&lt;desc id=&quot;cdudn&quot; nameSpace=&quot;urn:schemas-rinconnetworks-com:metadata-1-0/&quot;&gt;"
+                + desc + "&lt;/desc&gt;&lt;/item&gt;&lt;/DIDL-Lite&gt;";
+    }
+
+    @Test
+    public void testRepeatedParsesAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            Map<String, String> avTransport = SonosXMLParser.getAVTransportFromXML(AV_TRANSPORT);
+            assertEquals("PLAYING", avTransport.get("TransportState"));
+            assertEquals("x-rincon-queue:RINCON_1#0", avTransport.get("AVTransportURI"));
+            assertEquals("0", avTransport.get("SleepTimerGeneration"));
+            assertEquals(4, avTransport.size());
+
+            Map<String, String> renderingControl = SonosXMLParser.getRenderingControlFromXML(RENDERING_CONTROL);
+            assertEquals("25", renderingControl.get("VolumeMaster"));
+            assertEquals("0", renderingControl.get("MuteMaster"));
+            assertEquals("2", renderingControl.get("Bass"));
+            assertEquals(3, renderingControl.size());
+        }
+    }
+
+    @Test
+    public void testNestedParseFromHandler() {
+        // the resource meta data of every item is parsed while the entries are still being parsed
+        String xml = DIDL_START + item("FV:2/1", "Radio One", escapedResourceMetaData("R:1", "One", "SA_RINCON1"))
+                + item("FV:2/2", "Radio Two", escapedResourceMetaData("R:2", "Two", "SA_RINCON2")) + "</DIDL-Lite>";
+
+        List<SonosEntry> entries = SonosXMLParser.getEntriesFromString(xml);
+
+        assertEquals(2, entries.size());
+        assertEquals("FV:2/1", entries.get(0).getId());
+        assertEquals("Radio One", entries.get(0).getTitle());
+        assertEquals("R:1", entries.get(0).getResourceMetaData().getId());
+        assertEquals("One", entries.get(0).getResourceMetaData().getTitle());
+        assertEquals("SA_RINCON1", entries.get(0).getResourceMetaData().getDesc());
+        assertEquals("FV:2/2", entries.get(1).getId());
+        assertEquals("Radio Two", entries.get(1).getTitle());
+        assertEquals("R:2", entries.get(1).getResourceMetaData().getId());
+        assertEquals("SA_RINCON2", entries.get(1).getResourceMetaData().getDesc());
+
+        // the readers are still usable afterwards
+        assertEquals(2, SonosXMLParser.getEntriesFromString(xml).size());
+        assertEquals("PLAYING", SonosXMLParser.getAVTransportFromXML(AV_TRANSPORT).get("TransportState"));
+    }
+
+    @Test
+    public void testParseAfterFailedParse() {
+        Map<String, String> broken = SonosXMLParser.getAVTransportFromXML(
+                "<Event xmlns=\"urn:schemas-upnp-org:metadata-1-0/AVT/\"><InstanceID val=\"0\"><TransportState");
+        assertFalse(broken.containsKey("TransportState"));
+
+        Map<String, String> avTransport = SonosXMLParser.getAVTransportFromXML(AV_TRANSPORT);
+        assertEquals("PLAYING", avTransport.get("TransportState"));
+        assertEquals(4, avTransport.size());
+    }
+}
@@ -184,9 +184,14 @@ public class EmbeddedBrokerService
                 Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
                 Files.createDirectories(path);
                 this.persistenceFilename = path.resolve(persistenceFilename).toString();
+            } else {
+                this.persistenceFilename = persistenceFilename;
             }
 
-            logger.info("Broker persistence file: {}", persistenceFilename);
+            logger.info("Broker persistence file: {}", this.persistenceFilename);
+
+            // The broker never compacts the file itself, do it before the broker opens it
+            new PersistenceFileCompaction(this.persistenceFilename).compact(config.persistenceCompactTime);
         } else {
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
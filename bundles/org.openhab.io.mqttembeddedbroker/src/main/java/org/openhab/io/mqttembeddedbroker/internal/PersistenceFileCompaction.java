@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The broker stores retained messages, subscriptions and queued QoS 1/2 messages in an append-only H2 MVStore file.
+ * While the broker is running, the store is only committed periodically and never compacted, so the file grows with
+ * every changed retained message and the broker has to read more and more chunks on start.
+ * <p>
+ * This class compacts the file before the broker opens it. The live data of the least filled chunks is rewritten
+ * step by step until either the target fill rate or the time budget is reached, so large files are compacted over
+ * several restarts instead of blocking a single start. The memory used is bounded by the cache size.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PersistenceFileCompaction {
+    /** Compact if less than this percentage of the file contains live data */
+    static final int TARGET_FILL_RATE = 80;
+    /** Bytes rewritten per compaction step */
+    static final int BYTES_PER_STEP = 1024 * 1024;
+    /** Page cache of the store while compacting, in MB */
+    static final int CACHE_SIZE_MB = 4;
+
+    private final Logger logger = LoggerFactory.getLogger(PersistenceFileCompaction.class);
+    private final String filename;
+
+    /**
+     * Creates a compaction for the given persistence file.
+     *
+     * @param filename The absolute path of the persistence file
+     */
+    public PersistenceFileCompaction(String filename) {
+        this.filename = filename;
+    }
+
+    /**
+     * Compacts the persistence file. Does nothing if the file does not exist or is filled well enough.
+     * Must not be called while the broker is running.
+     *
+     * @param maxCompactTime Maximum time in milliseconds to spend on compacting
+     * @return Returns true if the file has been compacted.
+     */
+    public boolean compact(int maxCompactTime) {
+        final File file = new File(filename);
+        if (maxCompactTime <= 0 || !file.isFile()) {
+            return false;
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxCompactTime);
+        final long sizeBefore = file.length();
+        final MVStore store;
+        try {
+            store = new MVStore.Builder().fileName(filename).cacheSize(CACHE_SIZE_MB).autoCommitDisabled().open();
+        } catch (IllegalStateException e) {
+            logger.warn("Failed to open broker persistence file {} for compaction: {}", filename, e.getMessage());
+            return false;
+        }
+        boolean compacted = false;
+        try {
+            final int fillRate = store.getFileStore().getFillRate();
+            if (fillRate >= TARGET_FILL_RATE) {
+                logger.debug("Broker persistence file {} is {}% filled, not compacting", filename, fillRate);
+                return false;
+            }
+            while (System.nanoTime() - deadline < 0 && store.compact(TARGET_FILL_RATE, BYTES_PER_STEP)) {
+                store.commit();
+                compacted = true;
+            }
+            if (compacted) {
+                // Move the chunks to the start of the file, to give the freed space back
+                store.compactMoveChunks();
+            }
+        } catch (IllegalStateException e) {
+            logger.warn("Failed to compact broker persistence file {}: {}", filename, e.getMessage());
+        } finally {
+            store.close();
+        }
+        if (compacted) {
+            logger.info("Compacted broker persistence file {} from {} to {} bytes", filename, sizeBefore,
+                    file.length());
+        }
+        return compacted;
+    }
+}
@@ -25,6 +25,8 @@ public class ServiceConfiguration {
     public @Nullable Integer port;
     public Boolean secure = false;
     public String persistenceFile = "mqttembedded.bin";
+    /** Maximum time in milliseconds to compact the persistence file on start. 0 disables compaction */
+    public int persistenceCompactTime = 2000;
 
     public @Nullable String username;
     public @Nullable String password;
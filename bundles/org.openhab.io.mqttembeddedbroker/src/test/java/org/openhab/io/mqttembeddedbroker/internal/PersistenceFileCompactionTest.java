@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link PersistenceFileCompaction}.
+ *
+ * @author agent - Initial contribution
+ */
+public class PersistenceFileCompactionTest {
+    private static final int TOPICS = 1000;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("persistence", ".mqtt");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void missingFile() {
+        assertFalse(new PersistenceFileCompaction(file.getAbsolutePath()).compact(1000));
+    }
+
+    /**
+     * Simulates retained messages that are updated often. Each commit appends a chunk to the file.
+     */
+    private void writeRetainedMessages() {
+        MVStore store = new MVStore.Builder().fileName(file.getAbsolutePath()).autoCommitDisabled().open();
+        MVMap<String, String> retained = store.openMap("retained_store");
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < TOPICS; i++) {
+                retained.put("homie/device" + i + "/power", "value " + round);
+            }
+            store.commit();
+        }
+        store.close();
+    }
+
+    @Test
+    public void compactKeepsData() {
+        writeRetainedMessages();
+        final long sizeBefore = file.length();
+
+        assertTrue(new PersistenceFileCompaction(file.getAbsolutePath()).compact(10000));
+
+        assertTrue("Expected less than " + sizeBefore + " bytes, but got " + file.length(),
+                file.length() < sizeBefore);
+        MVStore store = new MVStore.Builder().fileName(file.getAbsolutePath()).autoCommitDisabled().open();
+        try {
+            MVMap<String, String> retained = store.openMap("retained_store");
+            assertThat(retained.size(), is(TOPICS));
+            assertThat(retained.get("homie/device0/power"), is("value 49"));
+            assertThat(retained.get("homie/device999/power"), is("value 49"));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void noCompactTimeLeavesFileUntouched() throws IOException {
+        writeRetainedMessages();
+        final byte[] contentBefore = Files.readAllBytes(file.toPath());
+        final long lastModifiedBefore = file.lastModified();
+
+        assertFalse(new PersistenceFileCompaction(file.getAbsolutePath()).compact(0));
+
+        assertArrayEquals(contentBefore, Files.readAllBytes(file.toPath()));
+        assertThat(file.lastModified(), is(lastModifiedBefore));
+    }
+}
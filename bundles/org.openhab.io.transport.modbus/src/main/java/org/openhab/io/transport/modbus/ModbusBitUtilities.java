@@ -14,13 +14,12 @@ package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
 import org.apache.commons.lang.NotImplementedException;
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
@@ -35,6 +34,8 @@ import org.eclipse.smarthome.core.types.Command;
 @NonNullByDefault
 public class ModbusBitUtilities {
 
+    private static final BigDecimal TWO_POW_63 = new BigDecimal(BigInteger.ONE.shiftLeft(63));
+
     /**
      * Read data from registers and convert the result to DecimalType
      * Interpretation of <tt>index</tt> goes as follows depending on type
@@ -101,6 +102,41 @@ public class ModbusBitUtilities {
      */
     public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
+        checkIndex(registers, index, type);
+        return Optional.ofNullable(decode(registers, index, type));
+    }
+
+    /**
+     * Read several values from registers and convert the results to DecimalType
+     *
+     * This is equivalent to calling {@link #extractStateFromRegisters} for each index and type, but all values are
+     * decoded in one go, without intermediate objects.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param indices zero based item indices, see {@link #extractStateFromRegisters}
+     * @param types item types, one for each index
+     * @return values in the order of the indices. Value is null with NaN and infinity floating point values
+     * @throws IllegalArgumentException when any index is out of bounds of registers, or when the number of indices
+     *             and types differ
+     */
+    public static @Nullable DecimalType[] extractStatesFromRegisters(ModbusRegisterArray registers, int[] indices,
+            ModbusConstants.ValueType[] types) {
+        if (indices.length != types.length) {
+            throw new IllegalArgumentException(
+                    String.format("Got %d indices but %d types", indices.length, types.length));
+        }
+        for (int i = 0; i < indices.length; i++) {
+            checkIndex(registers, indices[i], types[i]);
+        }
+        @Nullable
+        DecimalType[] states = new DecimalType[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            states[i] = decode(registers, indices[i], types[i]);
+        }
+        return states;
+    }
+
+    private static void checkIndex(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
         int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
         // each register has 16 bits
         int lastValidIndex = registers.size() * 16 - 1;
@@ -109,109 +145,82 @@ public class ModbusBitUtilities {
                     String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
                             registers.size()));
         }
+    }
+
+    /**
+     * Decode value from the registers. The registers are read as primitives, and only the result is boxed.
+     *
+     * @return decoded value, or null with NaN and infinity floating point values
+     */
+    private static @Nullable DecimalType decode(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
         switch (type) {
             case BIT:
-                return Optional
-                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
+                return new DecimalType((registers.toUnsignedShort(index / 16) >> (index % 16)) & 1);
             case INT8:
-                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
+                return new DecimalType((byte) (registers.toUnsignedShort(index / 2) >> (8 * (index % 2))));
             case UINT8:
-                return Optional.of(new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
-            }
+                return new DecimalType((registers.toUnsignedShort(index / 2) >> (8 * (index % 2))) & 0xff);
+            case INT16:
+                return new DecimalType((short) registers.toUnsignedShort(index));
             case UINT16:
-                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
+                return new DecimalType(registers.toUnsignedShort(index));
+            case INT32:
+                return new DecimalType(int32(registers, index, index + 1));
+            case UINT32:
+                return new DecimalType(int32(registers, index, index + 1) & 0xffffffffL);
+            case FLOAT32:
+                return float32(int32(registers, index, index + 1));
+            case INT64:
+                return new DecimalType(int64(registers, index, index + 1, index + 2, index + 3));
+            case UINT64:
+                return unsignedInt64(int64(registers, index, index + 1, index + 2, index + 3));
+            case INT32_SWAP:
+                return new DecimalType(int32(registers, index + 1, index));
+            case UINT32_SWAP:
+                return new DecimalType(int32(registers, index + 1, index) & 0xffffffffL);
+            case FLOAT32_SWAP:
+                return float32(int32(registers, index + 1, index));
+            case INT64_SWAP:
+                return new DecimalType(int64(registers, index + 3, index + 2, index + 1, index));
+            case UINT64_SWAP:
+                return unsignedInt64(int64(registers, index + 3, index + 2, index + 1, index));
             default:
                 throw new IllegalArgumentException(type.getConfigValue());
         }
     }
 
+    /**
+     * @return 32 bit integer with the most significant 16 bits from register <code>high</code>
+     */
+    private static int int32(ModbusRegisterArray registers, int high, int low) {
+        return (registers.toUnsignedShort(high) << 16) | registers.toUnsignedShort(low);
+    }
+
+    /**
+     * @return 64 bit integer with the most significant 16 bits from register <code>r1</code>
+     */
+    private static long int64(ModbusRegisterArray registers, int r1, int r2, int r3, int r4) {
+        return ((long) registers.toUnsignedShort(r1) << 48) | ((long) registers.toUnsignedShort(r2) << 32)
+                | ((long) registers.toUnsignedShort(r3) << 16) | registers.toUnsignedShort(r4);
+    }
+
+    private static @Nullable DecimalType float32(int bits) {
+        float value = Float.intBitsToFloat(bits);
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            return null;
+        }
+        return new DecimalType(value);
+    }
+
+    private static DecimalType unsignedInt64(long value) {
+        if (value >= 0) {
+            return new DecimalType(value);
+        }
+        // value exceeds the range of long, add the sign bit back
+        return new DecimalType(BigDecimal.valueOf(value & Long.MAX_VALUE).add(TWO_POW_63));
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Statistics of the queue of operations waiting for an endpoint
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusDispatchStatistics {
+
+    /**
+     * @return number of operations currently waiting
+     */
+    public int getQueueDepth();
+
+    /**
+     * @return maximum number of operations that have been waiting at the same time
+     */
+    public int getMaxQueueDepth();
+
+    /**
+     * @return number of operations taken from the queue for execution
+     */
+    public long getDispatched();
+
+    /**
+     * @return average time operations waited in the queue, in milliseconds
+     */
+    public double getAverageWaitMillis();
+
+    /**
+     * @return longest time an operation waited in the queue, in milliseconds
+     */
+    public long getMaxWaitMillis();
+
+    /**
+     * @return number of polls not queued since the same poll was waiting already
+     */
+    public long getMergedPolls();
+
+    /**
+     * @return number of polls dropped since too many polls were waiting
+     */
+    public long getDroppedPolls();
+}
@@ -33,7 +33,9 @@ public interface ModbusManager {
      * background.
      *
      * @param task
-     * @return future representing the polled task
+     * @return future representing the polled task. The future is done once the poll has been executed and the callback
+     *         has been called. Cancelling the future prevents the execution if the poll is still waiting, polls being
+     *         executed are not interrupted.
      */
     public ScheduledFuture<?> submitOneTimePoll(PollTask task);
 
@@ -41,6 +43,10 @@ public interface ModbusManager {
      * Register regularly polled task. The method returns immediately, and the execution of the poll task will happen in
      * the background.
      *
+     * Poll tasks with the same endpoint, slave id, function code and poll period are executed together, and their reads
+     * are combined to single requests where the data overlaps or is adjacent. Callbacks still receive the data of their
+     * own request only. The initial delay of a poll task joining already registered poll tasks is ignored.
+     *
      * @param task
      * @return
      */
@@ -60,7 +66,9 @@ public interface ModbusManager {
      * background.
      *
      * @param task
-     * @return future representing the task
+     * @return future representing the task. The future is done once the write has been executed and the callback has
+     *         been called. Cancelling the future prevents the execution if the write is still waiting, writes being
+     *         executed are not interrupted.
      */
     public ScheduledFuture<?> submitOneTimeWrite(WriteTask task);
 
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Statistics of Modbus operations executed with an endpoint, or on behalf of a poll task
+ *
+ * Durations are recorded for each completed operation, including all retries.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusOperationStatistics {
+
+    /**
+     * @return number of completed operations, successful or not
+     */
+    public long getOperations();
+
+    /**
+     * @return number of operations that failed after all retries
+     */
+    public long getErrors();
+
+    /**
+     * @return number of tries that failed due to timeout
+     */
+    public long getTimeouts();
+
+    /**
+     * @return number of responses whose transaction ID did not match the request
+     */
+    public long getTransactionIdMismatches();
+
+    /**
+     * @return number of requests sent in pipelined transactions, together with other requests in flight
+     */
+    public long getPipelinedRequests();
+
+    /**
+     * @return total durations of the operations
+     */
+    public ModbusTimingStatistics getTotalTime();
+
+    /**
+     * @return time spent acquiring, resetting and returning connections
+     */
+    public ModbusTimingStatistics getConnectionTime();
+
+    /**
+     * @return time spent in transactions with the slave
+     */
+    public ModbusTimingStatistics getTransactionTime();
+
+    /**
+     * @return time spent calling the callbacks
+     */
+    public ModbusTimingStatistics getCallbackTime();
+}
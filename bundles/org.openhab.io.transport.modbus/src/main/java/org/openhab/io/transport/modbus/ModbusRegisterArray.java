@@ -35,6 +35,20 @@ public interface ModbusRegisterArray extends Iterable<ModbusRegister> {
      */
     ModbusRegister getRegister(int index);
 
+    /**
+     * Return value of the register at the given index, interpreted as unsigned 16 bit integer
+     *
+     * Equal to <code>getRegister(index).toUnsignedShort()</code>, but implementations can avoid creating register
+     * objects.
+     *
+     * @param index the index of the register
+     * @return register value between 0 and 65535 (inclusive)
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    default int toUnsignedShort(int index) {
+        return getRegister(index).toUnsignedShort();
+    }
+
     /**
      * Get number of registers stored in this instance
      *
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Service providing statistics of the Modbus operations, e.g. for finding out which slaves saturate the bus
+ *
+ * The statistics are also available with the <code>modbus</code> console command.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusStatistics {
+
+    /**
+     * @return statistics of the operations, per endpoint
+     */
+    public Map<ModbusSlaveEndpoint, ModbusOperationStatistics> getEndpointStatistics();
+
+    /**
+     * Get statistics of the regular polls. Statistics are removed when the poll task is unregistered.
+     *
+     * @return statistics of the operations, per registered poll task
+     */
+    public Map<PollTask, ModbusOperationStatistics> getPollTaskStatistics();
+
+    /**
+     * @return statistics of the queue of operations waiting for execution, per endpoint
+     */
+    public Map<ModbusSlaveEndpoint, ModbusDispatchStatistics> getDispatchStatistics();
+
+    /**
+     * @return number of combined reads executed in place of several regular polls
+     */
+    public long getCoalescedReads();
+
+    /**
+     * @return number of transactions avoided by combining regular polls
+     */
+    public long getTransactionsSavedByCoalescing();
+
+    /**
+     * Reset all statistics
+     */
+    public void resetStatistics();
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Distribution of durations of Modbus operations
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ModbusTimingStatistics {
+
+    /**
+     * @return number of recorded durations
+     */
+    public long getCount();
+
+    /**
+     * @return average of recorded durations, in milliseconds
+     */
+    public double getAverageMillis();
+
+    /**
+     * @return longest recorded duration, in milliseconds
+     */
+    public long getMaxMillis();
+
+    /**
+     * Get percentile of the recorded durations. The value is an upper bound of the percentile, with resolution
+     * decreasing with increasing durations.
+     *
+     * @param percentile percentile to get, between 0 and 100, e.g. 95 for 95th percentile
+     * @return percentile in milliseconds, or 0 if nothing has been recorded
+     */
+    public long getPercentileMillis(double percentile);
+}
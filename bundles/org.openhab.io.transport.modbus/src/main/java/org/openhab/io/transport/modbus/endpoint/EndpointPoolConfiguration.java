@@ -61,6 +61,14 @@ public class EndpointPoolConfiguration {
      */
     private int connectTimeoutMillis;
 
+    /**
+     * How many transactions can be outstanding on a single connection at the same time. Values above one enable
+     * pipelining: several requests are sent before the responses are read, and the responses are matched to the
+     * requests using the transaction ID. Only applies to TCP endpoints. Default of 1 means that the next request is
+     * sent only after the response to the previous one has been received.
+     */
+    private int maxInFlightTransactions = 1;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -107,10 +115,19 @@ public class EndpointPoolConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getMaxInFlightTransactions() {
+        return maxInFlightTransactions;
+    }
+
+    public void setMaxInFlightTransactions(int maxInFlightTransactions) {
+        this.maxInFlightTransactions = maxInFlightTransactions;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(2149, 3117).append(interTransactionDelayMillis).append(interConnectDelayMillis)
-                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).toHashCode();
+                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis)
+                .append(maxInFlightTransactions).toHashCode();
     }
 
     @Override
@@ -119,7 +136,8 @@ public class EndpointPoolConfiguration {
                 .append("interTransactionDelayMillis", interTransactionDelayMillis)
                 .append("interConnectDelayMillis", interConnectDelayMillis).append("connectMaxTries", connectMaxTries)
                 .append("reconnectAfterMillis", reconnectAfterMillis)
-                .append("connectTimeoutMillis", connectTimeoutMillis).toString();
+                .append("connectTimeoutMillis", connectTimeoutMillis)
+                .append("maxInFlightTransactions", maxInFlightTransactions).toString();
     }
 
     @Override
@@ -137,7 +155,8 @@ public class EndpointPoolConfiguration {
         return new EqualsBuilder().append(interTransactionDelayMillis, rhs.interTransactionDelayMillis)
                 .append(interConnectDelayMillis, rhs.interConnectDelayMillis)
                 .append(connectMaxTries, rhs.connectMaxTries).append(reconnectAfterMillis, rhs.reconnectAfterMillis)
-                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).isEquals();
+                .append(connectTimeoutMillis, rhs.connectTimeoutMillis)
+                .append(maxInFlightTransactions, rhs.maxInFlightTransactions).isEquals();
     }
 
 }
@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusSlaveErrorResponseException;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Poll task reading the combined data of several poll tasks with one request.
+ *
+ * The poll tasks must have the same endpoint, slave id and function code, and their data must overlap or be adjacent.
+ * The response is handed to the callback of each original poll task as a slice matching the original request.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask, ModbusReadCallback {
+
+    /**
+     * Maximum number of registers in single read request, as defined by the Modbus specification
+     */
+    public static final int MAX_REGISTERS_PER_READ = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in single read request, as defined by the Modbus specification
+     */
+    public static final int MAX_BITS_PER_READ = 2000;
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final BasicModbusReadRequestBlueprint request;
+    private final List<PollTask> tasks;
+    private volatile boolean slaveErrorResponse;
+
+    private CoalescedPollTask(List<PollTask> tasks, int start, int length) {
+        PollTask first = tasks.get(0);
+        ModbusReadRequestBlueprint firstRequest = first.getRequest();
+        this.endpoint = first.getEndpoint();
+        this.request = new BasicModbusReadRequestBlueprint(firstRequest.getUnitID(), firstRequest.getFunctionCode(),
+                start, length, tasks.stream().mapToInt(PollTask::getMaxTries).max().orElse(1));
+        this.tasks = Collections.unmodifiableList(tasks);
+    }
+
+    /**
+     * Combine poll tasks into as few poll tasks as possible.
+     *
+     * Poll tasks are combined if their data overlaps or is adjacent, and the combined request does not exceed the
+     * protocol limits. Caller must ensure that the poll tasks share the endpoint, slave id and function code.
+     *
+     * @param tasks poll tasks to combine
+     * @return poll tasks to execute. Poll tasks that could not be combined with others are returned as is, others are
+     *         replaced by {@link CoalescedPollTask}s
+     */
+    public static List<PollTask> coalesce(Collection<PollTask> tasks) {
+        List<PollTask> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparingInt((PollTask task) -> task.getRequest().getReference())
+                .thenComparingInt(task -> task.getRequest().getDataLength()));
+        List<PollTask> result = new ArrayList<>();
+        List<PollTask> current = new ArrayList<>();
+        int start = 0;
+        int end = 0;
+        for (PollTask task : sorted) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            int taskStart = request.getReference();
+            int taskEnd = taskStart + request.getDataLength();
+            if (!current.isEmpty() && taskStart <= end
+                    && Math.max(end, taskEnd) - start <= maxLength(request.getFunctionCode())) {
+                current.add(task);
+                end = Math.max(end, taskEnd);
+                continue;
+            }
+            flush(current, start, end, result);
+            current = new ArrayList<>();
+            current.add(task);
+            start = taskStart;
+            end = taskEnd;
+        }
+        flush(current, start, end, result);
+        return result;
+    }
+
+    private static void flush(List<PollTask> current, int start, int end, List<PollTask> result) {
+        if (current.size() == 1) {
+            result.add(current.get(0));
+        } else if (current.size() > 1) {
+            result.add(new CoalescedPollTask(current, start, end - start));
+        }
+    }
+
+    private static int maxLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_READ;
+            default:
+                return MAX_REGISTERS_PER_READ;
+        }
+    }
+
+    /**
+     * @return the original poll tasks combined in this task
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * @return whether the slave responded with an exception response to the combined request. This might mean that
+     *         the slave does not support reading the combined range
+     */
+    public boolean hadSlaveErrorResponse() {
+        return slaveErrorResponse;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadCallback getCallback() {
+        return this;
+    }
+
+    @Override
+    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback != null) {
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                callback.onRegisters(taskRequest, new RegisterArraySlice(registers,
+                        taskRequest.getReference() - this.request.getReference(), taskRequest.getDataLength()));
+            }
+        }
+    }
+
+    @Override
+    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback != null) {
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                callback.onBits(taskRequest, new BitArraySlice(bits,
+                        taskRequest.getReference() - this.request.getReference(), taskRequest.getDataLength()));
+            }
+        }
+    }
+
+    @Override
+    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+        if (error instanceof ModbusSlaveErrorResponseException) {
+            slaveErrorResponse = true;
+        }
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback != null) {
+                callback.onError(task.getRequest(), error);
+            }
+        }
+    }
+
+    /**
+     * Combined poll tasks are equal when they combine the same poll tasks. This allows merging a combined poll with the
+     * same combined poll of the previous poll round, e.g. when the endpoint is slow to respond.
+     */
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof CoalescedPollTask)) {
+            return false;
+        }
+        CoalescedPollTask other = (CoalescedPollTask) obj;
+        return request.equals(other.request) && endpoint.equals(other.endpoint) && tasks.equals(other.tasks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(request, endpoint, tasks);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CoalescedPollTask(request=%s, endpoint=%s, tasks=%d)", request, endpoint, tasks.size());
+    }
+
+    /**
+     * View of a part of {@link ModbusRegisterArray}
+     */
+    private static class RegisterArraySlice implements ModbusRegisterArray {
+        private final ModbusRegisterArray wrapped;
+        private final int offset;
+        private final int size;
+
+        RegisterArraySlice(ModbusRegisterArray wrapped, int offset, int length) {
+            this.wrapped = wrapped;
+            this.offset = offset;
+            this.size = Math.max(0, Math.min(length, wrapped.size() - offset));
+        }
+
+        @Override
+        public ModbusRegister getRegister(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException();
+            }
+            return wrapped.getRegister(offset + index);
+        }
+
+        @Override
+        public int toUnsignedShort(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException();
+            }
+            return wrapped.toUnsignedShort(offset + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            if (size == 0) {
+                return "RegisterArraySlice(<empty>)";
+            }
+            StringBuffer buffer = new StringBuffer(size * 2).append("RegisterArraySlice(");
+            return appendHexString(buffer).append(')').toString();
+        }
+    }
+
+    /**
+     * View of a part of {@link BitArray}
+     */
+    private static class BitArraySlice implements BitArray {
+        private final BitArray wrapped;
+        private final int offset;
+        private final int size;
+
+        BitArraySlice(BitArray wrapped, int offset, int length) {
+            this.wrapped = wrapped;
+            this.offset = offset;
+            this.size = Math.max(0, Math.min(length, wrapped.size() - offset));
+        }
+
+        @Override
+        public boolean getBit(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException();
+            }
+            return wrapped.getBit(offset + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return sizeAndValuesEquals(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = size;
+            for (int i = 0; i < size; i++) {
+                hash = 31 * hash + (getBit(i) ? 1 : 0);
+            }
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "BitArraySlice(" + toBinaryString() + ")";
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.ModbusDispatchStatistics;
+
+/**
+ * Queue of operations waiting for a single endpoint.
+ *
+ * Operations are taken in priority order, and in submission order within the same priority. Regular polls have lower
+ * priority than one-off operations (writes and one-off reads), so that e.g. user commands do not wait behind polls.
+ *
+ * To avoid piling up work when the endpoint cannot keep up with the polls, a regular poll is not queued when the same
+ * poll is already waiting (it is merged with the waiting one), and polls are dropped when too many are waiting.
+ *
+ * Only one thread at a time executes the operations of an endpoint, see {@link #tryLock()}.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <E> type of the operations
+ */
+@NonNullByDefault
+public class EndpointDispatchQueue<E> implements ModbusDispatchStatistics {
+
+    public enum Priority {
+        /**
+         * Writes and one-off reads
+         */
+        HIGH,
+        /**
+         * Regular polls
+         */
+        LOW
+    }
+
+    /**
+     * Maximum number of regular polls waiting for the endpoint by default
+     */
+    public static final int DEFAULT_MAX_QUEUED_POLLS = 100;
+
+    private class Entry implements Comparable<Entry> {
+        private final E operation;
+        private final Priority priority;
+        private final @Nullable Object mergeKey;
+        private final long sequence;
+        private final long enqueuedNanos = System.nanoTime();
+
+        private Entry(E operation, Priority priority, @Nullable Object mergeKey, long sequence) {
+            this.operation = operation;
+            this.priority = priority;
+            this.mergeKey = mergeKey;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private final Set<Object> queuedMergeKeys = new HashSet<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxQueuedPolls;
+
+    private long sequence;
+    private int queuedPolls;
+    private int maxQueueDepth;
+    private long dispatched;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long mergedPolls;
+    private long droppedPolls;
+
+    public EndpointDispatchQueue() {
+        this(DEFAULT_MAX_QUEUED_POLLS);
+    }
+
+    public EndpointDispatchQueue(int maxQueuedPolls) {
+        this.maxQueuedPolls = maxQueuedPolls;
+    }
+
+    /**
+     * Add operation to the queue
+     *
+     * @param operation operation to add
+     * @param priority priority of the operation
+     * @param mergeKey key identifying equal operations, or null if the operation must not be merged. Operation is not
+     *            queued if another operation with equal key is waiting already
+     * @return whether the operation was queued. Operations are not queued when they are merged or dropped
+     */
+    public synchronized boolean offer(E operation, Priority priority, @Nullable Object mergeKey) {
+        if (mergeKey != null && queuedMergeKeys.contains(mergeKey)) {
+            mergedPolls++;
+            return false;
+        }
+        if (priority == Priority.LOW) {
+            if (queuedPolls >= maxQueuedPolls) {
+                droppedPolls++;
+                return false;
+            }
+            queuedPolls++;
+        }
+        if (mergeKey != null) {
+            queuedMergeKeys.add(mergeKey);
+        }
+        queue.add(new Entry(operation, priority, mergeKey, sequence++));
+        maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+        return true;
+    }
+
+    /**
+     * Take operations from the head of the queue
+     *
+     * @param maxOperations maximum number of operations to take
+     * @return operations in priority order, empty list if the queue is empty
+     */
+    public synchronized List<E> poll(int maxOperations) {
+        List<E> operations = new ArrayList<>(Math.min(maxOperations, queue.size()));
+        long now = System.nanoTime();
+        Entry entry;
+        while (operations.size() < maxOperations && (entry = queue.poll()) != null) {
+            if (entry.priority == Priority.LOW) {
+                queuedPolls--;
+            }
+            Object mergeKey = entry.mergeKey;
+            if (mergeKey != null) {
+                queuedMergeKeys.remove(mergeKey);
+            }
+            long waitNanos = now - entry.enqueuedNanos;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            dispatched++;
+            operations.add(entry.operation);
+        }
+        return operations;
+    }
+
+    /**
+     * Remove operation waiting in the queue
+     *
+     * @param operation operation to remove
+     * @return whether the operation was waiting in the queue. Operations taken with {@link #poll(int)} are not in the
+     *         queue anymore
+     */
+    public synchronized boolean remove(E operation) {
+        for (Iterator<Entry> iterator = queue.iterator(); iterator.hasNext();) {
+            Entry entry = iterator.next();
+            if (entry.operation == operation) {
+                iterator.remove();
+                if (entry.priority == Priority.LOW) {
+                    queuedPolls--;
+                }
+                Object mergeKey = entry.mergeKey;
+                if (mergeKey != null) {
+                    queuedMergeKeys.remove(mergeKey);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Try to become the thread executing the operations of the endpoint
+     *
+     * @return true if the lock was acquired. In that case the caller must call {@link #unlock()}
+     */
+    public boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    @Override
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    @Override
+    public synchronized long getDispatched() {
+        return dispatched;
+    }
+
+    @Override
+    public synchronized double getAverageWaitMillis() {
+        return dispatched == 0 ? 0 : (double) totalWaitNanos / dispatched / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public synchronized long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+    }
+
+    @Override
+    public synchronized long getMergedPolls() {
+        return mergedPolls;
+    }
+
+    @Override
+    public synchronized long getDroppedPolls() {
+        return droppedPolls;
+    }
+
+    /**
+     * Reset the statistics. Maximum queue depth is reset to the current depth.
+     */
+    public synchronized void resetStatistics() {
+        maxQueueDepth = queue.size();
+        dispatched = 0;
+        totalWaitNanos = 0;
+        maxWaitNanos = 0;
+        mergedPolls = 0;
+        droppedPolls = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                "EndpointDispatchQueue(depth=%d, maxDepth=%d, dispatched=%d, avgWait=%.1f ms, maxWait=%d ms, merged=%d, dropped=%d)",
+                queue.size(), maxQueueDepth, dispatched, getAverageWaitMillis(), getMaxWaitMillis(), mergedPolls,
+                droppedPolls);
+    }
+}
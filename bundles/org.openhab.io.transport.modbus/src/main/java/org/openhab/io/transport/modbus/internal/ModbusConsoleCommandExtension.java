@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.io.transport.modbus.ModbusDispatchStatistics;
+import org.openhab.io.transport.modbus.ModbusOperationStatistics;
+import org.openhab.io.transport.modbus.ModbusStatistics;
+import org.openhab.io.transport.modbus.ModbusTimingStatistics;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console command for showing the statistics of Modbus operations
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+@NonNullByDefault
+public class ModbusConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_ENDPOINTS = "endpoints";
+    private static final String SUBCMD_POLLS = "polls";
+    private static final String SUBCMD_QUEUES = "queues";
+    private static final String SUBCMD_RESET = "reset";
+
+    private @Nullable ModbusStatistics statistics;
+
+    public ModbusConsoleCommandExtension() {
+        super("modbus", "Show statistics of the Modbus operations.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        ModbusStatistics statistics = this.statistics;
+        if (statistics == null) {
+            console.println("Modbus manager is not available");
+            return;
+        }
+        if (args.length == 0) {
+            printEndpoints(statistics, console);
+            printQueues(statistics, console);
+            return;
+        }
+        switch (args[0]) {
+            case SUBCMD_ENDPOINTS:
+                printEndpoints(statistics, console);
+                break;
+            case SUBCMD_POLLS:
+                printPolls(statistics, console);
+                break;
+            case SUBCMD_QUEUES:
+                printQueues(statistics, console);
+                break;
+            case SUBCMD_RESET:
+                statistics.resetStatistics();
+                console.println("Modbus statistics reset");
+                break;
+            default:
+                console.println(String.format("Unknown Modbus sub command '%s'", args[0]));
+                printUsage(console);
+                break;
+        }
+    }
+
+    private void printEndpoints(ModbusStatistics statistics, Console console) {
+        Map<ModbusSlaveEndpoint, ModbusOperationStatistics> endpoints = statistics.getEndpointStatistics();
+        console.println(String.format("Endpoints (%d):", endpoints.size()));
+        endpoints.forEach((endpoint, endpointStatistics) -> print(endpoint.toString(), endpointStatistics, console));
+    }
+
+    private void printPolls(ModbusStatistics statistics, Console console) {
+        Map<PollTask, ModbusOperationStatistics> polls = statistics.getPollTaskStatistics();
+        console.println(String.format("Regular polls (%d):", polls.size()));
+        polls.forEach((task, pollStatistics) -> print(
+                String.format("%s, slave %d, FC %s, start %d, length %d", task.getEndpoint(),
+                        task.getRequest().getUnitID(), task.getRequest().getFunctionCode(),
+                        task.getRequest().getReference(), task.getRequest().getDataLength()),
+                pollStatistics, console));
+    }
+
+    private void printQueues(ModbusStatistics statistics, Console console) {
+        Map<ModbusSlaveEndpoint, ModbusDispatchStatistics> queues = statistics.getDispatchStatistics();
+        console.println(String.format("Dispatch queues (%d):", queues.size()));
+        queues.forEach((endpoint, queue) -> console.println(String.format(
+                "  %s: depth %d (max %d), dispatched %d, wait avg %.1f ms (max %d ms), merged polls %d, dropped polls %d",
+                endpoint, queue.getQueueDepth(), queue.getMaxQueueDepth(), queue.getDispatched(),
+                queue.getAverageWaitMillis(), queue.getMaxWaitMillis(), queue.getMergedPolls(),
+                queue.getDroppedPolls())));
+        console.println(String.format("Combined reads: %d, transactions saved: %d", statistics.getCoalescedReads(),
+                statistics.getTransactionsSavedByCoalescing()));
+    }
+
+    private void print(String title, ModbusOperationStatistics statistics, Console console) {
+        console.println(String.format("  %s", title));
+        console.println(String.format(
+                "    operations %d, errors %d, timeouts %d, transaction ID mismatches %d, pipelined requests %d",
+                statistics.getOperations(), statistics.getErrors(), statistics.getTimeouts(),
+                statistics.getTransactionIdMismatches(), statistics.getPipelinedRequests()));
+        print("total", statistics.getTotalTime(), console);
+        print("connection", statistics.getConnectionTime(), console);
+        print("transaction", statistics.getTransactionTime(), console);
+        print("callback", statistics.getCallbackTime(), console);
+    }
+
+    private void print(String phase, ModbusTimingStatistics timing, Console console) {
+        console.println(String.format("    %-12s p50 %5d ms, p95 %5d ms, p99 %5d ms, max %5d ms, avg %7.1f ms", phase,
+                timing.getPercentileMillis(50), timing.getPercentileMillis(95), timing.getPercentileMillis(99),
+                timing.getMaxMillis(), timing.getAverageMillis()));
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage("Show statistics of endpoints and dispatch queues"),
+                buildCommandUsage(SUBCMD_ENDPOINTS, "Show operation statistics per endpoint"),
+                buildCommandUsage(SUBCMD_POLLS, "Show operation statistics per regular poll"),
+                buildCommandUsage(SUBCMD_QUEUES, "Show dispatch queue statistics per endpoint"),
+                buildCommandUsage(SUBCMD_RESET, "Reset all statistics"));
+    }
+
+    @Reference
+    protected void setModbusStatistics(ModbusStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    protected void unsetModbusStatistics(ModbusStatistics statistics) {
+        this.statistics = null;
+    }
+}
@@ -13,17 +13,27 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.imageio.IIOException;
@@ -37,11 +47,15 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusDispatchStatistics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
+import org.openhab.io.transport.modbus.ModbusOperationStatistics;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusStatistics;
 import org.openhab.io.transport.modbus.ModbusUnexpectedTransactionIdException;
 import org.openhab.io.transport.modbus.ModbusWriteCallback;
 import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
@@ -69,6 +83,7 @@ import net.wimpi.modbus.io.ModbusTransaction;
 import net.wimpi.modbus.msg.ModbusRequest;
 import net.wimpi.modbus.msg.ModbusResponse;
 import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
 
 /**
  * Main implementation of ModbusManager
@@ -77,11 +92,22 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * Operations with an endpoint are executed one at a time from a per-endpoint queue, where writes and one-off reads go
+ * before regular polls (see {@link EndpointDispatchQueue}).
+ *
+ * With TCP endpoints allowing more than one transaction in flight (see
+ * {@link EndpointPoolConfiguration#getMaxInFlightTransactions()}), queued requests are pipelined over the single
+ * connection. Pipelining sends the requests back-to-back, so it is only used when no delay between transactions is
+ * configured.
+ *
+ * Timings of the operations are collected per endpoint and per regular poll, see {@link ModbusStatistics}.
+ *
  * @author Sami Salonen - Initial contribution
  */
-@Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
+@Component(service = { ModbusManager.class,
+        ModbusStatistics.class }, immediate = true, configurationPid = "transport.modbus")
 @NonNullByDefault
-public class ModbusManagerImpl implements ModbusManager {
+public class ModbusManagerImpl implements ModbusManager, ModbusStatistics {
 
     static class PollTaskUnregistered extends Exception {
         public PollTaskUnregistered(String msg) {
@@ -91,7 +117,6 @@ public class ModbusManagerImpl implements ModbusManager {
         private static final long serialVersionUID = 6939730579178506885L;
     }
 
-    @FunctionalInterface
     private interface ModbusOperation<T> {
 
         /**
@@ -108,6 +133,26 @@ public class ModbusManagerImpl implements ModbusManager {
         public void accept(AggregateStopWatch timer, T task, ModbusSlaveConnection connection)
                 throws ModbusException, IIOException, ModbusUnexpectedTransactionIdException;
 
+        /**
+         * Create Modbus library request corresponding to the task
+         *
+         * @param task task to execute
+         * @return request
+         */
+        public ModbusRequest createRequest(T task);
+
+        /**
+         * Handle response received for the request, i.e. validate it and call the callback of the task
+         *
+         * @param timer aggregate stop watch for performance profiling
+         * @param task task that was executed
+         * @param libRequest request sent to the slave
+         * @param response response received
+         * @throws ModbusUnexpectedTransactionIdException when transaction IDs of the request and response do not match
+         */
+        public void handleResponse(AggregateStopWatch timer, T task, ModbusRequest libRequest, ModbusResponse response)
+                throws ModbusUnexpectedTransactionIdException;
+
     }
 
     /**
@@ -146,11 +191,10 @@ public class ModbusManagerImpl implements ModbusManager {
                 throws ModbusException, ModbusUnexpectedTransactionIdException {
             ModbusSlaveEndpoint endpoint = task.getEndpoint();
             ModbusReadRequestBlueprint request = task.getRequest();
-            ModbusReadCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
             ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
-            ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
+            ModbusRequest libRequest = createRequest(task);
             transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with request request (FC={}): {} [operation ID {}]",
@@ -161,7 +205,20 @@ public class ModbusManagerImpl implements ModbusManager {
             ModbusResponse response = transaction.getResponse();
             logger.trace("Response for read request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
-            checkTransactionId(response, libRequest, task, operationId);
+            handleResponse(timer, task, libRequest, response);
+        }
+
+        @Override
+        public ModbusRequest createRequest(PollTask task) {
+            return ModbusLibraryWrapper.createRequest(task.getRequest());
+        }
+
+        @Override
+        public void handleResponse(AggregateStopWatch timer, PollTask task, ModbusRequest libRequest,
+                ModbusResponse response) throws ModbusUnexpectedTransactionIdException {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            ModbusReadCallback callback = task.getCallback();
+            checkTransactionId(response, libRequest, task, timer.operationId);
             if (callback != null) {
                 timer.callback.timeRunnable(
                         () -> ModbusLibraryWrapper.invokeCallbackWithResponse(request, callback, response));
@@ -181,11 +238,10 @@ public class ModbusManagerImpl implements ModbusManager {
                 throws ModbusException, ModbusUnexpectedTransactionIdException {
             ModbusSlaveEndpoint endpoint = task.getEndpoint();
             ModbusWriteRequestBlueprint request = task.getRequest();
-            ModbusWriteCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
             ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
-            ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
+            ModbusRequest libRequest = createRequest(task);
             transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with read request (FC={}): {} [operation ID {}]",
@@ -198,7 +254,20 @@ public class ModbusManagerImpl implements ModbusManager {
             logger.trace("Response for write request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
 
-            checkTransactionId(response, libRequest, task, operationId);
+            handleResponse(timer, task, libRequest, response);
+        }
+
+        @Override
+        public ModbusRequest createRequest(WriteTask task) {
+            return ModbusLibraryWrapper.createRequest(task.getRequest());
+        }
+
+        @Override
+        public void handleResponse(AggregateStopWatch timer, WriteTask task, ModbusRequest libRequest,
+                ModbusResponse response) throws ModbusUnexpectedTransactionIdException {
+            ModbusWriteRequestBlueprint request = task.getRequest();
+            ModbusWriteCallback callback = task.getCallback();
+            checkTransactionId(response, libRequest, task, timer.operationId);
             if (callback != null) {
                 timer.callback.timeRunnable(
                         () -> invokeCallbackWithResponse(request, callback, new ModbusResponseImpl(response)));
@@ -206,6 +275,264 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Operation waiting in the dispatch queue of an endpoint
+     *
+     * @author Sami Salonen - Initial contribution
+     *
+     */
+    private class QueuedOperation<R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> {
+        private final T task;
+        private final boolean oneOffTask;
+        private final ModbusOperation<T> operation;
+        @Nullable
+        private final OneOffOperationFuture future;
+        private final AggregateStopWatch timer = new AggregateStopWatch();
+        @Nullable
+        private ModbusRequest libRequest;
+
+        private QueuedOperation(T task, boolean oneOffTask, ModbusOperation<T> operation,
+                @Nullable OneOffOperationFuture future) {
+            this.task = task;
+            this.oneOffTask = oneOffTask;
+            this.operation = operation;
+            this.future = future;
+        }
+
+        private boolean isRegistered() {
+            return oneOffTask || !(task instanceof PollTask) || scheduledPollTasks.containsKey(task);
+        }
+
+        /**
+         * Mark the operation started
+         *
+         * @return false if the operation was cancelled, in which case it must not be executed
+         */
+        private boolean start() {
+            OneOffOperationFuture future = this.future;
+            return future == null || future.start();
+        }
+
+        private void complete() {
+            OneOffOperationFuture future = this.future;
+            if (future != null) {
+                future.complete();
+            }
+        }
+
+        /**
+         * Create the request for pipelined execution
+         */
+        private ModbusRequest createRequest() {
+            timer.total.resume();
+            ModbusRequest libRequest = operation.createRequest(task);
+            this.libRequest = libRequest;
+            return libRequest;
+        }
+
+        private void handleResponse(ModbusResponse response) throws ModbusUnexpectedTransactionIdException {
+            ModbusRequest libRequest = this.libRequest;
+            if (libRequest == null) {
+                throw new IllegalStateException("Request not created");
+            }
+            operation.handleResponse(timer, task, libRequest, response);
+        }
+
+        /**
+         * Execute the operation without pipelining, using the normal retry mechanism
+         */
+        private void executeSequentially() {
+            executeOperation(task, oneOffTask, operation);
+        }
+    }
+
+    /**
+     * Future of a one-off operation. The future is completed by the thread executing the operation, after the callback
+     * has been called.
+     *
+     * Cancelling the future cancels the operation while it waits in the thread pool or in the dispatch queue of the
+     * endpoint. Operations that are being executed cannot be cancelled anymore.
+     *
+     * @author agent - Initial contribution
+     *
+     */
+    private static class OneOffOperationFuture implements ScheduledFuture<@Nullable Object> {
+        private final CompletableFuture<@Nullable Object> completion = new CompletableFuture<>();
+        @Nullable
+        private ScheduledFuture<?> scheduled;
+        @Nullable
+        private EndpointDispatchQueue<QueuedOperation<?, ?, ?>> queue;
+        @Nullable
+        private QueuedOperation<?, ?, ?> queuedOperation;
+        private boolean started;
+
+        private synchronized void scheduled(ScheduledFuture<?> scheduled) {
+            this.scheduled = scheduled;
+        }
+
+        private synchronized void queued(EndpointDispatchQueue<QueuedOperation<?, ?, ?>> queue,
+                QueuedOperation<?, ?, ?> queuedOperation) {
+            this.queue = queue;
+            this.queuedOperation = queuedOperation;
+        }
+
+        private synchronized boolean start() {
+            if (completion.isCancelled()) {
+                return false;
+            }
+            started = true;
+            return true;
+        }
+
+        private void complete() {
+            completion.complete(null);
+        }
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            if (started || !completion.cancel(mayInterruptIfRunning)) {
+                return false;
+            }
+            ScheduledFuture<?> scheduled = this.scheduled;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            EndpointDispatchQueue<QueuedOperation<?, ?, ?>> queue = this.queue;
+            QueuedOperation<?, ?, ?> queuedOperation = this.queuedOperation;
+            if (queue != null && queuedOperation != null) {
+                queue.remove(queuedOperation);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return completion.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        @Override
+        public @Nullable Object get() throws InterruptedException, ExecutionException {
+            return completion.get();
+        }
+
+        @Override
+        public @Nullable Object get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return completion.get(timeout, unit);
+        }
+
+        @Override
+        public synchronized long getDelay(TimeUnit unit) {
+            ScheduledFuture<?> scheduled = this.scheduled;
+            return scheduled == null ? 0 : scheduled.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * Identifies regular polls that can be executed together: same endpoint, slave id, protocol id, function code and
+     * poll period. When polls must not be combined, the poll task itself is part of the key.
+     *
+     * @author Sami Salonen - Initial contribution
+     *
+     */
+    private static class PollGroupKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final int protocolId;
+        private final ModbusReadFunctionCode functionCode;
+        private final long pollPeriodMillis;
+        private final @Nullable PollTask task;
+
+        private PollGroupKey(PollTask task, long pollPeriodMillis, boolean combine) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            this.endpoint = task.getEndpoint();
+            this.unitId = request.getUnitID();
+            this.protocolId = request.getProtocolID();
+            this.functionCode = request.getFunctionCode();
+            this.pollPeriodMillis = pollPeriodMillis;
+            this.task = combine ? null : task;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, unitId, protocolId, functionCode, pollPeriodMillis, task);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof PollGroupKey)) {
+                return false;
+            }
+            PollGroupKey other = (PollGroupKey) obj;
+            return endpoint.equals(other.endpoint) && unitId == other.unitId && protocolId == other.protocolId
+                    && functionCode == other.functionCode && pollPeriodMillis == other.pollPeriodMillis
+                    && Objects.equals(task, other.task);
+        }
+    }
+
+    /**
+     * Regular polls executed by single scheduled job. Overlapping and adjacent reads of the polls are combined to
+     * single requests, see {@link CoalescedPollTask}.
+     *
+     * @author Sami Salonen - Initial contribution
+     *
+     */
+    private class PollGroup {
+        private final PollGroupKey key;
+        private final Set<PollTask> tasks = new CopyOnWriteArraySet<>();
+        @Nullable
+        private volatile ScheduledFuture<?> future;
+        private volatile List<CoalescedPollTask> lastCoalesced = Collections.emptyList();
+        private volatile boolean coalescingDisabled;
+
+        private PollGroup(PollGroupKey key) {
+            this.key = key;
+        }
+
+        private void poll() {
+            List<PollTask> tasksToExecute = new ArrayList<>(tasks);
+            int registeredCount = tasksToExecute.size();
+            if (registeredCount > 1 && !coalescingDisabled) {
+                if (lastCoalesced.stream().anyMatch(CoalescedPollTask::hadSlaveErrorResponse)) {
+                    // The slave might refuse reading the combined range even though individual reads work
+                    logger.info(
+                            "Slave returned error response to combined read of endpoint {}. Polls will not be combined anymore.",
+                            key.endpoint);
+                    coalescingDisabled = true;
+                } else {
+                    tasksToExecute = CoalescedPollTask.coalesce(tasksToExecute);
+                    List<CoalescedPollTask> coalesced = new ArrayList<>();
+                    for (PollTask task : tasksToExecute) {
+                        if (task instanceof CoalescedPollTask) {
+                            coalesced.add((CoalescedPollTask) task);
+                        }
+                    }
+                    lastCoalesced = coalesced;
+                    coalescedReads.addAndGet(coalesced.size());
+                    transactionsSavedByCoalescing.addAndGet(registeredCount - tasksToExecute.size());
+                }
+            }
+            for (PollTask task : tasksToExecute) {
+                // combined tasks are not registered as such, only the tasks they contain
+                dispatchOperation(task, task instanceof CoalescedPollTask, EndpointDispatchQueue.Priority.LOW,
+                        pollOperation, null);
+            }
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusManagerImpl.class);
     private final Logger pollMonitorLogger = LoggerFactory
             .getLogger(ModbusManagerImpl.class.getName() + ".PollMonitor");
@@ -247,6 +574,11 @@ public class ModbusManagerImpl implements ModbusManager {
      * Presumably slow callbacks can increase queue size with callbackThreadPool
      */
     private static final long WARN_QUEUE_SIZE = 500;
+
+    /**
+     * Configuration property to disable combining of regular polls (enabled by default)
+     */
+    private static final String CONFIG_COALESCE_POLLS = "coalescePolls";
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
     private final PollOperation pollOperation = new PollOperation();
@@ -267,7 +599,23 @@ public class ModbusManagerImpl implements ModbusManager {
     private volatile KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool;
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
-    private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    private volatile Map<PollTask, PollGroup> scheduledPollTasks = new ConcurrentHashMap<>();
+    private final Map<PollGroupKey, PollGroup> pollGroups = new ConcurrentHashMap<>();
+    /**
+     * Whether overlapping and adjacent regular polls are combined
+     */
+    private volatile boolean coalescePolls = true;
+    private final AtomicLong coalescedReads = new AtomicLong();
+    private final AtomicLong transactionsSavedByCoalescing = new AtomicLong();
+    /**
+     * Operations waiting for execution, per endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointDispatchQueue<QueuedOperation<?, ?, ?>>> dispatchQueues = new ConcurrentHashMap<>();
+    /**
+     * Statistics of the operations, per endpoint and per registered regular poll
+     */
+    private final Map<ModbusSlaveEndpoint, OperationStatistics> endpointStatistics = new ConcurrentHashMap<>();
+    private final Map<PollTask, OperationStatistics> pollTaskStatistics = new ConcurrentHashMap<>();
     /**
      * Executor for requests
      */
@@ -509,6 +857,9 @@ public class ModbusManagerImpl implements ModbusManager {
         C callback = task.getCallback();
         int maxTries = task.getMaxTries();
         AtomicReference<@Nullable Exception> lastError = new AtomicReference<>();
+        // null when the operation was aborted without result (e.g. manager shut down), and not recorded
+        @Nullable
+        Boolean failed = null;
         long retryDelay = Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
                 .map(cfg -> cfg.getInterTransactionDelayMillis()).orElse(0L);
 
@@ -527,6 +878,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 // Could not acquire connection, time to abort
                 // Error logged already, error callback called as well
                 logger.trace("Initial connection was not successful, aborting. [operation ID {}]", operationId);
+                failed = true;
                 return;
             }
 
@@ -551,6 +903,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     // re-established. Error has been logged, time to abort.
                     logger.trace("Try {} out of {}. Connection was not successful, aborting. [operation ID {}]",
                             tryIndex + 1, maxTries, operationId);
+                    failed = true;
                     return;
                 }
                 if (Thread.interrupted()) {
@@ -577,6 +930,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     break;
                 } catch (IOException e) {
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
+                    recordTimeoutIfTimedOut(task, oneOffTask, e);
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
                     if (willRetry) {
@@ -594,6 +948,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusIOException e) {
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
+                    recordTimeoutIfTimedOut(task, oneOffTask, e);
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
                     if (willRetry) {
@@ -624,6 +979,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusUnexpectedTransactionIdException e) {
                     lastError.set(e);
+                    getStatistics(task, oneOffTask).forEach(stats -> stats.recordTransactionIdMismatches(1));
                     // transaction error details already logged
                     if (willRetry) {
                         logger.warn(
@@ -664,6 +1020,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
             Exception exception = lastError.get();
+            failed = exception != null;
             if (exception != null) {
                 // All retries failed with some error
                 if (callback != null) {
@@ -687,6 +1044,218 @@ public class ModbusManagerImpl implements ModbusManager {
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
             timer.suspendAllRunning();
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
+            if (failed != null) {
+                recordOperation(task, oneOffTask, timer, failed);
+            }
+        }
+    }
+
+    /**
+     * Queue operation for execution with the endpoint.
+     *
+     * The operation is queued with the other operations waiting for the same endpoint, see
+     * {@link EndpointDispatchQueue}. Whichever thread gets hold of the queue executes the queued operations in
+     * priority order, and calls the callbacks. Other threads return right away; their operations are executed by the
+     * thread holding the queue.
+     *
+     * With endpoints allowing more than one transaction in flight, the queued operations are executed in batches of
+     * at most that many requests which are pipelined over a single connection. Requests failing in the pipelined
+     * transaction are executed again without pipelining, with the normal retry mechanism and error reporting.
+     *
+     * @param task task to execute
+     * @param oneOffTask whether this is one-off, or execution of previously scheduled poll
+     * @param priority priority of the operation. Regular polls with low priority are merged with the same poll
+     *            waiting in the queue already
+     * @param operation operation to execute
+     * @param future future to complete once the operation has been executed, null if there is none
+     */
+    private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> void dispatchOperation(
+            @NonNull T task, boolean oneOffTask, EndpointDispatchQueue.Priority priority,
+            ModbusOperation<T> operation, @Nullable OneOffOperationFuture future) {
+        ModbusSlaveEndpoint endpoint = task.getEndpoint();
+        EndpointDispatchQueue<QueuedOperation<?, ?, ?>> queue = dispatchQueues.computeIfAbsent(endpoint,
+                e -> new EndpointDispatchQueue<>());
+        QueuedOperation<?, ?, ?> queuedOperation = new QueuedOperation<>(task, oneOffTask, operation, future);
+        if (future != null) {
+            // before queuing, so that cancelling can always remove the operation from the queue
+            future.queued(queue, queuedOperation);
+        }
+        boolean queued = queue.offer(queuedOperation, priority,
+                priority == EndpointDispatchQueue.Priority.LOW ? task : null);
+        if (!queued) {
+            logger.debug("Endpoint {} is busy, not queuing poll task {} again. Queue: {}", endpoint, task, queue);
+            return;
+        }
+        // Queue is checked again after unlocking so that operations queued while the lock was held are not left
+        // waiting
+        while (!queue.isEmpty() && queue.tryLock()) {
+            List<QueuedOperation<?, ?, ?>> batch = queue.poll(getMaxInFlightTransactions(endpoint));
+            try {
+                executeBatch(endpoint, batch);
+            } finally {
+                queue.unlock();
+                batch.forEach(QueuedOperation::complete);
+            }
+        }
+    }
+
+    private int getMaxInFlightTransactions(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (connectionFactory == null || !(endpoint instanceof ModbusTCPSlaveEndpoint)) {
+            // pipelining is possible only with TCP
+            return 1;
+        }
+        EndpointPoolConfiguration config = connectionFactory.getEndpointPoolConfiguration(endpoint);
+        if (config == null || config.getInterTransactionDelayMillis() > 0) {
+            // requests of a pipelined transaction are sent back-to-back, which would not honour the delay
+            return 1;
+        }
+        return Math.max(1, config.getMaxInFlightTransactions());
+    }
+
+    /**
+     * Get the statistics to update with the outcome of the task: statistics of the endpoint, and statistics of the
+     * regular polls executed by the task
+     */
+    private List<OperationStatistics> getStatistics(TaskWithEndpoint<?, ?> task, boolean oneOffTask) {
+        List<OperationStatistics> statistics = new ArrayList<>(2);
+        statistics.add(endpointStatistics.computeIfAbsent(task.getEndpoint(), endpoint -> new OperationStatistics()));
+        if (task instanceof CoalescedPollTask) {
+            for (PollTask pollTask : ((CoalescedPollTask) task).getTasks()) {
+                OperationStatistics pollStatistics = pollTaskStatistics.get(pollTask);
+                if (pollStatistics != null) {
+                    statistics.add(pollStatistics);
+                }
+            }
+        } else if (!oneOffTask && task instanceof PollTask) {
+            OperationStatistics pollStatistics = pollTaskStatistics.get(task);
+            if (pollStatistics != null) {
+                statistics.add(pollStatistics);
+            }
+        }
+        return statistics;
+    }
+
+    private void recordOperation(TaskWithEndpoint<?, ?> task, boolean oneOffTask, AggregateStopWatch timer,
+            boolean failed) {
+        getStatistics(task, oneOffTask).forEach(stats -> stats.recordOperation(timer, failed));
+    }
+
+    private void recordTimeoutIfTimedOut(TaskWithEndpoint<?, ?> task, boolean oneOffTask, Exception error) {
+        if (isTimeout(error)) {
+            getStatistics(task, oneOffTask).forEach(OperationStatistics::recordTimeout);
+        }
+    }
+
+    /**
+     * Tell whether the error is due to a timeout. The modbus library does not always keep the original
+     * {@link InterruptedIOException}, so the message is checked as well.
+     */
+    private static boolean isTimeout(@Nullable Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains("timeout")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void executeBatch(ModbusSlaveEndpoint endpoint, List<QueuedOperation<?, ?, ?>> batch) {
+        logTaskQueueInfo();
+        batch.removeIf(operation -> {
+            if (!operation.isRegistered()) {
+                logger.warn("Poll task was unregistered -- not executing/proceeding with the poll: {} [operation ID {}]",
+                        operation.task, operation.timer.operationId);
+                return true;
+            }
+            if (!operation.start()) {
+                logger.debug("One-off task was cancelled -- not executing: {} [operation ID {}]", operation.task,
+                        operation.timer.operationId);
+                return true;
+            }
+            return false;
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (scheduledThreadPoolExecutor == null) {
+            logger.debug("Manager has been shut down, aborting processing {} requests", batch.size());
+            return;
+        }
+        if (batch.size() == 1) {
+            // nothing to pipeline
+            batch.get(0).executeSequentially();
+            return;
+        }
+
+        Optional<ModbusSlaveConnection> connection = borrowConnection(endpoint);
+        if (!connection.isPresent() || !(connection.get() instanceof TCPMasterConnection)) {
+            returnConnection(endpoint, connection);
+            // Error reporting and retries are handled by the normal execution
+            logger.debug("Could not get connection for pipelining, executing {} requests one by one", batch.size());
+            batch.forEach(QueuedOperation::executeSequentially);
+            return;
+        }
+        ModbusPipelinedTransaction transaction = new ModbusPipelinedTransaction(
+                ((TCPMasterConnection) connection.get()).getModbusTransport());
+        batch.forEach(operation -> transaction.addRequest(operation.createRequest()));
+        logger.trace("Executing {} pipelined requests with endpoint {}", batch.size(), endpoint);
+        batch.forEach(operation -> operation.timer.transaction.resume());
+        List<ModbusPipelinedTransaction.Result> results;
+        try {
+            results = transaction.execute();
+        } finally {
+            batch.forEach(operation -> operation.timer.transaction.suspend());
+        }
+        OperationStatistics statistics = endpointStatistics.computeIfAbsent(endpoint, e -> new OperationStatistics());
+        statistics.recordPipelinedRequests(batch.size());
+        statistics.recordTransactionIdMismatches(transaction.getUnexpectedTransactionIds());
+        if (results.stream().anyMatch(result -> isTimeout(result.getError()))) {
+            // the whole pipeline is affected by the timeout, count it once
+            statistics.recordTimeout();
+        }
+        if (transaction.isConnectionBroken()) {
+            invalidate(endpoint, connection);
+        } else {
+            returnConnection(endpoint, connection);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            QueuedOperation<?, ?, ?> operation = batch.get(i);
+            ModbusPipelinedTransaction.Result result = results.get(i);
+            String operationId = operation.timer.operationId;
+            ModbusResponse response = result.getResponse();
+            boolean recordOperation = false;
+            try {
+                if (response != null) {
+                    operation.handleResponse(response);
+                    // failed operations are recorded when executed again
+                    recordOperation = true;
+                    continue;
+                }
+                Exception error = result.getError();
+                logger.debug(
+                        "Pipelined request ({}) failed, executing it again without pipelining. Error details: {} {} [operation ID {}]",
+                        operation.task.getRequest(), error == null ? null : error.getClass().getName(),
+                        error == null ? null : error.getMessage(), operationId);
+                operation.executeSequentially();
+            } catch (ModbusUnexpectedTransactionIdException e) {
+                // transaction error details already logged
+                getStatistics(operation.task, operation.oneOffTask)
+                        .forEach(stats -> stats.recordTransactionIdMismatches(1));
+                operation.executeSequentially();
+            } finally {
+                operation.timer.suspendAllRunning();
+                logger.debug("Pipelined modbus operation ended, timing info: {} [operation ID {}]", operation.timer,
+                        operationId);
+                if (recordOperation) {
+                    recordOperation(operation.task, operation.oneOffTask, operation.timer, false);
+                }
+            }
         }
     }
 
@@ -696,12 +1265,13 @@ public class ModbusManagerImpl implements ModbusManager {
         Objects.requireNonNull(executor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off poll task {}", task);
-        ScheduledFuture<?> future = executor.schedule(() -> {
+        OneOffOperationFuture future = new OneOffOperationFuture();
+        future.scheduled(executor.schedule(() -> {
             long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
             logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
                     millisInThreadPoolWaiting);
-            executeOperation(task, true, pollOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
+            dispatchOperation(task, true, EndpointDispatchQueue.Priority.HIGH, pollOperation, future);
+        }, 0L, TimeUnit.MILLISECONDS));
         return future;
     }
 
@@ -716,18 +1286,31 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
-            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                executeOperation(task, false, pollOperation);
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
-            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+            PollGroupKey key = new PollGroupKey(task, pollPeriodMillis,
+                    coalescePolls && task.getRequest().getProtocolID() == Modbus.DEFAULT_PROTOCOL_ID);
+            PollGroup group = pollGroups.get(key);
+            if (group == null) {
+                PollGroup newGroup = group = new PollGroup(key);
+                newGroup.tasks.add(task);
+                pollGroups.put(key, newGroup);
+                newGroup.future = executor.scheduleWithFixedDelay(() -> {
+                    long started = System.currentTimeMillis();
+                    logger.debug("Executing scheduled ({}ms) poll tasks {}. Current millis: {}", pollPeriodMillis,
+                            newGroup.tasks, started);
+                    newGroup.poll();
+                    long finished = System.currentTimeMillis();
+                    logger.debug(
+                            "Execution of scheduled ({}ms) poll tasks {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                            pollPeriodMillis, newGroup.tasks, finished, started, finished - started);
+                }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+            } else {
+                logger.trace("Poll task {} is executed together with already registered poll tasks {}", task,
+                        group.tasks);
+                group.tasks.add(task);
+            }
 
-            scheduledPollTasks.put(task, future);
+            scheduledPollTasks.put(task, group);
+            pollTaskStatistics.put(task, new OperationStatistics());
             logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
                     initialDelayMillis);
         }
@@ -744,19 +1327,29 @@ public class ModbusManagerImpl implements ModbusManager {
 
             // cancel poller
             @Nullable
-            ScheduledFuture<?> future = scheduledPollTasks.remove(task);
-            if (future == null) {
+            PollGroup group = scheduledPollTasks.remove(task);
+            if (group == null) {
                 // No such poll task
                 logger.warn("Caller tried to unregister nonexisting poll task {}", task);
                 return false;
             }
-            logger.info("Unregistering regular poll task {} (interrupting if necessary)", task);
+            logger.info("Unregistering regular poll task {}", task);
+            pollTaskStatistics.remove(task);
 
             // Make sure connections to this endpoint are closed when they are returned to pool (which
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
+            group.tasks.remove(task);
+            if (group.tasks.isEmpty()) {
+                pollGroups.remove(group.key);
+                ScheduledFuture<?> future = group.future;
+                if (future != null) {
+                    // Not interrupting: the thread might be executing queued operations of other tasks. Operation
+                    // of the unregistered task is skipped if it is still queued.
+                    future.cancel(false);
+                }
+            }
 
             logger.info("Poll task {} canceled", task);
 
@@ -781,12 +1374,13 @@ public class ModbusManagerImpl implements ModbusManager {
         Objects.requireNonNull(scheduledThreadPoolExecutor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off write task {}", task);
-        ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(() -> {
+        OneOffOperationFuture future = new OneOffOperationFuture();
+        future.scheduled(scheduledThreadPoolExecutor.schedule(() -> {
             long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
             logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
                     millisInThreadPoolWaiting);
-            executeOperation(task, true, writeOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
+            dispatchOperation(task, true, EndpointDispatchQueue.Priority.HIGH, writeOperation, future);
+        }, 0L, TimeUnit.MILLISECONDS));
         return future;
     }
 
@@ -821,10 +1415,46 @@ public class ModbusManagerImpl implements ModbusManager {
         return this.scheduledPollTasks.keySet();
     }
 
+    @Override
+    public long getCoalescedReads() {
+        return coalescedReads.get();
+    }
+
+    @Override
+    public long getTransactionsSavedByCoalescing() {
+        return transactionsSavedByCoalescing.get();
+    }
+
+    @Override
+    public Map<ModbusSlaveEndpoint, ModbusDispatchStatistics> getDispatchStatistics() {
+        return Collections.unmodifiableMap(dispatchQueues);
+    }
+
+    @Override
+    public Map<ModbusSlaveEndpoint, ModbusOperationStatistics> getEndpointStatistics() {
+        return Collections.unmodifiableMap(endpointStatistics);
+    }
+
+    @Override
+    public Map<PollTask, ModbusOperationStatistics> getPollTaskStatistics() {
+        return Collections.unmodifiableMap(pollTaskStatistics);
+    }
+
+    @Override
+    public void resetStatistics() {
+        endpointStatistics.clear();
+        pollTaskStatistics.values().forEach(OperationStatistics::reset);
+        dispatchQueues.values().forEach(EndpointDispatchQueue::resetStatistics);
+        coalescedReads.set(0);
+        transactionsSavedByCoalescing.set(0);
+    }
+
     @Activate
     protected void activate(Map<String, Object> configProperties) {
         synchronized (this) {
             logger.info("Modbus manager activated");
+            Object coalescePolls = configProperties.get(CONFIG_COALESCE_POLLS);
+            this.coalescePolls = coalescePolls == null || Boolean.parseBoolean(coalescePolls.toString());
             if (connectionPool == null) {
                 constructConnectionPool();
             }
@@ -864,6 +1494,9 @@ public class ModbusManagerImpl implements ModbusManager {
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
             connectionFactory = null;
+            dispatchQueues.clear();
+            pollGroups.clear();
+            endpointStatistics.clear();
             logger.debug("Modbus manager deactivated");
         }
     }
@@ -880,7 +1513,11 @@ public class ModbusManagerImpl implements ModbusManager {
             }
             lastQueueMonitorLog = System.currentTimeMillis();
             pollMonitorLogger.trace("<POLL MONITOR>");
-            this.scheduledPollTasks.forEach((task, future) -> {
+            this.scheduledPollTasks.forEach((task, group) -> {
+                ScheduledFuture<?> future = group.future;
+                if (future == null) {
+                    return;
+                }
                 pollMonitorLogger.trace(
                         "POLL MONITOR: scheduled poll task. FC: {}, start {}, length {}, done: {}, canceled: {}, delay: {}. Full task {}",
                         task.getRequest().getFunctionCode(), task.getRequest().getReference(),
@@ -899,6 +1536,17 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
 
+            dispatchQueues.forEach((endpoint, queue) -> {
+                pollMonitorLogger.trace("POLL MONITOR: endpoint {} {}", endpoint, queue);
+                if (queue.getQueueDepth() >= WARN_QUEUE_SIZE) {
+                    pollMonitorLogger.warn("Many ({}) operations queued for endpoint {}! The endpoint cannot keep up.",
+                            queue.getQueueDepth(), endpoint);
+                }
+            });
+            pollMonitorLogger.trace("POLL MONITOR: {} combined reads saved {} transactions", coalescedReads.get(),
+                    transactionsSavedByCoalescing.get());
+            endpointStatistics.forEach((endpoint, statistics) -> pollMonitorLogger
+                    .trace("POLL MONITOR: endpoint {} statistics {}", endpoint, statistics));
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
     }
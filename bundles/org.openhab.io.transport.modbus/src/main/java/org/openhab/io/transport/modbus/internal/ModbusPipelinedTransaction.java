@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.ModbusUnexpectedTransactionIdException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+
+/**
+ * Transaction executing several requests over a single Modbus TCP connection with pipelining.
+ *
+ * All requests are written to the connection before any response is read. Each request gets a distinct transaction
+ * ID, and the responses are matched to the requests using the transaction ID of the MBAP header, so the slave (or the
+ * gateway in front of it) may answer in any order. Responses with unknown transaction ID, e.g. late responses to
+ * earlier requests that timed out, are discarded.
+ *
+ * Retries are not implemented here, failed requests are reported in the results.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPipelinedTransaction {
+
+    /**
+     * Outcome of a single request of the pipelined transaction
+     */
+    public static class Result {
+        private final ModbusRequest request;
+        private @Nullable ModbusResponse response;
+        private @Nullable Exception error;
+
+        private Result(ModbusRequest request) {
+            this.request = request;
+        }
+
+        public ModbusRequest getRequest() {
+            return request;
+        }
+
+        /**
+         * @return response from the slave, or null if the request failed
+         */
+        public @Nullable ModbusResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * @return the error (I/O error, slave exception response or unmatched transaction ID), or null if the request
+         *         succeeded
+         */
+        public @Nullable Exception getError() {
+            return error;
+        }
+
+        private boolean isDone() {
+            return response != null || error != null;
+        }
+    }
+
+    private static final AtomicInteger TRANSACTION_ID_COUNTER = new AtomicInteger();
+
+    /**
+     * How many responses with unknown transaction ID are tolerated per request before giving up
+     */
+    private static final int MAX_UNEXPECTED_RESPONSES_PER_REQUEST = 1;
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusPipelinedTransaction.class);
+
+    private final ModbusTransport transport;
+    private final List<Result> results = new ArrayList<>();
+    private boolean connectionBroken;
+    private int unexpectedTransactionIds;
+
+    /**
+     * @param transport transport of a connected TCP connection
+     */
+    public ModbusPipelinedTransaction(ModbusTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Add request to this transaction. The transaction ID of the request is overwritten on execution.
+     *
+     * @param request request to add
+     */
+    public void addRequest(ModbusRequest request) {
+        results.add(new Result(request));
+    }
+
+    /**
+     * Send all requests and wait for their responses
+     *
+     * @return results in the same order as the requests were added
+     */
+    public List<Result> execute() {
+        Map<Integer, Result> inFlight = new HashMap<>();
+        for (Result result : results) {
+            int transactionId = TRANSACTION_ID_COUNTER.getAndIncrement() & 0xFFFF;
+            result.request.setTransactionID(transactionId);
+        }
+        try {
+            for (Result result : results) {
+                logger.trace("Sending pipelined request (transaction ID={}): {}", result.request.getTransactionID(),
+                        result.request.getHexMessage());
+                transport.writeMessage(result.request);
+                inFlight.put(result.request.getTransactionID(), result);
+            }
+            int unexpectedLeft = MAX_UNEXPECTED_RESPONSES_PER_REQUEST * results.size();
+            while (!inFlight.isEmpty()) {
+                ModbusResponse response = transport.readResponse();
+                Result result = inFlight.remove(response.getTransactionID());
+                if (result == null) {
+                    unexpectedTransactionIds++;
+                    logger.warn("Transaction id of the response ({}) does not match any pipelined request {}. "
+                            + "Ignoring response.", response.getTransactionID(), inFlight.keySet());
+                    if (--unexpectedLeft < 0) {
+                        // Stream is out of sync with our requests, fail the rest
+                        connectionBroken = true;
+                        for (Result unanswered : inFlight.values()) {
+                            unanswered.error = new ModbusUnexpectedTransactionIdException(
+                                    unanswered.request.getTransactionID(), response.getTransactionID());
+                        }
+                        break;
+                    }
+                    continue;
+                }
+                logger.trace("Response for pipelined request (FC={}, transaction ID={}): {}",
+                        response.getFunctionCode(), response.getTransactionID(), response.getHexMessage());
+                if (response instanceof ExceptionResponse) {
+                    result.error = new ModbusSlaveException(((ExceptionResponse) response).getExceptionCode());
+                } else {
+                    result.response = response;
+                }
+            }
+        } catch (ModbusIOException e) {
+            connectionBroken = true;
+            for (Result result : results) {
+                if (!result.isDone()) {
+                    result.error = e;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return whether the connection is unusable after the transaction, e.g. due to I/O error or responses
+     *         that could not be matched to the requests
+     */
+    public boolean isConnectionBroken() {
+        return connectionBroken;
+    }
+
+    /**
+     * @return number of responses whose transaction ID did not match any request
+     */
+    public int getUnexpectedTransactionIds() {
+        return unexpectedTransactionIds;
+    }
+}
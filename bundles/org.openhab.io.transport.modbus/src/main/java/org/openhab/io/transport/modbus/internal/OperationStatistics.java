@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusOperationStatistics;
+import org.openhab.io.transport.modbus.ModbusTimingStatistics;
+
+/**
+ * Statistics of Modbus operations, collected from the {@link AggregateStopWatch}es of the operations
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class OperationStatistics implements ModbusOperationStatistics {
+
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong transactionIdMismatches = new AtomicLong();
+    private final AtomicLong pipelinedRequests = new AtomicLong();
+    private final TimingHistogram total = new TimingHistogram();
+    private final TimingHistogram connection = new TimingHistogram();
+    private final TimingHistogram transaction = new TimingHistogram();
+    private final TimingHistogram callback = new TimingHistogram();
+
+    /**
+     * Record completed operation
+     *
+     * @param timer timer of the operation, with all stop watches suspended
+     * @param failed whether the operation failed after all retries
+     */
+    public void recordOperation(AggregateStopWatch timer, boolean failed) {
+        operations.incrementAndGet();
+        if (failed) {
+            errors.incrementAndGet();
+        }
+        total.record(timer.total.getTotalTimeMillis());
+        connection.record(timer.connection.getTotalTimeMillis());
+        transaction.record(timer.transaction.getTotalTimeMillis());
+        callback.record(timer.callback.getTotalTimeMillis());
+    }
+
+    public void recordTimeout() {
+        timeouts.incrementAndGet();
+    }
+
+    public void recordTransactionIdMismatches(int count) {
+        transactionIdMismatches.addAndGet(count);
+    }
+
+    public void recordPipelinedRequests(int count) {
+        pipelinedRequests.addAndGet(count);
+    }
+
+    public void reset() {
+        operations.set(0);
+        errors.set(0);
+        timeouts.set(0);
+        transactionIdMismatches.set(0);
+        pipelinedRequests.set(0);
+        total.reset();
+        connection.reset();
+        transaction.reset();
+        callback.reset();
+    }
+
+    @Override
+    public long getOperations() {
+        return operations.get();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.get();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    @Override
+    public long getTransactionIdMismatches() {
+        return transactionIdMismatches.get();
+    }
+
+    @Override
+    public long getPipelinedRequests() {
+        return pipelinedRequests.get();
+    }
+
+    @Override
+    public ModbusTimingStatistics getTotalTime() {
+        return total;
+    }
+
+    @Override
+    public ModbusTimingStatistics getConnectionTime() {
+        return connection;
+    }
+
+    @Override
+    public ModbusTimingStatistics getTransactionTime() {
+        return transaction;
+    }
+
+    @Override
+    public ModbusTimingStatistics getCallbackTime() {
+        return callback;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "OperationStatistics(operations=%d, errors=%d, timeouts=%d, transactionIdMismatches=%d, pipelinedRequests=%d, total: %s, connection: %s, transaction: %s, callback: %s)",
+                getOperations(), getErrors(), getTimeouts(), getTransactionIdMismatches(), getPipelinedRequests(),
+                total, connection, transaction, callback);
+    }
+}
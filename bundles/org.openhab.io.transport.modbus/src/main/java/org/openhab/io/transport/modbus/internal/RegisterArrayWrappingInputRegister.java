@@ -73,6 +73,11 @@ public class RegisterArrayWrappingInputRegister implements ModbusRegisterArray {
         return cache.computeIfAbsent(index, i -> new RegisterReference(i));
     }
 
+    @Override
+    public int toUnsignedShort(int index) {
+        return wrapped[index].toUnsignedShort();
+    }
+
     @Override
     public int size() {
         return wrapped.length;
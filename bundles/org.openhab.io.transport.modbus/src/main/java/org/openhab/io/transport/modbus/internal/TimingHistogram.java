@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusTimingStatistics;
+
+/**
+ * Histogram of durations with fixed buckets.
+ *
+ * Recording is lock-free and does not allocate, so it can be done for every operation. Percentiles are estimated
+ * with the upper limit of the bucket containing them.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TimingHistogram implements ModbusTimingStatistics {
+
+    /**
+     * Upper limits (inclusive) of the buckets in milliseconds. Durations exceeding the last limit are counted in an
+     * extra bucket.
+     */
+    private static final long[] BUCKET_LIMITS_MILLIS = { 1, 2, 5, 10, 20, 30, 50, 75, 100, 150, 200, 300, 500, 750,
+            1000, 1500, 2000, 3000, 5000, 10000, 30000, 60000 };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_LIMITS_MILLIS.length + 1);
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    /**
+     * Record a duration
+     *
+     * @param millis duration in milliseconds
+     */
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        int index = Arrays.binarySearch(BUCKET_LIMITS_MILLIS, value);
+        counts.incrementAndGet(index >= 0 ? index : -index - 1);
+        totalMillis.addAndGet(value);
+        maxMillis.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Clear all recorded durations
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalMillis.set(0);
+        maxMillis.set(0);
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public double getAverageMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalMillis.get() / count;
+    }
+
+    @Override
+    public long getMaxMillis() {
+        return maxMillis.get();
+    }
+
+    @Override
+    public long getPercentileMillis(double percentile) {
+        long[] snapshot = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long max = maxMillis.get();
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_LIMITS_MILLIS.length; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return Math.min(BUCKET_LIMITS_MILLIS[i], max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p50/p95/p99/max=%d/%d/%d/%d ms (n=%d)", getPercentileMillis(50),
+                getPercentileMillis(95), getPercentileMillis(99), getMaxMillis(), getCount());
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class BitUtilitiesExtractStatesFromRegistersTest {
+
+    /**
+     * Registers with sign bits set at various positions, see the expected values below
+     */
+    private static final ModbusRegisterArray REGISTERS = new BasicModbusRegisterArray(0x8000, 0xffff, 0x0001, 0x7fff,
+            0xffff, 0xffff, 0xffff, 0xffff, 0x8000, 0x0000, 0x3f80, 0x0000, 0x1234, 0x5678);
+
+    private final List<Integer> indices = new ArrayList<>();
+    private final List<ValueType> types = new ArrayList<>();
+    private final List<DecimalType> expected = new ArrayList<>();
+
+    private void expect(int index, ValueType type, String value) {
+        indices.add(index);
+        types.add(type);
+        expected.add(new DecimalType(value));
+    }
+
+    @Test
+    public void testExpectedValues() {
+        expect(15, ValueType.BIT, "1");
+        expect(14, ValueType.BIT, "0");
+        expect(32, ValueType.BIT, "1");
+        expect(33, ValueType.BIT, "0");
+        expect(0, ValueType.INT8, "0");
+        expect(1, ValueType.INT8, "-128");
+        expect(2, ValueType.INT8, "-1");
+        expect(24, ValueType.INT8, "52");
+        expect(25, ValueType.INT8, "18");
+        expect(1, ValueType.UINT8, "128");
+        expect(2, ValueType.UINT8, "255");
+        expect(0, ValueType.INT16, "-32768");
+        expect(1, ValueType.INT16, "-1");
+        expect(3, ValueType.INT16, "32767");
+        expect(0, ValueType.UINT16, "32768");
+        expect(1, ValueType.UINT16, "65535");
+        expect(0, ValueType.INT32, "-2147418113");
+        expect(4, ValueType.INT32, "-1");
+        expect(8, ValueType.INT32, "-2147483648");
+        expect(12, ValueType.INT32, "305419896");
+        expect(4, ValueType.UINT32, "4294967295");
+        expect(8, ValueType.UINT32, "2147483648");
+        expect(0, ValueType.INT32_SWAP, "-32768");
+        expect(8, ValueType.INT32_SWAP, "32768");
+        expect(12, ValueType.INT32_SWAP, "1450709556");
+        expect(0, ValueType.UINT32_SWAP, "4294934528");
+        expect(10, ValueType.FLOAT32, "1");
+        expect(9, ValueType.FLOAT32_SWAP, "1");
+        expect(0, ValueType.INT64, "-9223090566172934145");
+        expect(4, ValueType.INT64, "-1");
+        expect(8, ValueType.INT64, "-9223372035789422592");
+        expect(0, ValueType.UINT64, "9223653507536617471");
+        expect(4, ValueType.UINT64, "18446744073709551615");
+        expect(0, ValueType.INT64_SWAP, "9223090570467966976");
+        expect(5, ValueType.INT64_SWAP, "-9223090561878065153");
+        expect(10, ValueType.INT64_SWAP, "6230750099014696832");
+        expect(5, ValueType.UINT64_SWAP, "9223653511831486463");
+
+        DecimalType[] states = ModbusBitUtilities.extractStatesFromRegisters(REGISTERS,
+                indices.stream().mapToInt(Integer::intValue).toArray(), types.toArray(new ValueType[0]));
+
+        assertThat(states.length, is(equalTo(expected.size())));
+        for (int i = 0; i < states.length; i++) {
+            String description = types.get(i) + " at " + indices.get(i);
+            assertThat(description, states[i], is(equalTo(expected.get(i))));
+            assertThat(description,
+                    ModbusBitUtilities.extractStateFromRegisters(REGISTERS, indices.get(i), types.get(i)).orElse(null),
+                    is(equalTo(expected.get(i))));
+        }
+    }
+
+    @Test
+    public void testFloatNaN() {
+        ModbusRegisterArray registers = new BasicModbusRegisterArray(0x7fc0, 0x0000, 0x3f80, 0x0000);
+        DecimalType[] states = ModbusBitUtilities.extractStatesFromRegisters(registers, new int[] { 0, 2 },
+                new ValueType[] { ValueType.FLOAT32, ValueType.FLOAT32 });
+        assertThat(states[0], is(nullValue()));
+        assertThat(states[1], is(equalTo(new DecimalType(1))));
+    }
+
+    @Test
+    public void testUnsigned64BitWithHighestBitSet() {
+        ModbusRegisterArray registers = new BasicModbusRegisterArray(0xffff, 0xffff, 0xffff, 0xfffe);
+        DecimalType[] states = ModbusBitUtilities.extractStatesFromRegisters(registers, new int[] { 0, 0 },
+                new ValueType[] { ValueType.UINT64, ValueType.UINT64_SWAP });
+        assertThat(states[0], is(equalTo(new DecimalType("18446744073709551614"))));
+        assertThat(states[1], is(equalTo(new DecimalType("18446462598732840959"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfBounds() {
+        ModbusBitUtilities.extractStatesFromRegisters(new BasicModbusRegisterArray(1, 2), new int[] { 0, 1 },
+                new ValueType[] { ValueType.UINT16, ValueType.INT32 });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLengthMismatch() {
+        ModbusBitUtilities.extractStatesFromRegisters(new BasicModbusRegisterArray(1, 2), new int[] { 0, 1 },
+                new ValueType[] { ValueType.UINT16 });
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class CoalescedPollTaskTest {
+
+    private static final ModbusTCPSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private static class RecordingCallback implements ModbusReadCallback {
+        private final List<Object> received = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            received.add(registers);
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            received.add(bits);
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            received.add(error);
+        }
+    }
+
+    private static PollTask task(ModbusReadFunctionCode functionCode, int start, int length,
+            ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(ENDPOINT, new BasicModbusReadRequestBlueprint(1, functionCode, start, length, 3),
+                callback);
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingAreCombined() {
+        RecordingCallback callback = new RecordingCallback();
+        List<PollTask> result = CoalescedPollTask.coalesce(Arrays.asList(
+                task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 10, callback),
+                task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10, callback),
+                task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 15, 10, callback),
+                task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 30, 5, callback)));
+
+        assertThat(result.size(), is(equalTo(2)));
+        assertThat(result.get(0), is(instanceOf(CoalescedPollTask.class)));
+        assertThat(result.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(result.get(0).getRequest().getDataLength(), is(equalTo(25)));
+        assertThat(((CoalescedPollTask) result.get(0)).getTasks().size(), is(equalTo(3)));
+        // gap between 25 and 30, not combined
+        assertThat(result.get(1), is(not(instanceOf(CoalescedPollTask.class))));
+        assertThat(result.get(1).getRequest().getReference(), is(equalTo(30)));
+    }
+
+    @Test
+    public void testProtocolLimitsRespected() {
+        RecordingCallback callback = new RecordingCallback();
+        List<PollTask> registers = CoalescedPollTask.coalesce(Arrays.asList(
+                task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 100, callback),
+                task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 100, 25, callback),
+                task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 125, 1, callback)));
+        assertThat(registers.size(), is(equalTo(2)));
+        assertThat(registers.get(0).getRequest().getDataLength(), is(equalTo(CoalescedPollTask.MAX_REGISTERS_PER_READ)));
+
+        List<PollTask> coils = CoalescedPollTask.coalesce(
+                Arrays.asList(task(ModbusReadFunctionCode.READ_COILS, 0, 1000, callback),
+                        task(ModbusReadFunctionCode.READ_COILS, 1000, 1000, callback)));
+        assertThat(coils.size(), is(equalTo(1)));
+        assertThat(coils.get(0).getRequest().getDataLength(), is(equalTo(CoalescedPollTask.MAX_BITS_PER_READ)));
+    }
+
+    @Test
+    public void testRegistersAreSliced() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        List<PollTask> result = CoalescedPollTask
+                .coalesce(Arrays.asList(task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 2, first),
+                        task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 6, 3, second)));
+        assertThat(result.size(), is(equalTo(1)));
+        PollTask combined = result.get(0);
+
+        combined.getCallback().onRegisters(combined.getRequest(), new BasicModbusRegisterArray(5, 6, 7, 8));
+
+        ModbusRegisterArray firstRegisters = (ModbusRegisterArray) first.received.get(0);
+        assertThat(firstRegisters.size(), is(equalTo(2)));
+        assertThat(firstRegisters.getRegister(0).getValue(), is(equalTo(5)));
+        assertThat(firstRegisters.getRegister(1).getValue(), is(equalTo(6)));
+        ModbusRegisterArray secondRegisters = (ModbusRegisterArray) second.received.get(0);
+        assertThat(secondRegisters.size(), is(equalTo(3)));
+        assertThat(secondRegisters.getRegister(0).getValue(), is(equalTo(6)));
+        assertThat(secondRegisters.getRegister(2).getValue(), is(equalTo(8)));
+    }
+
+    @Test
+    public void testBitsAreSliced() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        List<PollTask> result = CoalescedPollTask.coalesce(
+                Arrays.asList(task(ModbusReadFunctionCode.READ_COILS, 0, 2, first),
+                        task(ModbusReadFunctionCode.READ_COILS, 2, 2, second)));
+        PollTask combined = result.get(0);
+        combined.getCallback().onBits(combined.getRequest(), new BasicBitArray(true, false, false, true));
+
+        assertThat(first.received.get(0), is(equalTo(new BasicBitArray(true, false))));
+        assertThat(second.received.get(0), is(equalTo(new BasicBitArray(false, true))));
+    }
+
+    @Test
+    public void testErrorsAreForwardedToAll() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        List<PollTask> result = CoalescedPollTask
+                .coalesce(Arrays.asList(task(ModbusReadFunctionCode.READ_INPUT_DISCRETES, 0, 2, first),
+                        task(ModbusReadFunctionCode.READ_INPUT_DISCRETES, 1, 2, second)));
+        PollTask combined = result.get(0);
+        Exception error = new Exception();
+        combined.getCallback().onError(combined.getRequest(), error);
+
+        assertThat(first.received.get(0), is(sameInstance(error)));
+        assertThat(second.received.get(0), is(sameInstance(error)));
+    }
+}
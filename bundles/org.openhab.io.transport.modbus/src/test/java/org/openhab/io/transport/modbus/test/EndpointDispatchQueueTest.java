@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.internal.EndpointDispatchQueue;
+import org.openhab.io.transport.modbus.internal.EndpointDispatchQueue.Priority;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class EndpointDispatchQueueTest {
+
+    @Test
+    public void testHighPriorityFirst() {
+        EndpointDispatchQueue<String> queue = new EndpointDispatchQueue<>();
+        assertTrue(queue.offer("poll1", Priority.LOW, "poll1"));
+        assertTrue(queue.offer("poll2", Priority.LOW, "poll2"));
+        assertTrue(queue.offer("write1", Priority.HIGH, null));
+        assertTrue(queue.offer("write2", Priority.HIGH, null));
+
+        assertThat(queue.getQueueDepth(), is(equalTo(4)));
+        assertThat(queue.poll(3), is(equalTo(Arrays.asList("write1", "write2", "poll1"))));
+        assertThat(queue.poll(3), is(equalTo(Arrays.asList("poll2"))));
+        assertTrue(queue.isEmpty());
+        assertThat(queue.getDispatched(), is(equalTo(4L)));
+        assertThat(queue.getMaxQueueDepth(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testWaitingPollIsMerged() {
+        EndpointDispatchQueue<String> queue = new EndpointDispatchQueue<>();
+        assertTrue(queue.offer("poll", Priority.LOW, "poll"));
+        assertFalse(queue.offer("poll", Priority.LOW, "poll"));
+        assertThat(queue.getMergedPolls(), is(equalTo(1L)));
+        assertThat(queue.poll(10), is(equalTo(Arrays.asList("poll"))));
+
+        // no longer waiting, queued again
+        assertTrue(queue.offer("poll", Priority.LOW, "poll"));
+    }
+
+    @Test
+    public void testPollsDroppedWhenFull() {
+        EndpointDispatchQueue<String> queue = new EndpointDispatchQueue<>(2);
+        assertTrue(queue.offer("poll1", Priority.LOW, "poll1"));
+        assertTrue(queue.offer("poll2", Priority.LOW, "poll2"));
+        assertFalse(queue.offer("poll3", Priority.LOW, "poll3"));
+        // writes are never dropped
+        assertTrue(queue.offer("write", Priority.HIGH, null));
+        assertThat(queue.getDroppedPolls(), is(equalTo(1L)));
+
+        queue.poll(2);
+        assertTrue(queue.offer("poll3", Priority.LOW, "poll3"));
+    }
+
+    @Test
+    public void testRemoveWaitingOperation() {
+        EndpointDispatchQueue<String> queue = new EndpointDispatchQueue<>(1);
+        assertTrue(queue.offer("poll", Priority.LOW, "poll"));
+        assertTrue(queue.offer("write1", Priority.HIGH, null));
+        assertTrue(queue.offer("write2", Priority.HIGH, null));
+
+        assertTrue(queue.remove("write1"));
+        assertFalse(queue.remove("write1"));
+        assertTrue(queue.remove("poll"));
+        assertThat(queue.getQueueDepth(), is(equalTo(1)));
+
+        // the removed poll neither counts towards the maximum nor blocks merging
+        assertTrue(queue.offer("poll", Priority.LOW, "poll"));
+        assertThat(queue.getMergedPolls(), is(equalTo(0L)));
+        assertThat(queue.getDroppedPolls(), is(equalTo(0L)));
+
+        assertThat(queue.poll(10), is(equalTo(Arrays.asList("write2", "poll"))));
+        assertFalse(queue.remove("write2"));
+        assertThat(queue.getDispatched(), is(equalTo(2L)));
+    }
+}
@@ -17,6 +17,7 @@ import static org.junit.Assert.*;
 import static org.junit.Assume.assumeFalse;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -33,6 +34,7 @@ import org.openhab.io.transport.modbus.BasicWriteTask;
 import org.openhab.io.transport.modbus.BitArray;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
+import org.openhab.io.transport.modbus.ModbusOperationStatistics;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
@@ -295,6 +297,122 @@ public class SmokeTest extends IntegrationTestSupport {
         testCoilValues(bits, 1);
     }
 
+    /**
+     * The future of a one-off poll is done once the callback has been called
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOneOffPollFutureIsDoneAfterCallback() throws Exception {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+
+        AtomicInteger unexpectedCount = new AtomicInteger();
+        AtomicReference<Object> lastData = new AtomicReference<>();
+
+        BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_COILS, 1, 15, 1),
+                new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                        unexpectedCount.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                        unexpectedCount.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                        lastData.set(bits);
+                    }
+                });
+        ScheduledFuture<?> future = modbusManager.submitOneTimePoll(task);
+        future.get(5, TimeUnit.SECONDS);
+
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+        assertThat(unexpectedCount.get(), is(equalTo(0)));
+        assertThat(lastData.get(), is(notNullValue()));
+        // executed already
+        assertFalse(future.cancel(false));
+    }
+
+    /**
+     * Cancelling the future of a one-off poll waiting for the endpoint prevents its execution
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCancelWaitingOneOffPoll() throws Exception {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+
+        CountDownLatch firstCallbackCalled = new CountDownLatch(1);
+        CountDownLatch firstCallbackReleased = new CountDownLatch(1);
+        AtomicInteger secondCallbackCount = new AtomicInteger();
+
+        BasicPollTaskImpl first = new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_COILS, 1, 15, 1),
+                new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                        firstCallbackCalled.countDown();
+                        try {
+                            // keeps the endpoint busy
+                            firstCallbackReleased.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+        BasicPollTaskImpl second = new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_COILS, 2, 15, 1),
+                new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                        secondCallbackCount.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                        secondCallbackCount.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                        secondCallbackCount.incrementAndGet();
+                    }
+                });
+        ScheduledFuture<?> firstFuture = modbusManager.submitOneTimePoll(first);
+        assertTrue(firstCallbackCalled.await(5, TimeUnit.SECONDS));
+        ScheduledFuture<?> secondFuture = modbusManager.submitOneTimePoll(second);
+
+        // second poll is waiting in the thread pool or in the queue of the endpoint
+        assertTrue(secondFuture.cancel(false));
+        firstCallbackReleased.countDown();
+        firstFuture.get(5, TimeUnit.SECONDS);
+        assertTrue(secondFuture.isCancelled());
+        assertTrue(secondFuture.isDone());
+
+        // the cancelled poll would be executed right after the first one
+        Thread.sleep(500);
+        assertThat(secondCallbackCount.get(), is(equalTo(0)));
+        assertThat(modbustRequestCaptor.getAllReturnValues().size(), is(equalTo(1)));
+    }
+
     /**
      *
      * @throws InterruptedException
@@ -381,6 +499,114 @@ public class SmokeTest extends IntegrationTestSupport {
         testHoldingValues(registers, 1);
     }
 
+    /**
+     * Many one-off reads to the same endpoint with pipelining enabled. All reads should receive the right data, and
+     * the slave answering slowly makes the reads queue up, so that they are sent in pipelined transactions.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testOneOffReadsPipelined() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        EndpointPoolConfiguration config = new EndpointPoolConfiguration();
+        config.setInterTransactionDelayMillis(0);
+        config.setReconnectAfterMillis(-1);
+        config.setMaxInFlightTransactions(4);
+        modbusManager.setEndpointPoolConfiguration(endpoint, config);
+        artificialServerWait = 10;
+
+        int requests = 50;
+        AtomicInteger unexpectedCount = new AtomicInteger();
+        CountDownLatch callbackCalled = new CountDownLatch(requests);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < requests; i++) {
+            int reference = i;
+            BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                    ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, reference, 10, 1), new ModbusReadCallback() {
+
+                        @Override
+                        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                            try {
+                                assertThat(registers.size(), is(equalTo(10)));
+                                testHoldingValues(registers, reference);
+                            } catch (AssertionError e) {
+                                unexpectedCount.incrementAndGet();
+                            }
+                            callbackCalled.countDown();
+                        }
+
+                        @Override
+                        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                            unexpectedCount.incrementAndGet();
+                            callbackCalled.countDown();
+                        }
+
+                        @Override
+                        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                            unexpectedCount.incrementAndGet();
+                            callbackCalled.countDown();
+                        }
+                    });
+            modbusManager.submitOneTimePoll(task);
+        }
+        assertTrue(callbackCalled.await(10, TimeUnit.SECONDS));
+        LoggerFactory.getLogger(this.getClass()).info("{} pipelined reads took {} ms", requests,
+                System.currentTimeMillis() - start);
+        assertThat(unexpectedCount.get(), is(equalTo(0)));
+        waitForRequests(requests);
+        ModbusOperationStatistics statistics = modbusManager.getEndpointStatistics().get(endpoint);
+        assertTrue(statistics.getPipelinedRequests() > 0);
+        assertThat(statistics.getTransactionIdMismatches(), is(equalTo(0L)));
+    }
+
+    /**
+     * Pipelining is not used when a delay between transactions is configured, all reads are executed one by one.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testOneOffReadsNotPipelinedWithInterTransactionDelay() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        EndpointPoolConfiguration config = new EndpointPoolConfiguration();
+        config.setInterTransactionDelayMillis(1);
+        config.setReconnectAfterMillis(-1);
+        config.setMaxInFlightTransactions(4);
+        modbusManager.setEndpointPoolConfiguration(endpoint, config);
+        artificialServerWait = 10;
+
+        int requests = 10;
+        AtomicInteger unexpectedCount = new AtomicInteger();
+        CountDownLatch callbackCalled = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                    ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, i, 10, 1), new ModbusReadCallback() {
+
+                        @Override
+                        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                            callbackCalled.countDown();
+                        }
+
+                        @Override
+                        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                            unexpectedCount.incrementAndGet();
+                            callbackCalled.countDown();
+                        }
+
+                        @Override
+                        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                            unexpectedCount.incrementAndGet();
+                            callbackCalled.countDown();
+                        }
+                    });
+            modbusManager.submitOneTimePoll(task);
+        }
+        assertTrue(callbackCalled.await(10, TimeUnit.SECONDS));
+        assertThat(unexpectedCount.get(), is(equalTo(0)));
+        assertThat(modbusManager.getEndpointStatistics().get(endpoint).getPipelinedRequests(), is(equalTo(0L)));
+    }
+
     /**
      *
      * @throws InterruptedException
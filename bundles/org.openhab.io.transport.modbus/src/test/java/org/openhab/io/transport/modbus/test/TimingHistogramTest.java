@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.internal.TimingHistogram;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class TimingHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        TimingHistogram histogram = new TimingHistogram();
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getPercentileMillis(99), is(equalTo(0L)));
+        assertThat(histogram.getAverageMillis(), is(equalTo(0.0)));
+    }
+
+    @Test
+    public void testPercentiles() {
+        TimingHistogram histogram = new TimingHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(4);
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(40);
+        }
+        histogram.record(400);
+
+        assertThat(histogram.getCount(), is(equalTo(100L)));
+        assertThat(histogram.getPercentileMillis(50), is(equalTo(5L)));
+        assertThat(histogram.getPercentileMillis(95), is(equalTo(50L)));
+        assertThat(histogram.getPercentileMillis(99), is(equalTo(50L)));
+        // highest bucket is capped by the maximum
+        assertThat(histogram.getPercentileMillis(100), is(equalTo(400L)));
+        assertThat(histogram.getMaxMillis(), is(equalTo(400L)));
+        assertThat(histogram.getAverageMillis(), is(equalTo((90 * 4 + 9 * 40 + 400) / 100.0)));
+    }
+
+    @Test
+    public void testBeyondLastBucket() {
+        TimingHistogram histogram = new TimingHistogram();
+        histogram.record(120000);
+        assertThat(histogram.getPercentileMillis(50), is(equalTo(120000L)));
+    }
+
+    @Test
+    public void testReset() {
+        TimingHistogram histogram = new TimingHistogram();
+        histogram.record(10);
+        histogram.reset();
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getMaxMillis(), is(equalTo(0L)));
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Counters describing the batched write path of the {@link MapDbPersistenceService}.
+ *
+ * All counters are cumulative since the service was activated.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbCommitStatistics {
+
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong failedCommits = new AtomicLong();
+    private final AtomicLong totalCommitNanos = new AtomicLong();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+    private final AtomicLong lastCommitNanos = new AtomicLong();
+
+    void storeRequested() {
+        stores.incrementAndGet();
+    }
+
+    void committed(int entries, long durationNanos) {
+        writes.addAndGet(entries);
+        commits.incrementAndGet();
+        totalCommitNanos.addAndGet(durationNanos);
+        lastCommitNanos.set(durationNanos);
+        maxCommitNanos.accumulateAndGet(durationNanos, Math::max);
+    }
+
+    void commitFailed() {
+        failedCommits.incrementAndGet();
+    }
+
+    /**
+     * @return number of {@code store()} calls received
+     */
+    public long getStoreCount() {
+        return stores.get();
+    }
+
+    /**
+     * @return number of entries actually written to the database
+     */
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    /**
+     * @return number of database commits
+     */
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    /**
+     * @return number of commits that failed and were rolled back
+     */
+    public long getFailedCommitCount() {
+        return failedCommits.get();
+    }
+
+    /**
+     * @return duration of the most recent commit in milliseconds
+     */
+    public long getLastCommitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastCommitNanos.get());
+    }
+
+    /**
+     * @return longest commit duration in milliseconds
+     */
+    public long getMaxCommitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxCommitNanos.get());
+    }
+
+    /**
+     * @return average commit duration in milliseconds, 0 if nothing has been committed yet
+     */
+    public double getAverageCommitMillis() {
+        long count = commits.get();
+        return count == 0 ? 0 : totalCommitNanos.get() / 1_000_000d / count;
+    }
+
+    /**
+     * Ratio of stored updates to written entries. A value of 4 means that on average four updates of the same item
+     * were merged into a single write.
+     *
+     * @return the coalesce ratio, 1 if nothing has been written yet
+     */
+    public double getCoalesceRatio() {
+        long written = writes.get();
+        return written == 0 ? 1 : (double) stores.get() / written;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "stores=%d, writes=%d, commits=%d, failedCommits=%d, coalesceRatio=%.2f, avgCommit=%.2fms, maxCommit=%dms",
+                getStoreCount(), getWriteCount(), getCommitCount(), getFailedCommitCount(), getCoalesceRatio(),
+                getAverageCommitMillis(), getMaxCommitMillis());
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.mapdb.BTreeKeySerializer;
+import org.mapdb.DB;
+import org.mapdb.Fun;
+import org.mapdb.Fun.Tuple3;
+
+/**
+ * Append-only, time indexed history of item states.
+ *
+ * The states of all items are kept in a single BTree keyed by (item name, epoch millis, sequence), so that the history
+ * of an item is a contiguous key range and time range queries do not need to look at any other entries. The sequence
+ * keeps states recorded within the same millisecond apart. Nothing is loaded into memory upfront.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbHistory {
+
+    private static final String HISTORY_MAP_NAME = "itemHistory";
+
+    private final NavigableMap<Tuple3<String, Long, Integer>, byte[]> history;
+
+    public MapDbHistory(DB db) {
+        history = db.createTreeMap(HISTORY_MAP_NAME).keySerializer(BTreeKeySerializer.TUPLE3).makeOrGet();
+    }
+
+    /**
+     * Appends the state of the given item at its timestamp. Must be followed by a commit of the database.
+     *
+     * @param item the item to add
+     */
+    public void append(MapDbItem item) {
+        String name = item.getName();
+        long timestamp = item.getTimestamp().getTime();
+        Tuple3<String, Long, Integer> last = history.floorKey(Fun.t3(name, timestamp, Integer.MAX_VALUE));
+        int sequence = last != null && name.equals(last.a) && last.b == timestamp ? last.c + 1 : 0;
+        history.put(Fun.t3(name, timestamp, sequence), MapDbItemSerializer.serialize(item));
+    }
+
+    /**
+     * Checks if any history exists for the given item.
+     *
+     * @param name the item name
+     * @return true if at least one state has been recorded
+     */
+    public boolean contains(String name) {
+        return !range(name, Long.MIN_VALUE, Long.MAX_VALUE).isEmpty();
+    }
+
+    /**
+     * Returns the timestamp of the oldest recorded state of an item.
+     *
+     * @param name the item name
+     * @return the epoch millis of the oldest state or null if there is no history
+     */
+    public @Nullable Long getEarliest(String name) {
+        NavigableMap<Tuple3<String, Long, Integer>, byte[]> range = range(name, Long.MIN_VALUE, Long.MAX_VALUE);
+        return range.isEmpty() ? null : range.firstKey().b;
+    }
+
+    /**
+     * Returns the states of an item matching the given filter. Only the requested time range is visited and
+     * iteration stops as soon as the requested page is complete.
+     *
+     * @param name the item name
+     * @param filter the filter to apply
+     * @return the matching states in the requested order
+     */
+    public List<HistoricItem> query(String name, FilterCriteria filter) {
+        return query(name, filter, Collections.emptyList());
+    }
+
+    /**
+     * Returns the states of an item matching the given filter, including states that have not been appended yet.
+     * The unsaved states are merged into the recorded ones as if they had been appended before the query.
+     *
+     * @param name the item name
+     * @param filter the filter to apply
+     * @param unsaved states of any item waiting to be appended, in the order they were recorded
+     * @return the matching states in the requested order
+     */
+    public List<HistoricItem> query(String name, FilterCriteria filter, Collection<MapDbItem> unsaved) {
+        Date begin = filter.getBeginDate();
+        Date end = filter.getEndDate();
+        long from = begin == null ? Long.MIN_VALUE : begin.getTime();
+        long to = end == null ? Long.MAX_VALUE : end.getTime();
+        boolean descending = filter.getOrdering() == Ordering.DESCENDING;
+        NavigableMap<Tuple3<String, Long, Integer>, byte[]> range = range(name, from, to);
+        if (descending) {
+            range = range.descendingMap();
+        }
+
+        // the sort is stable, so states of the same millisecond keep the order they were recorded in
+        List<MapDbItem> pending = new ArrayList<>();
+        for (MapDbItem item : unsaved) {
+            long timestamp = item.getTimestamp().getTime();
+            if (name.equals(item.getName()) && timestamp >= from && timestamp <= to
+                    && matches(item.getState(), filter)) {
+                pending.add(item);
+            }
+        }
+        pending.sort(Comparator.comparing(MapDbItem::getTimestamp));
+        if (descending) {
+            Collections.reverse(pending);
+        }
+
+        int pageSize = filter.getPageSize();
+        long skip = (long) filter.getPageNumber() * pageSize;
+        List<HistoricItem> result = new ArrayList<>();
+        Iterator<byte[]> values = range.values().iterator();
+        Iterator<MapDbItem> pendingValues = pending.iterator();
+        MapDbItem recorded = next(values, filter);
+        MapDbItem waiting = pendingValues.hasNext() ? pendingValues.next() : null;
+        while (result.size() < pageSize && (recorded != null || waiting != null)) {
+            MapDbItem item;
+            // on equal timestamps the recorded state is the older one
+            if (waiting == null || (recorded != null && (descending
+                    ? recorded.getTimestamp().getTime() > waiting.getTimestamp().getTime()
+                    : recorded.getTimestamp().getTime() <= waiting.getTimestamp().getTime()))) {
+                item = recorded;
+                recorded = next(values, filter);
+            } else {
+                item = waiting;
+                waiting = pendingValues.hasNext() ? pendingValues.next() : null;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    private static @Nullable MapDbItem next(Iterator<byte[]> values, FilterCriteria filter) {
+        while (values.hasNext()) {
+            MapDbItem item = MapDbItemSerializer.deserialize(values.next());
+            if (item != null && matches(item.getState(), filter)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all states of an item recorded before the given time, and all but the newest {@code maxEntries}.
+     * Must be followed by a commit of the database.
+     *
+     * @param name the item name
+     * @param cutoff states older than this epoch millis value are removed, ignored if 0 or less
+     * @param maxEntries the number of states to keep at most, ignored if 0 or less
+     * @return the number of removed states
+     */
+    public int purge(String name, long cutoff, int maxEntries) {
+        int removed = 0;
+        if (cutoff > 0) {
+            NavigableMap<Tuple3<String, Long, Integer>, byte[]> expired = range(name, Long.MIN_VALUE, cutoff - 1);
+            removed += expired.size();
+            expired.clear();
+        }
+        if (maxEntries > 0) {
+            Iterator<Entry<Tuple3<String, Long, Integer>, byte[]>> it = range(name, Long.MIN_VALUE, Long.MAX_VALUE)
+                    .descendingMap().entrySet().iterator();
+            int kept = 0;
+            while (it.hasNext()) {
+                it.next();
+                if (kept < maxEntries) {
+                    kept++;
+                } else {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    private NavigableMap<Tuple3<String, Long, Integer>, byte[]> range(String name, long from, long to) {
+        return history.subMap(Fun.t3(name, from, Integer.MIN_VALUE), true, Fun.t3(name, to, Integer.MAX_VALUE), true);
+    }
+
+    private static boolean matches(State state, FilterCriteria filter) {
+        State expected = filter.getState();
+        Operator operator = filter.getOperator();
+        if (expected == null || operator == null) {
+            return true;
+        }
+        if (state instanceof DecimalType && expected instanceof DecimalType) {
+            int result = ((DecimalType) state).toBigDecimal().compareTo(((DecimalType) expected).toBigDecimal());
+            switch (operator) {
+                case EQ:
+                    return result == 0;
+                case NEQ:
+                    return result != 0;
+                case GT:
+                    return result > 0;
+                case GTE:
+                    return result >= 0;
+                case LT:
+                    return result < 0;
+                case LTE:
+                    return result <= 0;
+                default:
+                    return true;
+            }
+        }
+        // non numerical states can only be compared for equality
+        switch (operator) {
+            case EQ:
+                return state.equals(expected);
+            case NEQ:
+                return !state.equals(expected);
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Date;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
+
+/**
+ * {@link PersistenceItemInfo} built from the item index of the {@link MapDbPersistenceService}.
+ *
+ * The index stores a {@code long[]} of {count, earliest, latest} per item name, see {@link #toIndexEntry()}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemInfo implements PersistenceItemInfo {
+
+    private final String name;
+    private final int count;
+    private final Date earliest;
+    private final Date latest;
+
+    public MapDbItemInfo(String name, int count, Date earliest, Date latest) {
+        this.name = name;
+        this.count = count;
+        this.earliest = earliest;
+        this.latest = latest;
+    }
+
+    /**
+     * Creates an info from an index entry.
+     *
+     * @param name the item name
+     * @param entry the index entry
+     * @return the item info
+     */
+    public static MapDbItemInfo fromIndexEntry(String name, long[] entry) {
+        return new MapDbItemInfo(name, (int) entry[0], new Date(entry[1]), new Date(entry[2]));
+    }
+
+    /**
+     * @return the representation of this info in the item index
+     */
+    public long[] toIndexEntry() {
+        return new long[] { count, earliest.getTime(), latest.getTime() };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public @Nullable Integer getCount() {
+        return count;
+    }
+
+    @Override
+    public @Nullable Date getEarliest() {
+        return earliest;
+    }
+
+    @Override
+    public @Nullable Date getLatest() {
+        return latest;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + count + " states, " + earliest + " - " + latest + ")";
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+
+/**
+ * Compact, versioned binary encoding of {@link MapDbItem}s.
+ *
+ * The layout is: format version (1 byte), item name, timestamp in epoch milliseconds (8 bytes), state type tag (1
+ * byte) and the state value. The most common state types are written in a primitive form, all others fall back to
+ * their class name and {@link State#toFullString()}, just like the {@link StateTypeAdapter} does.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemSerializer {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte TYPE_GENERIC = 0;
+    private static final byte TYPE_DECIMAL = 1;
+    private static final byte TYPE_ON_OFF = 2;
+    private static final byte TYPE_PERCENT = 3;
+    private static final byte TYPE_HSB = 4;
+    private static final byte TYPE_STRING = 5;
+    private static final byte TYPE_OPEN_CLOSED = 6;
+
+    private MapDbItemSerializer() {
+        // static utility class
+    }
+
+    /**
+     * Encodes the given item.
+     *
+     * @param item the item to encode
+     * @return the binary representation of the item
+     */
+    public static byte[] serialize(MapDbItem item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, item.getName());
+            out.writeLong(item.getTimestamp().getTime());
+            writeState(out, item.getState());
+        } catch (IOException e) {
+            // cannot happen when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an item previously encoded by {@link #serialize(MapDbItem)}.
+     *
+     * @param data the binary representation
+     * @return the decoded item or null if the data could not be decoded
+     */
+    public static @Nullable MapDbItem deserialize(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                return null;
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(readString(in));
+            item.setTimestamp(new Date(in.readLong()));
+            State state = readState(in);
+            if (state == null) {
+                return null;
+            }
+            item.setState(state);
+            return item;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void writeState(DataOutputStream out, State state) throws IOException {
+        // exact class checks, as e.g. HSBType is a PercentType is a DecimalType
+        Class<?> type = state.getClass();
+        if (type == OnOffType.class) {
+            out.writeByte(TYPE_ON_OFF);
+            out.writeBoolean(state == OnOffType.ON);
+        } else if (type == OpenClosedType.class) {
+            out.writeByte(TYPE_OPEN_CLOSED);
+            out.writeBoolean(state == OpenClosedType.OPEN);
+        } else if (type == DecimalType.class) {
+            out.writeByte(TYPE_DECIMAL);
+            writeDecimal(out, ((DecimalType) state).toBigDecimal());
+        } else if (type == PercentType.class) {
+            out.writeByte(TYPE_PERCENT);
+            writeDecimal(out, ((PercentType) state).toBigDecimal());
+        } else if (type == HSBType.class) {
+            HSBType hsb = (HSBType) state;
+            out.writeByte(TYPE_HSB);
+            writeDecimal(out, hsb.getHue().toBigDecimal());
+            writeDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (type == StringType.class) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, state.toFullString());
+        } else {
+            out.writeByte(TYPE_GENERIC);
+            writeString(out, type.getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    private static @Nullable State readState(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TYPE_ON_OFF:
+                return in.readBoolean() ? OnOffType.ON : OnOffType.OFF;
+            case TYPE_OPEN_CLOSED:
+                return in.readBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case TYPE_DECIMAL:
+                return new DecimalType(readDecimal(in));
+            case TYPE_PERCENT:
+                return new PercentType(readDecimal(in));
+            case TYPE_HSB:
+                return new HSBType(new DecimalType(readDecimal(in)), new PercentType(readDecimal(in)),
+                        new PercentType(readDecimal(in)));
+            case TYPE_STRING:
+                return new StringType(readString(in));
+            case TYPE_GENERIC:
+                String typeName = readString(in);
+                String value = readString(in);
+                try {
+                    @SuppressWarnings("unchecked")
+                    Class<? extends State> stateClass = (Class<? extends State>) Class.forName(typeName);
+                    List<Class<? extends State>> types = Collections.singletonList(stateClass);
+                    return TypeParser.parseState(types, value);
+                } catch (ClassNotFoundException | ClassCastException e) {
+                    return null;
+                }
+            default:
+                return null;
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedShort()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // not using writeUTF() as it is limited to 64k
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -13,15 +13,23 @@
 package org.openhab.persistence.mapdb.internal;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -37,7 +45,11 @@ import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,11 +61,18 @@ import com.google.gson.GsonBuilder;
  * more about MapDB please visit their <a
  * href="http://www.mapdb.org/">website</a>.
  *
+ * By default only the last state of every item is kept. With the {@code history} option enabled all states are
+ * additionally recorded in a {@link MapDbHistory}, which is then used to answer queries.
+ *
  * @author Jens Viebig - Initial contribution
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", property = {
+                Constants.SERVICE_PID + "=org.openhab.mapdb",
+                "service.config.description.uri=persistence:mapdb", "service.config.label=MapDB Persistence",
+                "service.config.category=persistence" })
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_NAME = "mapdb";
@@ -62,46 +81,155 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    private static final String CONFIG_COMMIT_INTERVAL = "commitInterval";
+    private static final String CONFIG_MAX_BATCH_SIZE = "maxBatchSize";
+    private static final String CONFIG_HISTORY = "history";
+    private static final String CONFIG_HISTORY_RETENTION_DAYS = "historyRetentionDays";
+    private static final String CONFIG_HISTORY_MAX_ENTRIES = "historyMaxEntries";
+    private static final String CONFIG_CACHE_SIZE = "cacheSize";
+
+    private static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 1000;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 500;
+    private static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private static final long HISTORY_PURGE_INTERVAL_MINUTES = 60;
+    private static final long STATISTICS_LOG_INTERVAL_MINUTES = 60;
+
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     @NonNullByDefault({})
-    private ExecutorService threadPool;
+    private ScheduledExecutorService threadPool;
 
     /** holds the local instance of the MapDB database */
     @NonNullByDefault({})
     private DB db;
+    /** values are binary encoded items, or Gson JSON strings written by earlier versions */
+    @NonNullByDefault({})
+    private Map<String, Object> map;
+
+    /** item name to {count, earliest, latest}, see {@link MapDbItemInfo} */
     @NonNullByDefault({})
-    private Map<String, String> map;
+    private Map<String, long[]> index;
+
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+
+    /** most recently used decoded last states */
+    @SuppressWarnings("serial")
+    private final Map<String, MapDbItem> cache = Collections
+            .synchronizedMap(new LinkedHashMap<String, MapDbItem>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, MapDbItem> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+
+    /** updates waiting for the next commit, only the latest state per alias is kept */
+    private final Map<String, MapDbItem> pending = new ConcurrentHashMap<>();
+
+    /** set while a flush triggered by a full batch is waiting to be executed */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final MapDbCommitStatistics statistics = new MapDbCommitStatistics();
+
+    private long commitInterval = DEFAULT_COMMIT_INTERVAL_MILLIS;
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
 
+    private @Nullable ScheduledFuture<?> commitJob;
+    private @Nullable ScheduledFuture<?> statisticsJob;
+
+    /** every update waiting to be appended to the history with the next commit */
+    private final ConcurrentLinkedQueue<MapDbItem> pendingHistory = new ConcurrentLinkedQueue<>();
+
+    private boolean historyEnabled;
+    private int historyRetentionDays;
+    private int historyMaxEntries;
+
+    private @Nullable MapDbHistory history;
+
+    private @Nullable ScheduledFuture<?> purgeJob;
+
+    /** only used to read entries written by earlier versions */
     private transient Gson mapper = new GsonBuilder()
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
-    public void activate() {
+    @Activate
+    public void activate(final @Nullable Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
-        threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+        threadPool = createThreadPool();
+        applyConfig(config);
 
-        File folder = new File(DB_FOLDER_NAME);
-        if (!folder.exists()) {
-            if (!folder.mkdirs()) {
-                logger.warn("Failed to create one or more directories in the path '{}'", DB_FOLDER_NAME);
-                logger.warn("MapDB persistence service activation has failed.");
-                return;
-            }
+        db = openDatabase();
+        if (db == null) {
+            logger.warn("MapDB persistence service activation has failed.");
+            return;
         }
-
-        File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
-        db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
         map = db.createTreeMap("itemStore").makeOrGet();
+        index = db.createTreeMap("itemIndex").makeOrGet();
+        history = new MapDbHistory(db);
+        if (index.isEmpty() && !map.isEmpty()) {
+            buildIndex();
+        }
+        scheduleJobs();
         logger.debug("MapDB persistence service is now activated");
     }
 
+    /**
+     * Opens the database file, creating its folder if needed. Tests replace it by a database of their own.
+     *
+     * @return the database or {@code null} if the folder cannot be created
+     */
+    @Nullable
+    DB openDatabase() {
+        File folder = new File(DB_FOLDER_NAME);
+        if (!folder.exists() && !folder.mkdirs()) {
+            logger.warn("Failed to create one or more directories in the path '{}'", DB_FOLDER_NAME);
+            return null;
+        }
+        return DBMaker.newFileDB(new File(folder, DB_FILE_NAME)).closeOnJvmShutdown().make();
+    }
+
+    /**
+     * Returns the scheduler of the commits, purges and statistics. Tests replace it to run these jobs themselves.
+     */
+    ScheduledExecutorService createThreadPool() {
+        return ThreadPoolManager.getScheduledPool(MapDbPersistenceService.class.getSimpleName());
+    }
+
+    @Modified
+    public void modified(final @Nullable Map<String, Object> config) {
+        applyConfig(config);
+        if (db != null) {
+            scheduleJobs();
+        }
+    }
+
+    @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        cache.clear();
+        ScheduledFuture<?> job = commitJob;
+        if (job != null) {
+            job.cancel(false);
+            commitJob = null;
+        }
+        job = purgeJob;
+        if (job != null) {
+            job.cancel(false);
+            purgeJob = null;
+        }
+        job = statisticsJob;
+        if (job != null) {
+            job.cancel(false);
+            statisticsJob = null;
+        }
         if (db != null) {
+            // make sure nothing that was accepted by store() gets lost
+            flush();
             db.close();
         }
+        logger.debug("MapDB write statistics: {}", statistics);
         threadPool.shutdown();
     }
 
@@ -115,11 +243,30 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return SERVICE_NAME;
     }
 
+    /**
+     * Returns the counters of the batched write path.
+     *
+     * @return the write statistics of this service
+     */
+    public MapDbCommitStatistics getStatistics() {
+        return statistics;
+    }
+
     @Override
-    public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream()
-                .map(this::deserialize)
-                .flatMap(MapDbPersistenceService::streamOptional)
+    public synchronized Set<PersistenceItemInfo> getItemInfo() {
+        // states that are not committed yet are added to a copy of the index instead of forcing a commit
+        Map<String, long[]> entries = new HashMap<>(index);
+        for (MapDbItem item : pendingHistory) {
+            entries.put(item.getName(),
+                    indexed(item.getName(), entries.get(item.getName()), item.getTimestamp().getTime(), -1)
+                            .toIndexEntry());
+        }
+        for (MapDbItem item : pending.values()) {
+            entries.put(item.getName(), indexed(item.getName(), entries.get(item.getName()),
+                    item.getTimestamp().getTime(), historyEnabled ? 0 : 1).toIndexEntry());
+        }
+        return entries.entrySet().stream()
+                .map(entry -> MapDbItemInfo.fromIndexEntry(entry.getKey(), entry.getValue()))
                 .collect(Collectors.<PersistenceItemInfo>toSet());
     }
 
@@ -145,31 +292,69 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(alias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
-        logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
+        pending.put(alias, mItem);
+        if (historyEnabled) {
+            pendingHistory.add(mItem);
+        }
+        statistics.storeRequested();
+        if (pending.size() >= maxBatchSize && flushScheduled.compareAndSet(false, true)) {
+            threadPool.submit(this::flush);
+        }
+        logger.debug("Queued '{}' with state '{}' for MapDB database", alias, state.toString());
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
-            return Collections.emptyList();
+        String itemName = filter.getItemName();
+        MapDbHistory history = this.history;
+        if (historyEnabled && history != null && itemName != null) {
+            // holding the lock keeps a concurrent flush from moving states between the queue and the database
+            synchronized (this) {
+                if (history.contains(itemName)
+                        || pendingHistory.stream().anyMatch(item -> item.getName().equals(itemName))) {
+                    return history.query(itemName, filter, pendingHistory);
+                }
+            }
         }
-        Optional<MapDbItem> item = deserialize(json);
-        if (!item.isPresent()) {
+        if (itemName == null) {
             return Collections.emptyList();
         }
-        return Collections.singletonList(item.get());
+        MapDbItem latest = pending.get(itemName);
+        if (latest == null) {
+            latest = cache.get(itemName);
+        }
+        if (latest == null) {
+            Object value = map.get(itemName);
+            if (value == null) {
+                return Collections.emptyList();
+            }
+            Optional<MapDbItem> item = deserialize(value);
+            if (!item.isPresent()) {
+                return Collections.emptyList();
+            }
+            latest = item.get();
+            cache.put(itemName, latest);
+        }
+        return Collections.singletonList(latest);
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private byte[] serialize(MapDbItem item) {
+        return MapDbItemSerializer.serialize(item);
     }
 
-    private Optional<MapDbItem> deserialize(String json) {
-        MapDbItem item = mapper.<MapDbItem>fromJson(json, MapDbItem.class);
+    /**
+     * Decodes a stored entry, either binary encoded or a Gson JSON string written by earlier versions.
+     */
+    Optional<MapDbItem> deserialize(Object value) {
+        if (value instanceof byte[]) {
+            MapDbItem item = MapDbItemSerializer.deserialize((byte[]) value);
+            if (item == null) {
+                logger.warn("Failed to decode binary MapDB entry");
+                return Optional.empty();
+            }
+            return Optional.of(item);
+        }
+        MapDbItem item = mapper.<MapDbItem>fromJson(value.toString(), MapDbItem.class);
         if (item == null || !item.isValid()) {
             logger.warn("Deserialized invalid item: {}", item);
             return Optional.empty();
@@ -177,14 +362,213 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
-    private void commit() {
-        threadPool.submit(() -> db.commit());
+    /**
+     * Writes all pending updates to the database and commits them in a single transaction.
+     */
+    private synchronized void flush() {
+        flushScheduled.set(false);
+        if (pending.isEmpty() && pendingHistory.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<MapDbItem> historicItems = new ArrayList<>();
+        MapDbItem historicItem;
+        while ((historicItem = pendingHistory.poll()) != null) {
+            historicItems.add(historicItem);
+        }
+        Map<String, MapDbItem> items = new HashMap<>();
+        for (String alias : pending.keySet()) {
+            MapDbItem item = pending.remove(alias);
+            if (item != null) {
+                items.put(alias, item);
+            }
+        }
+        try {
+            MapDbHistory history = this.history;
+            if (history != null) {
+                for (MapDbItem item : historicItems) {
+                    history.append(item);
+                    updateIndex(item.getName(), item.getTimestamp().getTime(), -1);
+                }
+            }
+            for (Map.Entry<String, MapDbItem> entry : items.entrySet()) {
+                map.put(entry.getKey(), serialize(entry.getValue()));
+                updateIndex(entry.getKey(), entry.getValue().getTimestamp().getTime(), historyEnabled ? 0 : 1);
+            }
+            db.commit();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to commit {} item states to MapDB database: {}", items.size(), e.getMessage());
+            rollback();
+            // states stored in the meantime are newer and win over the ones of the failed batch
+            items.forEach(pending::putIfAbsent);
+            pendingHistory.addAll(historicItems);
+            statistics.commitFailed();
+            return;
+        }
+        cache.putAll(items);
+        statistics.committed(items.size(), System.nanoTime() - start);
+        logger.trace("Committed {} item states to MapDB database", items.size());
+    }
+
+    private void rollback() {
+        try {
+            db.rollback();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to roll back MapDB transaction: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Updates the index entry of an item for a newly written state.
+     *
+     * @param name the item name
+     * @param timestamp the timestamp of the state
+     * @param count the new count, or -1 to increment the current count
+     */
+    private void updateIndex(String name, long timestamp, int count) {
+        index.put(name, indexed(name, index.get(name), timestamp, count).toIndexEntry());
+    }
+
+    /**
+     * Returns the info of an item after a new state was written.
+     *
+     * @param name the item name
+     * @param entry the current index entry of the item, or {@code null} if it is not indexed yet
+     * @param timestamp the timestamp of the state
+     * @param count the new count, or -1 to increment the current count
+     * @return the updated info
+     */
+    private static MapDbItemInfo indexed(String name, long @Nullable [] entry, long timestamp, int count) {
+        if (entry == null) {
+            return new MapDbItemInfo(name, Math.max(1, count), new Date(timestamp), new Date(timestamp));
+        }
+        long newCount = count < 0 ? entry[0] + 1 : Math.max(entry[0], count);
+        return new MapDbItemInfo(name, (int) newCount, new Date(Math.min(entry[1], timestamp)),
+                new Date(Math.max(entry[2], timestamp)));
     }
 
-    private static <T> Stream<T> streamOptional(Optional<T> opt) {
-        if (!opt.isPresent()) {
-            return Stream.empty();
+    /**
+     * Creates the item index for a database written by an earlier version, and rewrites its JSON entries in the
+     * binary encoding. Both happen in a single commit, so an existing index means that nothing is left to migrate.
+     */
+    private void buildIndex() {
+        logger.debug("Building MapDB item index for {} items", map.size());
+        int migrated = 0;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            Optional<MapDbItem> item = deserialize(value);
+            if (!item.isPresent()) {
+                continue;
+            }
+            updateIndex(item.get().getName(), item.get().getTimestamp().getTime(), 1);
+            // only replace the entry if it has not been written since it was read
+            if (!(value instanceof byte[]) && map.replace(entry.getKey(), value, serialize(item.get()))) {
+                migrated++;
+            }
+        }
+        db.commit();
+        logger.debug("Migrated {} MapDB entries to the binary encoding", migrated);
+    }
+
+    private void scheduleJobs() {
+        ScheduledFuture<?> job = commitJob;
+        if (job != null) {
+            job.cancel(false);
+        }
+        commitJob = threadPool.scheduleWithFixedDelay(this::flush, commitInterval, commitInterval,
+                TimeUnit.MILLISECONDS);
+
+        job = purgeJob;
+        if (job != null) {
+            job.cancel(false);
+            purgeJob = null;
+        }
+        if (historyEnabled && (historyRetentionDays > 0 || historyMaxEntries > 0)) {
+            purgeJob = threadPool.scheduleWithFixedDelay(this::purgeHistory, 1, HISTORY_PURGE_INTERVAL_MINUTES,
+                    TimeUnit.MINUTES);
+        }
+
+        if (statisticsJob == null) {
+            statisticsJob = threadPool.scheduleWithFixedDelay(
+                    () -> logger.debug("MapDB write statistics: {}", statistics), STATISTICS_LOG_INTERVAL_MINUTES,
+                    STATISTICS_LOG_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Applies the configured retention limits to the history of all items.
+     */
+    private synchronized void purgeHistory() {
+        MapDbHistory history = this.history;
+        if (history == null) {
+            return;
+        }
+        long cutoff = historyRetentionDays > 0
+                ? System.currentTimeMillis() - TimeUnit.DAYS.toMillis(historyRetentionDays)
+                : 0;
+        int removed = 0;
+        for (String name : map.keySet()) {
+            int purged = history.purge(name, cutoff, historyMaxEntries);
+            long[] entry = index.get(name);
+            if (purged > 0 && entry != null) {
+                // without any historic state left, only the last state of the item remains
+                Long earliest = history.getEarliest(name);
+                index.put(name, new MapDbItemInfo(name, (int) Math.max(1, entry[0] - purged),
+                        new Date(earliest != null ? earliest : entry[2]), new Date(entry[2])).toIndexEntry());
+            }
+            removed += purged;
+        }
+        if (removed > 0) {
+            db.commit();
+            logger.debug("Removed {} expired states from MapDB history", removed);
+        }
+    }
+
+    private void applyConfig(@Nullable Map<String, Object> config) {
+        commitInterval = DEFAULT_COMMIT_INTERVAL_MILLIS;
+        maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        historyEnabled = false;
+        historyRetentionDays = 0;
+        historyMaxEntries = 0;
+        cacheSize = DEFAULT_CACHE_SIZE;
+        if (config == null) {
+            return;
+        }
+        try {
+            Object value = config.get(CONFIG_COMMIT_INTERVAL);
+            if (value != null) {
+                commitInterval = Math.max(1, Long.parseLong(value.toString().trim()));
+            }
+            value = config.get(CONFIG_MAX_BATCH_SIZE);
+            if (value != null) {
+                maxBatchSize = Math.max(1, Integer.parseInt(value.toString().trim()));
+            }
+            value = config.get(CONFIG_CACHE_SIZE);
+            if (value != null) {
+                cacheSize = Math.max(0, Integer.parseInt(value.toString().trim()));
+            }
+            value = config.get(CONFIG_HISTORY);
+            if (value != null) {
+                historyEnabled = Boolean.parseBoolean(value.toString().trim());
+            }
+            value = config.get(CONFIG_HISTORY_RETENTION_DAYS);
+            if (value != null) {
+                historyRetentionDays = Math.max(0, Integer.parseInt(value.toString().trim()));
+            }
+            value = config.get(CONFIG_HISTORY_MAX_ENTRIES);
+            if (value != null) {
+                historyMaxEntries = Math.max(0, Integer.parseInt(value.toString().trim()));
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid MapDB persistence configuration, using defaults: {}", e.getMessage());
+            commitInterval = DEFAULT_COMMIT_INTERVAL_MILLIS;
+            maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        }
+        logger.debug("MapDB persistence commits every {}ms or after {} pending updates", commitInterval,
+                maxBatchSize);
+        if (historyEnabled) {
+            logger.debug("MapDB history enabled, keeping {} days and {} states per item (0 = unlimited)",
+                    historyRetentionDays, historyMaxEntries);
         }
-        return Stream.of(opt.get());
     }
 }
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.persistence.mapdb.internal.MapDbHistory;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbHistoryTest {
+    private static final String ITEM = "TestItem";
+
+    private DB db;
+    private MapDbHistory history;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.newMemoryDB().make();
+        history = new MapDbHistory(db);
+        for (int i = 1; i <= 5; i++) {
+            history.append(item(ITEM, i * 1000, new DecimalType(i)));
+        }
+        history.append(item("OtherItem", 2500, OnOffType.ON));
+        db.commit();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void queryShouldOnlyReturnStatesWithinTheRange() {
+        FilterCriteria filter = filter();
+        filter.setBeginDate(new Date(2000));
+        filter.setEndDate(new Date(4000));
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(2, 3, 4)));
+
+        filter.setBeginDate(new Date(4001));
+        filter.setEndDate(null);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(5)));
+    }
+
+    @Test
+    public void queryShouldReturnTheRequestedPage() {
+        FilterCriteria filter = filter();
+        filter.setPageSize(2);
+        filter.setPageNumber(0);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(1, 2)));
+        filter.setPageNumber(2);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(5)));
+        filter.setPageNumber(3);
+        assertThat(history.query(ITEM, filter).isEmpty(), is(true));
+    }
+
+    @Test
+    public void queryShouldApplyTheOrdering() {
+        FilterCriteria filter = filter();
+        filter.setOrdering(Ordering.ASCENDING);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(1, 2, 3, 4, 5)));
+
+        filter.setOrdering(Ordering.DESCENDING);
+        filter.setPageSize(2);
+        filter.setPageNumber(1);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(3, 2)));
+    }
+
+    @Test
+    public void queryShouldCompareNumericalStates() {
+        FilterCriteria filter = filter();
+        filter.setState(new DecimalType(3));
+        filter.setOperator(Operator.GT);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(4, 5)));
+        filter.setOperator(Operator.LTE);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(1, 2, 3)));
+        filter.setOperator(Operator.NEQ);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(1, 2, 4, 5)));
+
+        // paging counts matching states only
+        filter.setOperator(Operator.GTE);
+        filter.setPageSize(2);
+        filter.setPageNumber(1);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(5)));
+    }
+
+    @Test
+    public void appendShouldKeepStatesOfTheSameMillisecond() {
+        history.append(item(ITEM, 5000, new DecimalType(6)));
+        history.append(item(ITEM, 5000, new DecimalType(7)));
+
+        FilterCriteria filter = filter();
+        filter.setBeginDate(new Date(5000));
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(5, 6, 7)));
+        filter.setOrdering(Ordering.DESCENDING);
+        assertThat(values(history.query(ITEM, filter)), is(Arrays.asList(7, 6, 5)));
+    }
+
+    @Test
+    public void queryShouldMergeUnsavedStates() {
+        List<MapDbItem> unsaved = Arrays.asList(item(ITEM, 3000, new DecimalType(30)),
+                item("OtherItem", 3500, OnOffType.OFF), item(ITEM, 6000, new DecimalType(6)));
+
+        FilterCriteria filter = filter();
+        assertThat(values(history.query(ITEM, filter, unsaved)), is(Arrays.asList(1, 2, 3, 30, 4, 5, 6)));
+
+        filter.setOrdering(Ordering.DESCENDING);
+        filter.setPageSize(3);
+        filter.setPageNumber(1);
+        assertThat(values(history.query(ITEM, filter, unsaved)), is(Arrays.asList(30, 3, 2)));
+    }
+
+    @Test
+    public void purgeShouldRemoveStatesOlderThanTheCutoff() {
+        assertThat(history.purge(ITEM, 3000, 0), is(2));
+        assertThat(history.getEarliest(ITEM), is(3000L));
+        assertThat(values(history.query(ITEM, filter())), is(Arrays.asList(3, 4, 5)));
+        assertThat(history.getEarliest("OtherItem"), is(2500L));
+    }
+
+    @Test
+    public void purgeShouldKeepTheNewestStates() {
+        assertThat(history.purge(ITEM, 0, 2), is(3));
+        assertThat(values(history.query(ITEM, filter())), is(Arrays.asList(4, 5)));
+        assertThat(history.purge(ITEM, 0, 2), is(0));
+        assertThat(history.contains("OtherItem"), is(true));
+    }
+
+    private FilterCriteria filter() {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(ITEM);
+        filter.setOrdering(Ordering.ASCENDING);
+        return filter;
+    }
+
+    private List<Integer> values(List<HistoricItem> items) {
+        return items.stream().map(item -> ((DecimalType) item.getState()).intValue()).collect(Collectors.toList());
+    }
+
+    private MapDbItem item(String name, long timestamp, State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(state);
+        item.setTimestamp(new Date(timestamp));
+        return item;
+    }
+}
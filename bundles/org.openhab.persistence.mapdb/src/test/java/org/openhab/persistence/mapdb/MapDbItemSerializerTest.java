@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemSerializer;
+import org.openhab.persistence.mapdb.internal.StateTypeAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbItemSerializerTest {
+    Gson mapper = new GsonBuilder()
+        .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
+        .create();
+
+    @Test
+    public void serializeDeserializeRoundtripShouldRecreateTheWrittenItem() {
+        assertRoundtrip(OnOffType.ON);
+        assertRoundtrip(OnOffType.OFF);
+        assertRoundtrip(OpenClosedType.CLOSED);
+        assertRoundtrip(new DecimalType("-12345678901234567890.123456789"));
+        assertRoundtrip(new DecimalType(21.5));
+        assertRoundtrip(PercentType.HUNDRED);
+        assertRoundtrip(new PercentType("33.3"));
+        assertRoundtrip(HSBType.GREEN);
+        assertRoundtrip(new HSBType("120.5,33.25,80"));
+        assertRoundtrip(StringType.valueOf("test äöü"));
+        assertRoundtrip(new DateTimeType("2019-04-01T12:00:00.000+0200"));
+    }
+
+    @Test
+    public void binaryEncodingShouldBeSmallerThanJson() {
+        MapDbItem item = item(new DecimalType(21.5));
+        int jsonSize = mapper.toJson(item).getBytes(StandardCharsets.UTF_8).length;
+        assertThat(MapDbItemSerializer.serialize(item).length < jsonSize, is(true));
+    }
+
+    @Test
+    public void deserializeShouldRejectUnknownData() {
+        assertThat(MapDbItemSerializer.deserialize(new byte[] { 42 }), is(nullValue()));
+        assertThat(MapDbItemSerializer.deserialize(new byte[0]), is(nullValue()));
+    }
+
+    private void assertRoundtrip(State state) {
+        MapDbItem item = item(state);
+        MapDbItem result = MapDbItemSerializer.deserialize(MapDbItemSerializer.serialize(item));
+        assertThat(result, is(notNullValue()));
+        assertThat(result.getName(), is(equalTo(item.getName())));
+        assertThat(result.getTimestamp(), is(equalTo(item.getTimestamp())));
+        assertThat(result.getState(), is(equalTo(state)));
+    }
+
+    private MapDbItem item(State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName("TestItem");
+        item.setState(state);
+        item.setTimestamp(new Date(1554112800000L));
+        return item;
+    }
+}
@@ -0,0 +1,403 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.smarthome.core.library.items.NumberItem;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mockito.ArgumentCaptor;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests the batched writes, the item index, the cache and the migration of the {@link MapDbPersistenceService}.
+ * The jobs of the service are run by the test instead of a scheduler.
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbPersistenceServiceTest {
+    /** ten days ago in whole seconds, as Gson only writes dates with a precision of seconds */
+    private static final long OLD = (System.currentTimeMillis() - TimeUnit.DAYS.toMillis(10)) / 1000 * 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService threadPool = mock(ScheduledExecutorService.class);
+
+    private File file;
+    private DB db;
+    private MapDbPersistenceService service;
+
+    /** number of stored entries decoded by the service */
+    private int deserialized;
+    private Consumer<Object> onDeserialize = value -> {
+    };
+
+    @Before
+    public void setUp() {
+        file = new File(folder.getRoot(), "storage.mapdb");
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null && !db.isClosed()) {
+            db.close();
+        }
+    }
+
+    @Test
+    public void updatesOfTheSameAliasAreCoalesced() {
+        activate(open());
+        store("Temperature", 20, null);
+        store("Temperature", 21, null);
+        store("Temperature", 22, "Alias");
+        commitJob().run();
+
+        MapDbCommitStatistics statistics = service.getStatistics();
+        assertThat(statistics.getStoreCount(), is(3L));
+        assertThat(statistics.getWriteCount(), is(2L));
+        assertThat(statistics.getCommitCount(), is(1L));
+        assertThat(itemStore().keySet(), is(new HashSet<>(Arrays.asList("Temperature", "Alias"))));
+        assertThat(state("Temperature"), is(new DecimalType(21)));
+        assertThat(state("Alias"), is(new DecimalType(22)));
+    }
+
+    @Test
+    public void fullBatchIsFlushedOnce() {
+        activate(open(), "maxBatchSize", "2");
+        store("A", 1, null);
+        verify(threadPool, never()).submit(any(Runnable.class));
+
+        store("B", 1, null);
+        store("C", 1, null);
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool, times(1)).submit(flush.capture());
+        assertTrue(itemStore().isEmpty());
+
+        flush.getValue().run();
+        assertThat(itemStore().size(), is(3));
+        assertThat(service.getStatistics().getCommitCount(), is(1L));
+
+        // The next full batch is flushed again
+        store("D", 1, null);
+        store("E", 1, null);
+        verify(threadPool, times(2)).submit(any(Runnable.class));
+    }
+
+    @Test
+    public void queuedStatesAreCommittedAfterTheCommitInterval() {
+        activate(open(), "commitInterval", "250");
+        store("A", 1, null);
+        assertTrue(itemStore().isEmpty());
+
+        Runnable commit = job(250, 250, TimeUnit.MILLISECONDS);
+        commit.run();
+        assertTrue(itemStore().containsKey("A"));
+        assertThat(service.getStatistics().getCommitCount(), is(1L));
+
+        // Nothing to commit without new states
+        commit.run();
+        assertThat(service.getStatistics().getCommitCount(), is(1L));
+    }
+
+    @Test
+    public void failedCommitIsRolledBackAndRetried() {
+        DB db = spy(open());
+        activate(db);
+        store("A", 20, null);
+
+        doThrow(new RuntimeException("disk full")).doCallRealMethod().when(db).commit();
+        commitJob().run();
+        assertThat(service.getStatistics().getFailedCommitCount(), is(1L));
+        assertThat(service.getStatistics().getCommitCount(), is(0L));
+        assertFalse(itemStore().containsKey("A"));
+        assertThat(state("A"), is(new DecimalType(20)));
+        assertThat(info("A").getCount(), is(1));
+
+        commitJob().run();
+        assertThat(service.getStatistics().getCommitCount(), is(1L));
+        assertTrue(itemStore().containsKey("A"));
+        assertThat(info("A").getCount(), is(1));
+    }
+
+    @Test
+    public void deactivateCommitsQueuedStates() {
+        activate(open());
+        store("A", 20, null);
+        service.deactivate();
+        assertTrue(db.isClosed());
+
+        activate(open());
+        assertThat(state("A"), is(new DecimalType(20)));
+    }
+
+    @Test
+    public void itemInfoIncludesQueuedStatesWithoutCommitting() {
+        activate(open());
+        store("A", 20, null);
+        store("A", 21, null);
+
+        assertThat(info("A").getCount(), is(1));
+        assertThat(service.getStatistics().getCommitCount(), is(0L));
+        assertTrue(itemStore().isEmpty());
+    }
+
+    @Test
+    public void indexIsMaintainedAcrossStoreCommitAndRestart() {
+        activate(open(), "history", "true");
+        store("A", 1, null);
+        store("A", 2, null);
+        store("A", 3, null);
+        assertThat(info("A").getCount(), is(3));
+
+        commitJob().run();
+        PersistenceItemInfo info = info("A");
+        assertThat(info.getCount(), is(3));
+        assertFalse(info.getEarliest().after(info.getLatest()));
+
+        store("A", 4, null);
+        assertThat(info("A").getCount(), is(4));
+        commitJob().run();
+        Date latest = info("A").getLatest();
+        service.deactivate();
+
+        deserialized = 0;
+        activate(open(), "history", "true");
+        assertThat(info("A").getCount(), is(4));
+        assertThat(info("A").getLatest(), is(latest));
+        // The info is read from the index without decoding the stored states
+        assertThat(deserialized, is(0));
+    }
+
+    @Test
+    public void purgeUpdatesTheIndex() {
+        DB db = open();
+        history(db, "A", OLD - 2000, OLD - 1000, OLD);
+        activate(db, "history", "true", "historyMaxEntries", "2");
+
+        job(1, 60, TimeUnit.MINUTES).run();
+        PersistenceItemInfo info = info("A");
+        assertThat(info.getCount(), is(2));
+        assertThat(info.getEarliest(), is(new Date(OLD - 1000)));
+        assertThat(info.getLatest(), is(new Date(OLD)));
+    }
+
+    @Test
+    public void purgeOfTheWholeHistoryFallsBackToTheLastState() {
+        DB db = open();
+        history(db, "A", OLD - 1000, OLD);
+        activate(db, "history", "true", "historyRetentionDays", "1");
+
+        job(1, 60, TimeUnit.MINUTES).run();
+        PersistenceItemInfo info = info("A");
+        assertThat(info.getCount(), is(1));
+        assertThat(info.getEarliest(), is(new Date(OLD)));
+        assertThat(info.getLatest(), is(new Date(OLD)));
+    }
+
+    @Test
+    public void queryUsesTheCache() {
+        DB db = open();
+        Map<String, Object> itemStore = db.getTreeMap("itemStore");
+        itemStore.put("A", MapDbItemSerializer.serialize(item("A", OLD, new DecimalType(1))));
+        itemStore.put("B", MapDbItemSerializer.serialize(item("B", OLD, new DecimalType(2))));
+        db.commit();
+        activate(db, "cacheSize", "1");
+        deserialized = 0;
+
+        assertThat(state("A"), is(new DecimalType(1)));
+        assertThat(state("A"), is(new DecimalType(1)));
+        assertThat(deserialized, is(1));
+
+        // Only one state fits into the cache
+        assertThat(state("B"), is(new DecimalType(2)));
+        assertThat(state("A"), is(new DecimalType(1)));
+        assertThat(deserialized, is(3));
+
+        // Committed states are cached without decoding them
+        store("C", 3, null);
+        commitJob().run();
+        assertThat(state("C"), is(new DecimalType(3)));
+        assertThat(deserialized, is(3));
+    }
+
+    @Test
+    public void legacyJsonEntriesAreMigrated() {
+        DB db = open();
+        Map<String, Object> itemStore = db.getTreeMap("itemStore");
+        itemStore.put("Legacy", json(item("Legacy", OLD, new DecimalType(5))));
+        itemStore.put("Binary", MapDbItemSerializer.serialize(item("Binary", OLD + 1000, new DecimalType(6))));
+        db.commit();
+        activate(db);
+
+        assertThat(itemStore().get("Legacy"), is(instanceOf(byte[].class)));
+        assertThat(state("Legacy"), is(new DecimalType(5)));
+        assertThat(state("Binary"), is(new DecimalType(6)));
+        PersistenceItemInfo info = info("Legacy");
+        assertThat(info.getCount(), is(1));
+        assertThat(info.getLatest(), is(new Date(OLD)));
+        assertThat(info("Binary").getLatest(), is(new Date(OLD + 1000)));
+
+        // The migration is committed
+        service.deactivate();
+        activate(open());
+        assertThat(itemStore().get("Legacy"), is(instanceOf(byte[].class)));
+        assertThat(state("Legacy"), is(new DecimalType(5)));
+    }
+
+    @Test
+    public void entryWrittenDuringTheMigrationIsKept() {
+        DB db = open();
+        db.getTreeMap("itemStore").put("Legacy", json(item("Legacy", OLD, new DecimalType(5))));
+        db.commit();
+
+        // A newer state is written between reading and replacing the legacy entry
+        byte[] newer = MapDbItemSerializer.serialize(item("Legacy", OLD + 1000, new DecimalType(7)));
+        onDeserialize = value -> {
+            if (value instanceof String) {
+                db.getTreeMap("itemStore").put("Legacy", newer);
+            }
+        };
+        activate(db);
+
+        assertThat(itemStore().get("Legacy"), is(newer));
+        assertThat(state("Legacy"), is(new DecimalType(7)));
+    }
+
+    private DB open() {
+        return DBMaker.newFileDB(file).make();
+    }
+
+    private void activate(DB db, String... config) {
+        this.db = db;
+        Map<String, Object> configuration = new HashMap<>();
+        for (int i = 0; i < config.length; i += 2) {
+            configuration.put(config[i], config[i + 1]);
+        }
+        service = new MapDbPersistenceService() {
+            @Override
+            DB openDatabase() {
+                return db;
+            }
+
+            @Override
+            ScheduledExecutorService createThreadPool() {
+                return threadPool;
+            }
+
+            @Override
+            Optional<MapDbItem> deserialize(Object value) {
+                deserialized++;
+                onDeserialize.accept(value);
+                return super.deserialize(value);
+            }
+        };
+        service.activate(configuration);
+    }
+
+    private Runnable commitJob() {
+        return job(1000, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the job of the last activated service that was scheduled with the given delays.
+     */
+    private Runnable job(long initialDelay, long delay, TimeUnit unit) {
+        ArgumentCaptor<Runnable> job = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool, atLeastOnce()).scheduleWithFixedDelay(job.capture(), eq(initialDelay), eq(delay),
+                eq(unit));
+        return job.getValue();
+    }
+
+    private Map<String, Object> itemStore() {
+        return db.getTreeMap("itemStore");
+    }
+
+    /**
+     * Writes a history of states as an earlier run of the service would have left it.
+     */
+    private void history(DB db, String name, long... timestamps) {
+        MapDbHistory history = new MapDbHistory(db);
+        MapDbItem item = null;
+        for (int i = 0; i < timestamps.length; i++) {
+            item = item(name, timestamps[i], new DecimalType(i));
+            history.append(item);
+        }
+        db.getTreeMap("itemStore").put(name, MapDbItemSerializer.serialize(item));
+        db.<String, long[]> getTreeMap("itemIndex").put(name,
+                new long[] { timestamps.length, timestamps[0], timestamps[timestamps.length - 1] });
+        db.commit();
+    }
+
+    private void store(String name, int value, String alias) {
+        NumberItem item = new NumberItem(name);
+        item.setState(new DecimalType(value));
+        if (alias == null) {
+            service.store(item);
+        } else {
+            service.store(item, alias);
+        }
+    }
+
+    private State state(String name) {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(name);
+        Iterator<HistoricItem> items = service.query(filter).iterator();
+        return items.hasNext() ? items.next().getState() : null;
+    }
+
+    private PersistenceItemInfo info(String name) {
+        return service.getItemInfo().stream().filter(info -> info.getName().equals(name)).findFirst().get();
+    }
+
+    private static String json(MapDbItem item) {
+        Gson gson = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
+        return gson.toJson(item);
+    }
+
+    private static MapDbItem item(String name, long timestamp, State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(state);
+        item.setTimestamp(new Date(timestamp));
+        return item;
+    }
+}
@@ -14,16 +14,21 @@ package org.openhab.transform.bin2json.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.eclipse.smarthome.core.util.HexUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 import com.igormaznitsa.jbbp.JBBPParser;
 import com.igormaznitsa.jbbp.exceptions.JBBPException;
 import com.igormaznitsa.jbbp.model.JBBPAbstractArrayField;
@@ -71,6 +76,8 @@ import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
  */
 public class Bin2Json {
 
+    private static final Gson GSON = new Gson();
+
     private final Logger logger = LoggerFactory.getLogger(Bin2Json.class);
 
     private JBBPParser parser;
@@ -120,6 +127,45 @@ public class Bin2Json {
         }
     }
 
+    /**
+     * Convert {@link String} in hexadecimal string format directly to a JSON string.
+     *
+     * The result is identical to {@code convert(hexString).toString()}, but the JSON is streamed from the parsed fields
+     * without building a {@link JsonObject} tree first.
+     *
+     * @param hexString Data in hexadecimal string format. Example data: 03FAFF
+     * @return JSON string
+     * @throws ConversionException
+     */
+    public String convertToJsonString(String hexString) throws ConversionException {
+        try {
+            return convertToJsonString(HexUtils.hexToBytes(hexString));
+        } catch (IllegalArgumentException e) {
+            throw new ConversionException(String.format("Illegal hexstring , reason: %s", e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Convert byte array directly to a JSON string.
+     *
+     * @param data Data in byte array format.
+     * @return JSON string
+     * @throws ConversionException
+     */
+    public String convertToJsonString(byte[] data) throws ConversionException {
+        try {
+            final StringWriter out = new StringWriter();
+            final JsonWriter writer = new JsonWriter(out);
+            writeStruct(writer, parser.parse(data));
+            writer.flush();
+            return out.toString();
+        } catch (IOException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        } catch (JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+    }
+
     /**
      * Convert data from {@link InputStream} to JSON object.
      *
@@ -236,4 +282,110 @@ public class Bin2Json {
         }
         return jsn;
     }
+
+    private void writeStruct(final JsonWriter writer, final JBBPFieldStruct struct)
+            throws IOException, ConversionException {
+        final JBBPAbstractField[] fields = struct.getArray();
+        if (hasDuplicateNames(fields)) {
+            // a JsonObject keeps only the last value of a name, fall back to the tree to get the same result
+            final JsonObject obj = new JsonObject();
+            for (final JBBPAbstractField f : fields) {
+                convertToJSon(obj, f);
+            }
+            GSON.toJson(obj, writer);
+            return;
+        }
+        writer.beginObject();
+        for (final JBBPAbstractField f : fields) {
+            writeField(writer, f);
+        }
+        writer.endObject();
+    }
+
+    private boolean hasDuplicateNames(final JBBPAbstractField[] fields) {
+        final Set<String> names = new HashSet<>();
+        for (final JBBPAbstractField f : fields) {
+            if (!names.add(f.getFieldName() == null ? "nonamed" : f.getFieldName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeField(final JsonWriter writer, final JBBPAbstractField field)
+            throws IOException, ConversionException {
+        final String fieldName = field.getFieldName() == null ? "nonamed" : field.getFieldName();
+        writer.name(fieldName);
+        if (field instanceof JBBPAbstractArrayField) {
+            writer.beginArray();
+            if (field instanceof JBBPFieldArrayBit) {
+                for (final byte b : ((JBBPFieldArrayBit) field).getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayBoolean) {
+                for (final boolean b : ((JBBPFieldArrayBoolean) field).getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayByte) {
+                for (final byte b : ((JBBPFieldArrayByte) field).getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayInt) {
+                for (final int b : ((JBBPFieldArrayInt) field).getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayLong) {
+                for (final long b : ((JBBPFieldArrayLong) field).getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayShort) {
+                for (final short b : ((JBBPFieldArrayShort) field).getArray()) {
+                    writer.value(b);
+                }
+            } else if (field instanceof JBBPFieldArrayStruct) {
+                final JBBPFieldArrayStruct array = (JBBPFieldArrayStruct) field;
+                for (int i = 0; i < array.size(); i++) {
+                    // every element is wrapped in an object holding the struct under its name
+                    final JBBPFieldStruct element = array.getElementAt(i);
+                    writer.beginObject();
+                    writer.name(element.getFieldName() == null ? "nonamed" : element.getFieldName());
+                    writeStruct(writer, element);
+                    writer.endObject();
+                }
+            } else if (field instanceof JBBPFieldArrayUByte) {
+                for (final byte b : ((JBBPFieldArrayUByte) field).getArray()) {
+                    writer.value(b & 0xFF);
+                }
+            } else if (field instanceof JBBPFieldArrayUShort) {
+                for (final short b : ((JBBPFieldArrayUShort) field).getArray()) {
+                    writer.value(b & 0xFFFF);
+                }
+            } else {
+                throw new ConversionException(String.format("Unexpected field type '%s'", field));
+            }
+            writer.endArray();
+        } else {
+            if (field instanceof JBBPFieldBit) {
+                writer.value(((JBBPFieldBit) field).getAsInt());
+            } else if (field instanceof JBBPFieldBoolean) {
+                writer.value(((JBBPFieldBoolean) field).getAsBool());
+            } else if (field instanceof JBBPFieldByte) {
+                writer.value(((JBBPFieldByte) field).getAsInt());
+            } else if (field instanceof JBBPFieldInt) {
+                writer.value(((JBBPFieldInt) field).getAsInt());
+            } else if (field instanceof JBBPFieldLong) {
+                writer.value(((JBBPFieldLong) field).getAsLong());
+            } else if (field instanceof JBBPFieldShort) {
+                writer.value(((JBBPFieldShort) field).getAsInt());
+            } else if (field instanceof JBBPFieldStruct) {
+                writeStruct(writer, (JBBPFieldStruct) field);
+            } else if (field instanceof JBBPFieldUByte) {
+                writer.value(((JBBPFieldUByte) field).getAsInt());
+            } else if (field instanceof JBBPFieldUShort) {
+                writer.value(((JBBPFieldUShort) field).getAsInt());
+            } else {
+                throw new ConversionException(String.format("Unexpected field '%s'", field));
+            }
+        }
+    }
 }
@@ -12,6 +12,9 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
@@ -30,8 +33,13 @@ import org.slf4j.LoggerFactory;
 @Component(immediate = true, property = { "smarthome.transform=BIN2JSON" })
 public class Bin2JsonTransformationService implements TransformationService {
 
+    private static final int MAX_CACHED_PARSERS = 64;
+
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    /** compiled parsers by syntax, preparing a parser compiles the whole rule */
+    private final Map<String, Bin2Json> parsers = new ConcurrentHashMap<>();
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
@@ -46,7 +54,7 @@ public class Bin2JsonTransformationService implements TransformationService {
         String result = "";
 
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            result = getParser(syntax).convertToJsonString(source);
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -56,4 +64,16 @@ public class Bin2JsonTransformationService implements TransformationService {
                     result);
         }
     }
+
+    private Bin2Json getParser(String syntax) throws ConversionException {
+        Bin2Json parser = parsers.get(syntax);
+        if (parser == null) {
+            parser = new Bin2Json(syntax);
+            if (parsers.size() >= MAX_CACHED_PARSERS) {
+                parsers.clear();
+            }
+            parsers.put(syntax, parser);
+        }
+        return parser;
+    }
 }
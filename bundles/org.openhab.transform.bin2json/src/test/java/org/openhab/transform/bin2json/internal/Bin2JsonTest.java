@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests that the streamed JSON of {@link Bin2Json} is identical to the JSON of the converted tree.
+ *
+ * @author agent - Initial contribution
+ */
+public class Bin2JsonTest {
+
+    @Test
+    public void testSimpleFields() throws ConversionException {
+        assertSamePaths("byte a; byte b; ubyte c;", "03FAFF");
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}",
+                new Bin2Json("byte a; byte b; ubyte c;").convertToJsonString("03FAFF"));
+    }
+
+    @Test
+    public void testNestedStructsAndArrays() throws ConversionException {
+        String rule = "ubyte a; header { ubyte version; ushort length; inner { int value; } } "
+                + "items [2] { byte id; bool flag; byte [2] data; } ushort [2] words; long big; bit:4 low; bit:4 high;";
+        String data = "FF" + "03" + "0010" + "00000001" + "05010A0B" + "FB000C0D" + "FFFF0001" + "7FFFFFFFFFFFFFFF"
+                + "A5";
+        assertSamePaths(rule, data);
+    }
+
+    @Test
+    public void testDuplicateFieldNames() throws ConversionException {
+        // unnamed fields all end up as "nonamed", of which a JsonObject only keeps the last value
+        String rule = "byte; byte; ubyte a; header { ubyte; ubyte; ushort length; } items [2] { byte; byte id; byte; }";
+        String data = "0102FF" + "030400FF" + "050607" + "08090A";
+        assertSamePaths(rule, data);
+    }
+
+    private void assertSamePaths(String rule, String data) throws ConversionException {
+        Bin2Json bin2json = new Bin2Json(rule);
+        assertEquals(bin2json.convert(data).toString(), bin2json.convertToJsonString(data));
+    }
+}
@@ -19,6 +19,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -31,6 +33,11 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
@@ -45,8 +52,35 @@ public class JinjaTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
+    private static final int MAX_CACHED_TEMPLATES = 256;
+
+    private static final String VALUE_JSON = "value_json";
+
     private Jinjava jinjava = new Jinjava();
 
+    /** thread safe, so a single instance is shared by all transformations */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** parsed templates by their source */
+    private final Map<String, ParsedTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * A template parsed into its node tree, which can be rendered any number of times.
+     *
+     * The tree is shared by concurrent transformations. This is safe because the nodes are not modified after parsing:
+     * all state of a rendering (bindings, scopes, errors and output) is kept by its own {@link JinjavaInterpreter},
+     * and the tags and filters the nodes delegate to are stateless singletons of the {@link Jinjava} instance.
+     */
+    static class ParsedTemplate {
+        final Node root;
+        final boolean usesValueJson;
+
+        ParsedTemplate(Node root, boolean usesValueJson) {
+            this.root = root;
+            this.usesValueJson = usesValueJson;
+        }
+    }
+
     /**
      * Transforms the input <code>value</code> by Jinja template.
      *
@@ -58,23 +92,67 @@ public class JinjaTransformationService implements TransformationService {
     public @Nullable String transform(String template, String value) throws TransformationException {
         logger.debug("about to transform '{}' by the function '{}'", value, template);
 
+        ParsedTemplate parsedTemplate = getParsedTemplate(template);
+
         Map<String, @Nullable Object> bindings = new HashMap<>();
         bindings.put("value", value);
 
-        try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
+        // only parse the value if the template can actually access it
+        if (parsedTemplate.usesValueJson) {
+            try {
+                JsonNode tree = objectMapper.readTree(value);
+                bindings.put(VALUE_JSON, toObject(tree));
+            } catch (IOException e) {
+                // ok, then value_json is null...
+            }
         }
 
-        String transformationResult = jinjava.render(template, bindings);
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava,
+                new Context(jinjava.getGlobalContext(), bindings), jinjava.getGlobalConfig());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        String transformationResult;
+        try {
+            transformationResult = interpreter.render(parsedTemplate.root);
+            checkErrors(template, interpreter);
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
 
         logger.debug("transformation resulted in '{}'", transformationResult);
 
         return transformationResult;
     }
 
+    ParsedTemplate getParsedTemplate(String template) throws TransformationException {
+        ParsedTemplate parsedTemplate = templates.get(template);
+        if (parsedTemplate == null) {
+            JinjavaInterpreter interpreter = jinjava.newInterpreter();
+            Node root = interpreter.parse(template);
+            checkErrors(template, interpreter);
+            parsedTemplate = new ParsedTemplate(root, template.contains(VALUE_JSON));
+            if (templates.size() >= MAX_CACHED_TEMPLATES) {
+                templates.clear();
+            }
+            templates.put(template, parsedTemplate);
+        }
+        return parsedTemplate;
+    }
+
+    /**
+     * @return the number of cached templates
+     */
+    int cachedTemplates() {
+        return templates.size();
+    }
+
+    private void checkErrors(String template, JinjavaInterpreter interpreter) throws TransformationException {
+        List<TemplateError> fatalErrors = interpreter.getErrorsCopy().stream()
+                .filter(error -> error.getSeverity() == ErrorType.FATAL).collect(Collectors.toList());
+        if (!fatalErrors.isEmpty()) {
+            throw new TransformationException("Failed to render template '" + template + "': " + fatalErrors);
+        }
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
@@ -12,6 +12,12 @@
  */
 package org.openhab.transform.jinja.internal;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -62,4 +68,77 @@ public class JinjaTransformationServiceTest {
         Assert.assertEquals("Hello world!", transformedResponse);
     }
 
+    @Test
+    public void testStringOnlyWithNonJsonValue() throws TransformationException {
+        String transformedResponse = processor.transform("Hello {{ value }}!", "{not json");
+
+        Assert.assertEquals("Hello {not json!", transformedResponse);
+        Assert.assertFalse(processor.getParsedTemplate("Hello {{ value }}!").usesValueJson);
+    }
+
+    @Test
+    public void testValueJsonWithNonJsonValue() throws TransformationException {
+        String transformedResponse = processor.transform("Hello {{ value_json }}{{ value }}!", "{not json");
+
+        Assert.assertEquals("Hello {not json!", transformedResponse);
+        Assert.assertTrue(processor.getParsedTemplate("Hello {{ value_json }}{{ value }}!").usesValueJson);
+    }
+
+    @Test
+    public void testValueJsonTypes() throws TransformationException {
+        String json = "{\"list\":[1,2.5,\"three\"],\"flag\":true,\"nothing\":null}";
+
+        Assert.assertEquals("3", processor.transform("{{ value_json.list | length }}", json));
+        Assert.assertEquals("2.5", processor.transform("{{ value_json.list[1] }}", json));
+        Assert.assertEquals("three", processor.transform("{{ value_json.list[2] }}", json));
+        Assert.assertEquals("yes", processor.transform("{% if value_json.flag %}yes{% endif %}", json));
+        Assert.assertEquals("[]", processor.transform("[{{ value_json.nothing }}]", json));
+    }
+
+    @Test
+    public void testParsedTemplateIsReused() throws TransformationException {
+        String template = "Hello {{ value }}!";
+
+        Assert.assertEquals("Hello world!", processor.transform(template, "world"));
+        Assert.assertEquals("Hello moon!", processor.transform(template, "moon"));
+
+        Assert.assertEquals(1, processor.cachedTemplates());
+        Assert.assertSame(processor.getParsedTemplate(template), processor.getParsedTemplate(template));
+    }
+
+    @Test
+    public void testCacheIsClearedWhenFull() throws TransformationException {
+        for (int i = 0; i < 256; i++) {
+            processor.transform("{{ value }} " + i, "x");
+        }
+        Assert.assertEquals(256, processor.cachedTemplates());
+
+        Assert.assertEquals("x 256", processor.transform("{{ value }} 256", "x"));
+        Assert.assertEquals(1, processor.cachedTemplates());
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testFatalRenderErrorThrowsException() throws TransformationException {
+        processor.transform("Hello {{ value + }}!", "world");
+    }
+
+    @Test
+    public void testConcurrentRenderingOfTheSameTemplate() throws Exception {
+        String template = "{% for i in range(3) %}{{ value_json.name }}{{ i }}{% endfor %}";
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String name = "n" + i;
+                results.add(executor.submit(() -> processor.transform(template, "{\"name\":\"" + name + "\"}")));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                String name = "n" + i;
+                Assert.assertEquals(name + "0" + name + "1" + name + "2", results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, processor.cachedTemplates());
+    }
 }
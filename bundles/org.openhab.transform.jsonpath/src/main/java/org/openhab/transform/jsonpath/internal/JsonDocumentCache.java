@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidJsonException;
+
+/**
+ * A short-lived cache of parsed JSON documents.
+ *
+ * A device usually publishes one JSON payload from which several channels each pick a different value. All of these
+ * transformations are applied within a short time to equal source strings, so they can share the parsed document.
+ * Entries expire after {@link #DEFAULT_TTL_MILLIS} and only a few documents are kept to bound the memory used.
+ *
+ * Parsed documents are shared between callers and must not be modified.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+class JsonDocumentCache {
+
+    static final long DEFAULT_TTL_MILLIS = 1000;
+    static final int DEFAULT_MAX_SIZE = 32;
+
+    private static class Entry {
+        final Object document;
+        final long expiresAt;
+
+        Entry(Object document, long expiresAt) {
+            this.document = document;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, Entry> documents = new ConcurrentHashMap<>();
+    private final Configuration configuration = Configuration.defaultConfiguration();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    JsonDocumentCache() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_MAX_SIZE);
+    }
+
+    JsonDocumentCache(long ttlMillis, int maxSize) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the parsed form of the given JSON source, parsing it if it is not cached or expired.
+     *
+     * @param source the JSON string
+     * @return the parsed document
+     * @throws InvalidJsonException if the source is not valid JSON
+     */
+    Object parse(String source) {
+        long now = System.nanoTime();
+        Entry entry = documents.get(source);
+        if (entry != null && now - entry.expiresAt < 0) {
+            return entry.document;
+        }
+        Object document = configuration.jsonProvider().parse(source);
+        if (documents.size() >= maxSize) {
+            evict(now);
+        }
+        documents.put(source, new Entry(document, now + ttlNanos));
+        return document;
+    }
+
+    /**
+     * @return the number of cached documents, including expired ones that were not evicted yet
+     */
+    int size() {
+        return documents.size();
+    }
+
+    private void evict(long now) {
+        documents.values().removeIf(e -> now - e.expiresAt >= 0);
+        Iterator<String> it = documents.keySet().iterator();
+        while (documents.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
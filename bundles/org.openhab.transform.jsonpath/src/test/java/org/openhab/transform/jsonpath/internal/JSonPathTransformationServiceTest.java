@@ -129,4 +129,12 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testSeveralPathsOnSameDocument() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("2", processor.transform("$[1].id", new String(jsonArray)));
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+    }
 }
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class JsonDocumentCacheTest {
+
+    private static final String JSON = "{\"id\":1,\"name\":\"bob\"}";
+
+    @Test
+    public void testEqualSourcesShareTheDocument() {
+        JsonDocumentCache cache = new JsonDocumentCache();
+        Object document = cache.parse(JSON);
+        assertSame(document, cache.parse(new String(JSON)));
+        assertNotSame(document, cache.parse("{\"id\":2,\"name\":\"alice\"}"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testExpiredDocumentIsParsedAgain() throws InterruptedException {
+        JsonDocumentCache cache = new JsonDocumentCache(1, JsonDocumentCache.DEFAULT_MAX_SIZE);
+        Object document = cache.parse(JSON);
+        Thread.sleep(10);
+        Object parsedAgain = cache.parse(JSON);
+        assertNotSame(document, parsedAgain);
+        assertEquals(document, parsedAgain);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testDocumentsAreNotCachedWithoutTtl() {
+        JsonDocumentCache cache = new JsonDocumentCache(0, JsonDocumentCache.DEFAULT_MAX_SIZE);
+        assertNotSame(cache.parse(JSON), cache.parse(JSON));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        JsonDocumentCache cache = new JsonDocumentCache(60_000, JsonDocumentCache.DEFAULT_MAX_SIZE);
+        for (int i = 0; i < 100; i++) {
+            cache.parse("{\"id\":" + i + "}");
+            assertTrue("Cached documents: " + cache.size(), cache.size() <= JsonDocumentCache.DEFAULT_MAX_SIZE);
+        }
+        assertEquals(JsonDocumentCache.DEFAULT_MAX_SIZE, cache.size());
+
+        // The latest document is still cached
+        Object latest = cache.parse("{\"id\":99}");
+        assertSame(latest, cache.parse("{\"id\":99}"));
+    }
+}
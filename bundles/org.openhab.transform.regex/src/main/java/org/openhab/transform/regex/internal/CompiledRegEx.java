@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A parsed and compiled transformation expression, either in the match form {@code <regex>} or in the substitution
+ * form {@code s/<regex>/<substitution>/<options>}.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+class CompiledRegEx {
+
+    private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+
+    private final Pattern pattern;
+    private final @Nullable String substitution;
+    private final boolean global;
+
+    private CompiledRegEx(Pattern pattern, @Nullable String substitution, boolean global) {
+        this.pattern = pattern;
+        this.substitution = substitution;
+        this.global = global;
+    }
+
+    /**
+     * Parses and compiles the given expression.
+     *
+     * @param regExpression the expression as given to the transformation
+     * @return the compiled expression
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid
+     */
+    static CompiledRegEx compile(String regExpression) {
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            return new CompiledRegEx(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                    substMatcher.group(3).equals("g"));
+        }
+        return new CompiledRegEx(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null, false);
+    }
+
+    /**
+     * @return the compiled pattern, including the {@code ^...$} anchors in the match form
+     */
+    Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return the substitution, or null if this is the match form
+     */
+    @Nullable
+    String getSubstitution() {
+        return substitution;
+    }
+
+    /**
+     * @return true if the substitution is applied to all occurrences
+     */
+    boolean isGlobal() {
+        return global;
+    }
+}
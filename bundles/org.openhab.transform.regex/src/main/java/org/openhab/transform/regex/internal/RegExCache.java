@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A bounded, thread safe cache of {@link CompiledRegEx}s keyed by the transformation expression.
+ *
+ * Transformations are typically configured with a handful of expressions which are applied over and over again. When
+ * the cache is full an arbitrary entry is evicted, which is good enough for that access pattern.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+class RegExCache {
+
+    static final int DEFAULT_MAX_SIZE = 256;
+
+    private final Map<String, CompiledRegEx> cache = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    RegExCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    RegExCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the compiled form of the given expression, compiling and caching it if necessary.
+     *
+     * @param regExpression the transformation expression
+     * @return the compiled expression
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid
+     */
+    CompiledRegEx get(String regExpression) {
+        CompiledRegEx compiled = cache.get(regExpression);
+        if (compiled != null) {
+            hits.incrementAndGet();
+            return compiled;
+        }
+        misses.incrementAndGet();
+        compiled = CompiledRegEx.compile(regExpression);
+        if (cache.size() >= maxSize) {
+            Iterator<String> it = cache.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        cache.put(regExpression, compiled);
+        return compiled;
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    int size() {
+        return cache.size();
+    }
+}
@@ -79,4 +79,16 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_compiledExpressionIsReused() throws TransformationException {
+        // method under test
+        processor.transform("s/work/cast/g", "My network does not work.");
+        String transformedResponse = processor.transform("s/work/cast/g", "My network does not work.");
+
+        // Asserts
+        assertEquals("My netcast does not cast.", transformedResponse);
+        assertEquals(1, processor.getCacheMisses());
+        assertEquals(1, processor.getCacheHits());
+    }
 }
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compiled form of a scale file.
+ *
+ * The ranges of the file are cut at all of their limits into non-overlapping segments: the open interval before each
+ * limit, the limit itself and the open interval after the last limit. Each segment is assigned the first range in file
+ * order containing it, so a lookup is a binary search over the limits that keeps the first-match semantics of the
+ * file for overlapping ranges.
+ *
+ * @author agent
+ */
+public class ScaleTable {
+
+    private static final String FORMAT_VALUE = "%value%";
+    private static final String FORMAT_LABEL = "%label%";
+
+    private static final int PART_TEXT = 0;
+    private static final int PART_VALUE = 1;
+    private static final int PART_LABEL = 2;
+
+    /** sorted distinct limits of all ranges */
+    private final BigDecimal[] limits;
+
+    /**
+     * label of each segment, null if no range matches. Segment {@code 2i} is the open interval before
+     * {@code limits[i]}, segment {@code 2i+1} is {@code limits[i]} itself and the last segment is the open interval
+     * after the last limit.
+     */
+    private final String[] labels;
+
+    private final String nonNumeric;
+
+    /** the format split at its placeholders, with the kind of each part in {@link #formatKinds} */
+    private final String[] formatParts;
+    private final int[] formatKinds;
+
+    /**
+     * Compiles a scale.
+     *
+     * @param ranges the ranges with their labels in file order
+     * @param nonNumeric the label for non numeric input, may be null
+     * @param format the presentation format, may contain {@code %value%} and {@code %label%}
+     */
+    public ScaleTable(Map<Range, String> ranges, String nonNumeric, String format) {
+        TreeSet<BigDecimal> points = new TreeSet<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                points.add(range.min);
+            }
+            if (range.max != null) {
+                points.add(range.max);
+            }
+        }
+        limits = points.toArray(new BigDecimal[points.size()]);
+        labels = new String[2 * limits.length + 1];
+        for (int segment = 0; segment < labels.length; segment++) {
+            BigDecimal representative = representative(segment);
+            for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+                if (entry.getKey().contains(representative)) {
+                    labels[segment] = entry.getValue();
+                    break;
+                }
+            }
+        }
+        this.nonNumeric = nonNumeric;
+        List<String> parts = new ArrayList<>();
+        List<Integer> kinds = new ArrayList<>();
+        splitFormat(format, parts, kinds);
+        this.formatParts = parts.toArray(new String[parts.size()]);
+        this.formatKinds = kinds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the label of the first range containing the value.
+     *
+     * @param value the value to look up
+     * @return the label or null if no range contains the value
+     */
+    public String lookup(BigDecimal value) {
+        int index = Arrays.binarySearch(limits, value);
+        return labels[index >= 0 ? 2 * index + 1 : 2 * (-index - 1)];
+    }
+
+    /**
+     * @return the label for non numeric input, null if the scale does not define one
+     */
+    public String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    /**
+     * Applies the presentation format.
+     *
+     * @param value the transformed input
+     * @param label the label of the matching range
+     * @return the formatted result
+     */
+    public String format(String value, String label) {
+        if (formatParts.length == 1) {
+            return resolve(0, value, label);
+        }
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < formatParts.length; i++) {
+            result.append(resolve(i, value, label));
+        }
+        return result.toString();
+    }
+
+    private String resolve(int part, String value, String label) {
+        switch (formatKinds[part]) {
+            case PART_VALUE:
+                return value;
+            case PART_LABEL:
+                return label;
+            default:
+                return formatParts[part];
+        }
+    }
+
+    private BigDecimal representative(int segment) {
+        if (limits.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        int index = segment / 2;
+        if (segment % 2 == 1) {
+            return limits[index];
+        }
+        if (index == 0) {
+            return limits[0].subtract(BigDecimal.ONE);
+        }
+        if (index == limits.length) {
+            return limits[index - 1].add(BigDecimal.ONE);
+        }
+        // exact midpoint, a division by two always terminates
+        return limits[index - 1].add(limits[index]).divide(BigDecimal.valueOf(2));
+    }
+
+    private static void splitFormat(String format, List<String> parts, List<Integer> kinds) {
+        int start = 0;
+        while (start < format.length()) {
+            int valueIndex = format.indexOf(FORMAT_VALUE, start);
+            int labelIndex = format.indexOf(FORMAT_LABEL, start);
+            int next;
+            String placeholder;
+            int kind;
+            if (valueIndex >= 0 && (labelIndex < 0 || valueIndex < labelIndex)) {
+                next = valueIndex;
+                placeholder = FORMAT_VALUE;
+                kind = PART_VALUE;
+            } else if (labelIndex >= 0) {
+                next = labelIndex;
+                placeholder = FORMAT_LABEL;
+                kind = PART_LABEL;
+            } else {
+                break;
+            }
+            if (next > start) {
+                parts.add(format.substring(start, next));
+                kinds.add(PART_TEXT);
+            }
+            parts.add(placeholder);
+            kinds.add(kind);
+            start = next + placeholder.length();
+        }
+        if (start < format.length() || parts.isEmpty()) {
+            parts.add(format.substring(start));
+            kinds.add(PART_TEXT);
+        }
+    }
+}
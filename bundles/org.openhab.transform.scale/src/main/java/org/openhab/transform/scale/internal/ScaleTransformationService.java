@@ -42,7 +42,7 @@ import org.slf4j.LoggerFactory;
  * @author Markus Rathgeb - drop usage of Guava
  */
 @Component(immediate = true, service = TransformationService.class, property = { "smarthome.transform=SCALE" })
-public class ScaleTransformationService extends AbstractFileTransformationService<Map<Range, String>> {
+public class ScaleTransformationService extends AbstractFileTransformationService<ScaleTable> {
 
     private final Logger logger = LoggerFactory.getLogger(ScaleTransformationService.class);
 
@@ -51,12 +51,8 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
 
     private static final String NON_NUMBER = "NaN";
     private static final String FORMAT = "format";
-    private static final String FORMAT_VALUE = "%value%";
     private static final String FORMAT_LABEL = "%label%";
 
-    /** Inaccessible range used to store presentation format ]0..0[ */
-    private static final Range FORMAT_RANGE = Range.range(BigDecimal.ZERO, false, BigDecimal.ZERO, false);
-
     /**
      * The implementation of {@link OrderedProperties} that let access
      * properties in the same order than presented in the source file
@@ -93,12 +89,12 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
      * The method transforms the input <code>source</code> by matching searching
      * the range where it fits i.e. [min..max]=value or ]min..max]=value
      *
-     * @param properties the list of properties defining all the available ranges
-     * @param source     the input to transform
+     * @param data   the compiled scale defining all the available ranges
+     * @param source the input to transform
      *
      */
     @Override
-    protected String internalTransform(Map<Range, String> data, String source) throws TransformationException {
+    protected String internalTransform(ScaleTable data, String source) throws TransformationException {
         try {
             final BigDecimal value = new BigDecimal(source);
 
@@ -109,7 +105,7 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
                 final QuantityType<?> quantity = new QuantityType<>(source);
                 return formatResult(data, source, quantity.toBigDecimal());
             } catch (NumberFormatException e2) {
-                String nonNumeric = data.get(null);
+                String nonNumeric = data.getNonNumeric();
                 if (nonNumeric != null) {
                     return nonNumeric;
                 } else {
@@ -120,25 +116,21 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
         }
     }
 
-    private String formatResult(Map<Range, String> data, String source, final BigDecimal value)
+    private String formatResult(ScaleTable data, String source, final BigDecimal value)
             throws TransformationException {
-        String format = data.get(FORMAT_RANGE);
-        String result = getScaleResult(data, source, value);
-        return format.replaceAll(FORMAT_VALUE, source).replaceAll(FORMAT_LABEL, result);
-    }
-
-    private String getScaleResult(Map<Range, String> data, String source, final BigDecimal value)
-            throws TransformationException {
-        return data.entrySet().stream().filter(entry -> entry.getKey().contains(value)).findFirst()
-                .map(Map.Entry::getValue)
-                .orElseThrow(() -> new TransformationException("No matching range for '" + source + "'"));
+        String result = data.lookup(value);
+        if (result == null) {
+            throw new TransformationException("No matching range for '" + source + "'");
+        }
+        return data.format(source, result);
     }
 
     @Override
-    protected Map<Range, String> internalLoadTransform(String filename) throws TransformationException {
+    protected ScaleTable internalLoadTransform(String filename) throws TransformationException {
         try (FileReader reader = new FileReader(filename)) {
             final Map<Range, String> data = new LinkedHashMap<>();
-            data.put(FORMAT_RANGE, FORMAT_LABEL);
+            String nonNumeric = null;
+            String format = FORMAT_LABEL;
             final OrderedProperties properties = new OrderedProperties();
             properties.load(reader);
 
@@ -164,9 +156,9 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
                     }
                 } else {
                     if (NON_NUMBER.equals(entry)) {
-                        data.put(null, value);
+                        nonNumeric = value;
                     } else if (FORMAT.equals(entry)) {
-                        data.put(FORMAT_RANGE, value);
+                        format = value;
                     } else {
                         logger.warn("Scale transform file '{}' does not comply with syntax for entry : '{}', '{}'",
                                 filename, entry, value);
@@ -174,7 +166,7 @@ public class ScaleTransformationService extends AbstractFileTransformationServic
                 }
             }
 
-            return data;
+            return new ScaleTable(data, nonNumeric, format);
         } catch (final IOException ex) {
             throw new TransformationException("An error occurred while opening file.", ex);
         }
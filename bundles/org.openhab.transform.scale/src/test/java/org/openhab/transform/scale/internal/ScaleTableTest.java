@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ScaleTableTest {
+
+    @Test
+    public void testOverlappingRangesResolveToTheFirstMatch() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.closed(bd("10"), bd("20")), "first");
+        ranges.put(Range.closed(bd("0"), bd("30")), "second");
+        ranges.put(Range.closed(bd("15"), bd("25")), "third");
+        ScaleTable table = new ScaleTable(ranges, null, "%label%");
+
+        assertEquals("second", table.lookup(bd("5")));
+        assertEquals("first", table.lookup(bd("10")));
+        assertEquals("first", table.lookup(bd("15")));
+        assertEquals("first", table.lookup(bd("17.5")));
+        assertEquals("first", table.lookup(bd("20")));
+        assertEquals("second", table.lookup(bd("22")));
+        assertEquals("second", table.lookup(bd("25")));
+        assertEquals("second", table.lookup(bd("30")));
+        assertNull(table.lookup(bd("30.001")));
+    }
+
+    @Test
+    public void testOrderOfTheFileDecides() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.closed(bd("0"), bd("30")), "wide");
+        ranges.put(Range.closed(bd("10"), bd("20")), "narrow");
+        ScaleTable table = new ScaleTable(ranges, null, "%label%");
+
+        assertEquals("wide", table.lookup(bd("15")));
+        assertEquals("wide", table.lookup(bd("10")));
+    }
+
+    @Test
+    public void testBoundsAtSegmentEdges() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.closedOpen(bd("0"), bd("10")), "low");
+        ranges.put(Range.open(bd("10"), bd("20")), "middle");
+        ranges.put(Range.openClosed(bd("20"), bd("30")), "high");
+        ScaleTable table = new ScaleTable(ranges, null, "%label%");
+
+        assertEquals("low", table.lookup(bd("0")));
+        assertEquals("low", table.lookup(bd("9.999")));
+        // 10 is excluded by both adjacent ranges
+        assertNull(table.lookup(bd("10")));
+        assertEquals("middle", table.lookup(bd("10.001")));
+        assertEquals("middle", table.lookup(bd("19.999")));
+        assertNull(table.lookup(bd("20")));
+        assertEquals("high", table.lookup(bd("20.001")));
+        assertEquals("high", table.lookup(bd("30")));
+        assertNull(table.lookup(bd("30.001")));
+    }
+
+    @Test
+    public void testLimitsAreComparedByValue() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.closedOpen(bd("0"), bd("1.0")), "below");
+        ranges.put(Range.atLeast(bd("1")), "above");
+        ScaleTable table = new ScaleTable(ranges, null, "%label%");
+
+        assertEquals("above", table.lookup(bd("1.00")));
+        assertEquals("below", table.lookup(bd("0.99")));
+    }
+
+    @Test
+    public void testOpenEndedRanges() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.lessThan(bd("-10")), "very low");
+        ranges.put(Range.atMost(bd("0")), "low");
+        ranges.put(Range.greaterThan(bd("100")), "very high");
+        ranges.put(Range.atLeast(bd("0")), "high");
+        ScaleTable table = new ScaleTable(ranges, null, "%label%");
+
+        assertEquals("very low", table.lookup(bd("-1000000")));
+        assertEquals("low", table.lookup(bd("-10")));
+        assertEquals("low", table.lookup(bd("0")));
+        assertEquals("high", table.lookup(bd("0.001")));
+        assertEquals("high", table.lookup(bd("100")));
+        assertEquals("very high", table.lookup(bd("100.001")));
+        assertEquals("very high", table.lookup(bd("1000000")));
+    }
+
+    @Test
+    public void testRangeWithoutLimits() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.all(), "any");
+        ScaleTable table = new ScaleTable(ranges, null, "%label%");
+
+        assertEquals("any", table.lookup(bd("-5")));
+        assertEquals("any", table.lookup(bd("0")));
+        assertEquals("any", table.lookup(bd("5")));
+    }
+
+    @Test
+    public void testValuesOutsideEveryRange() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.closed(bd("0"), bd("10")), "a");
+        ranges.put(Range.closed(bd("20"), bd("30")), "b");
+        ScaleTable table = new ScaleTable(ranges, "NaN", "%label%");
+
+        assertNull(table.lookup(bd("-1")));
+        assertNull(table.lookup(bd("15")));
+        assertNull(table.lookup(bd("31")));
+        assertEquals("NaN", table.getNonNumeric());
+
+        assertNull(new ScaleTable(new LinkedHashMap<>(), null, "%label%").lookup(bd("0")));
+    }
+
+    @Test
+    public void testFormat() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        assertEquals("label", new ScaleTable(ranges, null, "%label%").format("5", "label"));
+        assertEquals("5", new ScaleTable(ranges, null, "%value%").format("5", "label"));
+        assertEquals("5 is label", new ScaleTable(ranges, null, "%value% is %label%").format("5", "label"));
+        assertEquals("[label: 5]", new ScaleTable(ranges, null, "[%label%: %value%]").format("5", "label"));
+        assertEquals("label5label", new ScaleTable(ranges, null, "%label%%value%%label%").format("5", "label"));
+        assertEquals("constant", new ScaleTable(ranges, null, "constant").format("5", "label"));
+        assertEquals("", new ScaleTable(ranges, null, "").format("5", "label"));
+        assertEquals("%val 5", new ScaleTable(ranges, null, "%val %value%").format("5", "label"));
+    }
+
+    private static BigDecimal bd(String value) {
+        return new BigDecimal(value);
+    }
+}
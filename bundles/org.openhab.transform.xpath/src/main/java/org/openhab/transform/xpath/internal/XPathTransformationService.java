@@ -13,12 +13,16 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,14 +39,54 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Neither {@link DocumentBuilder}s nor compiled {@link XPathExpression}s are thread safe, so they are kept per thread
+ * and reused for subsequent transformations on the same thread.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    private static final int MAX_EXPRESSIONS_PER_THREAD = 64;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    /**
+     * The parser, XPath instance and compiled expressions of one thread.
+     */
+    private static class ThreadState {
+        private final DocumentBuilder builder;
+        private final XPath xpath = XPathFactory.newInstance().newXPath();
+        @SuppressWarnings("serial")
+        private final Map<String, XPathExpression> expressions = new LinkedHashMap<String, XPathExpression>(16,
+                0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                return size() > MAX_EXPRESSIONS_PER_THREAD;
+            }
+        };
+
+        ThreadState() throws ParserConfigurationException {
+            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+            domFactory.setNamespaceAware(true);
+            domFactory.setValidating(false);
+            builder = domFactory.newDocumentBuilder();
+        }
+
+        XPathExpression compile(String xpathExpression) throws XPathExpressionException {
+            XPathExpression expr = expressions.get(xpathExpression);
+            if (expr == null) {
+                expr = xpath.compile(xpathExpression);
+                expressions.put(xpathExpression, expr);
+            }
+            return expr;
+        }
+    }
+
+    private final ThreadLocal<@Nullable ThreadState> threadState = new ThreadLocal<>();
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -54,10 +98,9 @@ public class XPathTransformationService implements TransformationService {
         StringReader stringReader = null;
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            ThreadState state = getThreadState();
+            DocumentBuilder builder = state.builder;
+            builder.reset();
 
             stringReader = new StringReader(source);
             InputSource inputSource = new InputSource(stringReader);
@@ -65,8 +108,7 @@ public class XPathTransformationService implements TransformationService {
 
             Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            XPathExpression expr = state.compile(xpathExpression);
 
             String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
 
@@ -82,4 +124,13 @@ public class XPathTransformationService implements TransformationService {
         }
     }
 
+    private ThreadState getThreadState() throws ParserConfigurationException {
+        ThreadState state = threadState.get();
+        if (state == null) {
+            state = new ThreadState();
+            threadState.set(state);
+        }
+        return state;
+    }
+
 }
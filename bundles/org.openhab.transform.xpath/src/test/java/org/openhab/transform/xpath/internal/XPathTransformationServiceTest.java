@@ -14,6 +14,8 @@ package org.openhab.transform.xpath.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
 import org.junit.Test;
@@ -41,4 +43,31 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testCachedExpressions() throws Exception {
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("46", processor.transform("//current_conditions/temp_f/@data", source));
+
+        // more distinct expressions than are cached per thread
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.toString(i), processor.transform("string(" + i + ")", source));
+        }
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("Klar", processor.transform("//forecast_conditions[2]/condition/@data", source));
+    }
+
+    @Test
+    public void testExpressionsOnOtherThreads() throws Exception {
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+
+        String result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return processor.transform("//current_conditions/temp_c/@data", source);
+            } catch (TransformationException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get();
+        assertEquals("8", result);
+    }
+
 }
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+
+import org.eclipse.smarthome.core.service.AbstractWatchService;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link XsltTransformationScriptWatcher} watches the transformation directory for files. If a deleted/modified
+ * file is detected, its compiled stylesheet is removed from the cache of the {@link XsltTransformationService}.
+ *
+ * @author agent
+ */
+@Component()
+public class XsltTransformationScriptWatcher extends AbstractWatchService {
+
+    private XsltTransformationService service;
+
+    public XsltTransformationScriptWatcher() {
+        super(XsltTransformationService.TRANSFORM_FOLDER);
+    }
+
+    @Reference
+    public void setXsltTransformationService(XsltTransformationService service) {
+        this.service = service;
+    }
+
+    public void unsetXsltTransformationService(XsltTransformationService service) {
+        this.service = null;
+    }
+
+    @Override
+    public void activate() {
+        super.activate();
+    }
+
+    @Override
+    protected boolean watchSubDirectories() {
+        return true;
+    }
+
+    @Override
+    protected Kind<?>[] getWatchEventKinds(Path directory) {
+        return new Kind<?>[] { ENTRY_DELETE, ENTRY_MODIFY };
+    }
+
+    @Override
+    protected void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path) {
+        logger.debug("New watch event {} for path {}.", kind, path);
+
+        if (kind == OVERFLOW) {
+            return;
+        }
+
+        // the cache is keyed by the name relative to the transformation folder, which may contain subfolders
+        String filename = Paths.get(XsltTransformationService.TRANSFORM_FOLDER).toAbsolutePath()
+                .relativize(path.toAbsolutePath()).toString();
+
+        logger.debug("Reloading XSLT file {}.", filename);
+
+        service.removeFromCache(filename);
+    }
+}
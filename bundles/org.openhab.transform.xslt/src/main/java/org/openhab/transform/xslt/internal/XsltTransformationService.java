@@ -15,9 +15,12 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -38,11 +41,20 @@ import org.slf4j.LoggerFactory;
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=XSLT" })
+@Component(immediate = true, service = { TransformationService.class,
+        XsltTransformationService.class }, property = { "smarthome.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    public static final String TRANSFORM_FOLDER = ConfigConstants.getConfigFolder() + File.separator
+            + TransformationService.TRANSFORM_FOLDER_NAME;
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    /** compiled stylesheets by file name, invalidated by the {@link XsltTransformationScriptWatcher} */
+    private final Map<String, Templates> templatesCache = new ConcurrentHashMap<>();
+
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,20 +72,9 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        Templates templates = getTemplates(filename);
 
-        try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
-        } catch (Exception e) {
-            String message = "opening file '" + filename + "' throws exception";
-
-            logger.error("{}", message, e);
-            throw new TransformationException(message, e);
-        }
-
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, filename);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
@@ -81,7 +82,7 @@ public class XsltTransformationService implements TransformationService {
         Transformer transformer;
 
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            transformer = templates.newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -93,4 +94,39 @@ public class XsltTransformationService implements TransformationService {
         return out.toString();
     }
 
+    /**
+     * Removes a compiled stylesheet from the cache, so that it is read again on the next transformation.
+     *
+     * @param filename the name of the file relative to the transformation folder
+     */
+    protected void removeFromCache(String filename) {
+        logger.debug("Removing XSLT {} from cache.", filename);
+        templatesCache.remove(filename);
+    }
+
+    private Templates getTemplates(String filename) throws TransformationException {
+        Templates templates = templatesCache.get(filename);
+        if (templates != null) {
+            return templates;
+        }
+        // TransformerFactory is not thread safe, the compiled Templates are
+        synchronized (transformerFactory) {
+            templates = templatesCache.get(filename);
+            if (templates == null) {
+                String path = TRANSFORM_FOLDER + File.separator + filename;
+                logger.debug("Loading XSLT {} from storage", path);
+                try {
+                    templates = transformerFactory.newTemplates(new StreamSource(new File(path)));
+                } catch (TransformerConfigurationException e) {
+                    String message = "compiling file '" + filename + "' throws exception";
+
+                    logger.error("{}", message, e);
+                    throw new TransformationException(message, e);
+                }
+                templatesCache.put(filename, templates);
+            }
+            return templates;
+        }
+    }
+
 }
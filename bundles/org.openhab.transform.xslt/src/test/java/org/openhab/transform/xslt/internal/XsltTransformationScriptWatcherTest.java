@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caching of compiled stylesheets and their invalidation by the {@link XsltTransformationScriptWatcher}.
+ *
+ * @author agent
+ */
+public class XsltTransformationScriptWatcherTest extends AbstractTransformationServiceTest {
+
+    private static final String FILENAME = "cache_test.xsl";
+
+    private final Path file = Paths.get(XsltTransformationService.TRANSFORM_FOLDER, FILENAME);
+
+    private XsltTransformationService processor;
+    private XsltTransformationScriptWatcher watcher;
+
+    @Before
+    public void init() throws IOException {
+        processor = new XsltTransformationService();
+        watcher = new XsltTransformationScriptWatcher();
+        watcher.setXsltTransformationService(processor);
+        writeStylesheet("first");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testCompiledStylesheetIsReused() throws Exception {
+        assertEquals("first", processor.transform(FILENAME, source));
+
+        // without a watch event the compiled stylesheet is used, so the changed file is not read
+        writeStylesheet("second");
+        assertEquals("first", processor.transform(FILENAME, source));
+    }
+
+    @Test
+    public void testModifiedStylesheetIsRecompiled() throws Exception {
+        assertEquals("first", processor.transform(FILENAME, source));
+
+        writeStylesheet("second");
+        watcher.processWatchEvent(null, ENTRY_MODIFY, file.toAbsolutePath());
+        assertEquals("second", processor.transform(FILENAME, source));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testDeletedStylesheetIsEvicted() throws Exception {
+        assertEquals("first", processor.transform(FILENAME, source));
+
+        Files.delete(file);
+        watcher.processWatchEvent(null, ENTRY_DELETE, file.toAbsolutePath());
+        processor.transform(FILENAME, source);
+    }
+
+    private void writeStylesheet(String result) throws IOException {
+        String stylesheet = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+                + "<xsl:output method=\"text\"/><xsl:template match=\"/\">" + result + "</xsl:template>"
+                + "</xsl:stylesheet>";
+        Files.write(file, stylesheet.getBytes(StandardCharsets.UTF_8));
+    }
+
+}